@@ -4,6 +4,8 @@ import com.steve.ai.SteveMod;
 import com.steve.ai.action.actions.*;
 import com.steve.ai.ai.ResponseParser;
 import com.steve.ai.ai.TaskPlanner;
+import com.steve.ai.chunk.AgentChunkTickets;
+import com.steve.ai.chunk.ChunkTicketLevel;
 import com.steve.ai.config.SteveConfig;
 import com.steve.ai.entity.SteveEntity;
 
@@ -86,6 +88,7 @@ public class ActionExecutor {
 
     public void tick() {
         ticksSinceLastAction++;
+        updateChunkTicket();
 
         if (currentAction != null) {
             if (currentAction.isComplete()) {
@@ -94,6 +97,7 @@ public class ActionExecutor {
                         steve.getSteveName(), result.getMessage(), result.isSuccess());
 
                 steve.getMemory().addAction(currentAction.getDescription());
+                currentAction.releaseChunks();
 
                 if (!result.isSuccess() && result.requiresReplanning()) {
                     // Action failed, need to replan
@@ -182,6 +186,14 @@ public class ActionExecutor {
         };
     }
 
+    /**
+     * Queue a task directly, without going through the planner (e.g. to resume work after a restart)
+     */
+    public void queueTask(Task task) {
+        taskQueue.add(task);
+        SteveMod.LOGGER.info("Steve '{}' queued task: {}", steve.getSteveName(), task);
+    }
+
     public void stopCurrentAction() {
         if (currentAction != null) {
             currentAction.cancel();
@@ -202,4 +214,20 @@ public class ActionExecutor {
     public String getCurrentGoal() {
         return currentGoal;
     }
+
+    /**
+     * Keep this Steve's chunk loaded while it has work, at the level the current action needs.
+     * Between queued tasks the Steve must keep ticking too, or it would never start the next one.
+     */
+    private void updateChunkTicket() {
+        ChunkTicketLevel ticketLevel;
+        if (currentAction != null && !currentAction.isComplete()) {
+            ticketLevel = currentAction.getChunkTicketLevel();
+        } else if (!taskQueue.isEmpty()) {
+            ticketLevel = ChunkTicketLevel.ENTITY_TICKING;
+        } else {
+            ticketLevel = ChunkTicketLevel.NONE;
+        }
+        AgentChunkTickets.update(steve, ticketLevel);
+    }
 }
@@ -0,0 +1,269 @@
+package com.steve.ai.action;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.BuildPlanner;
+import com.steve.ai.structure.PlanTransform;
+import com.steve.ai.structure.StructureSpec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-level storage of unfinished collaborative builds, so a restart does not lose progress.
+ * A build is stored as its spec (procedural plans are regenerated) or its packed plan (templates),
+ * plus a BitSet of the plan indices that are done. The plan part is encoded once and cached;
+ * only builds whose progress changed since the last save are re-encoded.
+ * Stored builds are kept as raw tags after loading and only decoded when someone resumes them.
+ */
+public class CollaborativeBuildData extends SavedData {
+    private static final String DATA_NAME = SteveMod.MODID + "_collaborative_builds";
+
+    // Builds currently running in memory, with their cached encodings
+    private final Map<String, TrackedBuild> tracked = new ConcurrentHashMap<>();
+    // Builds loaded from disk that nobody has resumed yet
+    private final Map<String, StoredBuild> stored = new ConcurrentHashMap<>();
+
+    public static CollaborativeBuildData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(CollaborativeBuildData::load, CollaborativeBuildData::new, DATA_NAME);
+    }
+
+    private static CollaborativeBuildData load(CompoundTag tag) {
+        CollaborativeBuildData data = new CollaborativeBuildData();
+        ListTag builds = tag.getList("Builds", Tag.TAG_COMPOUND);
+        for (int i = 0; i < builds.size(); i++) {
+            StoredBuild build = new StoredBuild(builds.getCompound(i));
+            data.stored.put(build.structureId, build);
+        }
+        SteveMod.LOGGER.info("Loaded {} unfinished collaborative builds", data.stored.size());
+        return data;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        ListTag builds = new ListTag();
+        for (TrackedBuild build : tracked.values()) {
+            builds.add(build.encode());
+        }
+        for (StoredBuild build : stored.values()) {
+            builds.add(build.tag);
+        }
+        tag.put("Builds", builds);
+        return tag;
+    }
+
+    /**
+     * Start persisting a running build
+     */
+    public void track(CollaborativeBuildManager.CollaborativeBuild build) {
+        stored.remove(build.structureId);
+        tracked.put(build.structureId, new TrackedBuild(build));
+        setDirty();
+    }
+
+    /**
+     * Note that a running build made progress or gained a participant
+     */
+    public void markDirty(CollaborativeBuildManager.CollaborativeBuild build) {
+        TrackedBuild trackedBuild = tracked.get(build.structureId);
+        if (trackedBuild != null) {
+            trackedBuild.dirty = true;
+            setDirty();
+        }
+    }
+
+    /**
+     * Stop running a build in memory but keep it on disk for a later resume
+     */
+    public void park(CollaborativeBuildManager.CollaborativeBuild build) {
+        TrackedBuild trackedBuild = tracked.remove(build.structureId);
+        if (trackedBuild != null) {
+            stored.put(build.structureId, new StoredBuild(trackedBuild.encode()));
+            setDirty();
+        }
+    }
+
+    public void remove(String structureId) {
+        boolean removed = tracked.remove(structureId) != null;
+        removed |= stored.remove(structureId) != null;
+        if (removed) {
+            setDirty();
+        }
+    }
+
+    /**
+     * Builds waiting to be resumed
+     */
+    public Collection<StoredBuild> getStoredBuilds() {
+        return Collections.unmodifiableCollection(stored.values());
+    }
+
+    public StoredBuild getStoredBuild(String structureId) {
+        return stored.get(structureId);
+    }
+
+    private static class TrackedBuild {
+        final CollaborativeBuildManager.CollaborativeBuild build;
+        CompoundTag planTag; // Immutable once encoded
+        CompoundTag lastEncoded;
+        volatile boolean dirty = true;
+
+        TrackedBuild(CollaborativeBuildManager.CollaborativeBuild build) {
+            this.build = build;
+        }
+
+        CompoundTag encode() {
+            if (!dirty && lastEncoded != null) {
+                return lastEncoded;
+            }
+            dirty = false;
+            if (planTag == null) {
+                planTag = encodePlan(build.buildPlan);
+            }
+
+            CompoundTag tag = new CompoundTag();
+            tag.putString("Id", build.structureId);
+            tag.putString("Type", build.buildPlan.getStructureType());
+            tag.putLong("StartPos", build.startPos.asLong());
+            ListTag participants = new ListTag();
+            for (String name : build.participatingSteves) {
+                participants.add(StringTag.valueOf(name));
+            }
+            tag.put("Participants", participants);
+            tag.putLongArray("Completed", build.getCompletedIndices().toLongArray());
+            tag.put("Plan", planTag);
+            lastEncoded = tag;
+            return tag;
+        }
+    }
+
+    private static CompoundTag encodePlan(BuildPlan plan) {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("Size", plan.size());
+        StructureSpec spec = plan.getSpec();
+        if (spec != null) {
+            // Generators are deterministic, so the spec is enough to reproduce the exact plan
+            CompoundTag specTag = new CompoundTag();
+            specTag.putString("Type", spec.structureType);
+            specTag.putLong("Origin", spec.origin.asLong());
+            specTag.putInt("Width", spec.width);
+            specTag.putInt("Height", spec.height);
+            specTag.putInt("Depth", spec.depth);
+            ListTag materials = new ListTag();
+            for (Block block : spec.materials) {
+                materials.add(StringTag.valueOf(BuiltInRegistries.BLOCK.getKey(block).toString()));
+            }
+            specTag.put("Materials", materials);
+            if (!spec.transform.isIdentity()) {
+                specTag.put("Transform", spec.transform.save());
+            }
+            tag.put("Spec", specTag);
+            return tag;
+        }
+
+        long[] positions = new long[plan.size()];
+        int[] states = new int[plan.size()];
+        for (int i = 0; i < plan.size(); i++) {
+            positions[i] = plan.getPackedPos(i);
+            states[i] = plan.getStateId(i);
+        }
+        ListTag palette = new ListTag();
+        for (BlockState state : plan.getPalette()) {
+            palette.add(NbtUtils.writeBlockState(state));
+        }
+        tag.putString("Type", plan.getStructureType());
+        tag.putLong("Origin", plan.getOrigin().asLong());
+        tag.putIntArray("Dimensions", new int[]{plan.getWidth(), plan.getHeight(), plan.getDepth()});
+        tag.putLongArray("Positions", positions);
+        tag.putIntArray("States", states);
+        tag.put("Palette", palette);
+        return tag;
+    }
+
+    /**
+     * A build read from disk. Decoding the plan is deferred until someone resumes it,
+     * and can run on a worker thread.
+     */
+    public static class StoredBuild {
+        public final String structureId;
+        public final String structureType;
+        public final BlockPos startPos;
+        public final List<String> participants;
+        private final CompoundTag tag;
+
+        StoredBuild(CompoundTag tag) {
+            this.tag = tag;
+            this.structureId = tag.getString("Id");
+            this.structureType = tag.getString("Type");
+            this.startPos = BlockPos.of(tag.getLong("StartPos"));
+            ListTag names = tag.getList("Participants", Tag.TAG_STRING);
+            List<String> participantList = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                participantList.add(names.getString(i));
+            }
+            this.participants = List.copyOf(participantList);
+        }
+
+        public BitSet getCompletedIndices() {
+            return BitSet.valueOf(tag.getLongArray("Completed"));
+        }
+
+        /**
+         * Number of placements the plan had when it was stored, to detect generator changes
+         */
+        public int getPlanSize() {
+            return tag.getCompound("Plan").getInt("Size");
+        }
+
+        public BuildPlan decodePlan() {
+            CompoundTag planTag = tag.getCompound("Plan");
+            if (planTag.contains("Spec")) {
+                CompoundTag specTag = planTag.getCompound("Spec");
+                List<Block> materials = new ArrayList<>();
+                ListTag materialTags = specTag.getList("Materials", Tag.TAG_STRING);
+                for (int i = 0; i < materialTags.size(); i++) {
+                    Block block = BuiltInRegistries.BLOCK.get(new ResourceLocation(materialTags.getString(i)));
+                    if (block != Blocks.AIR) {
+                        materials.add(block);
+                    }
+                }
+                PlanTransform transform = specTag.contains("Transform")
+                    ? PlanTransform.load(specTag.getCompound("Transform")) : PlanTransform.IDENTITY;
+                StructureSpec spec = new StructureSpec(specTag.getString("Type"), BlockPos.of(specTag.getLong("Origin")),
+                    specTag.getInt("Width"), specTag.getInt("Height"), specTag.getInt("Depth"), materials, transform);
+                return BuildPlanner.planFromSpec(spec);
+            }
+
+            List<BlockState> palette = new ArrayList<>();
+            ListTag paletteTags = planTag.getList("Palette", Tag.TAG_COMPOUND);
+            for (int i = 0; i < paletteTags.size(); i++) {
+                palette.add(NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTags.getCompound(i)));
+            }
+            int[] dimensions = planTag.getIntArray("Dimensions");
+            long[] positions = planTag.getLongArray("Positions");
+            int[] states = planTag.getIntArray("States");
+
+            BuildPlan.Builder builder = new BuildPlan.Builder(planTag.getString("Type"), BlockPos.of(planTag.getLong("Origin")));
+            if (dimensions.length == 3) {
+                builder.dimensions(dimensions[0], dimensions[1], dimensions[2]);
+            }
+            for (int i = 0; i < positions.length; i++) {
+                builder.add(positions[i], palette.get(states[i]));
+            }
+            return builder.build();
+        }
+    }
+}
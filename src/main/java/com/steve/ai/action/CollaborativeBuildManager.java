@@ -1,257 +1,454 @@
 package com.steve.ai.action;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.structure.BuildJournal;
+import com.steve.ai.structure.BuildPlan;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.Block;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Manages collaborative building where multiple Steves work on DIFFERENT SECTIONS of the same structure
+ * Manages collaborative building where multiple Steves work on DIFFERENT PARTS of the same structure.
+ * The plan is cut into small work units (column tiles per Y band). Each Steve keeps a local deque of
+ * units and steals from the others when it runs dry, so any number of Steves stays busy.
  */
 public class CollaborativeBuildManager {
+    private static final int TILE_SIZE = 4;   // Columns per work unit along X and Z
+    private static final int BAND_HEIGHT = 4; // Layers per work unit
     
     public static class CollaborativeBuild {
         public final String structureId;
-        public final List<BlockPlacement> buildPlan;
-        private final List<BuildSection> sections;
-        private final Map<String, Integer> steveToSectionMap;
-        private final AtomicInteger nextSectionIndex;
+        public final BuildPlan buildPlan;
+        private final int totalBlocks; // Placements that differed from the world when the build started
+        private final List<WorkUnit> units;
+        private final Deque<WorkUnit> sharedQueue; // Ready units nobody has taken yet
+        private final Map<String, Worker> workers;
+        private final AtomicInteger blocksPlaced;
+        private final AtomicInteger finishedUnits;
+        private final BitSet completed; // Plan indices placed or already matching the world
+        private CollaborativeBuildData storage; // Null if the build is not persisted
+        private BuildJournal journal; // Previous states for undo, null if not recorded
+        private volatile boolean cancelled;
         public final Set<String> participatingSteves;
         public final BlockPos startPos;
         
-        public CollaborativeBuild(String structureId, List<BlockPlacement> buildPlan, BlockPos startPos) {
+        /**
+         * @param pending plan indices that still need placing (see BuildPlanner.diff), or null for the whole plan
+         */
+        public CollaborativeBuild(String structureId, BuildPlan buildPlan, BlockPos startPos, BitSet pending) {
             this.structureId = structureId;
             this.buildPlan = buildPlan;
             this.participatingSteves = ConcurrentHashMap.newKeySet();
             this.startPos = startPos;
-            this.steveToSectionMap = new ConcurrentHashMap<>();
-            this.nextSectionIndex = new AtomicInteger(0);
-            this.sections = divideBuildIntoSections(buildPlan);
+            this.sharedQueue = new ConcurrentLinkedDeque<>();
+            this.workers = new ConcurrentHashMap<>();
+            this.blocksPlaced = new AtomicInteger(0);
+            this.finishedUnits = new AtomicInteger(0);
+            this.totalBlocks = pending != null ? pending.cardinality() : buildPlan.size();
+            this.completed = new BitSet(buildPlan.size());
+            if (pending != null) {
+                completed.set(0, buildPlan.size());
+                completed.andNot(pending);
+            }
+            this.units = divideBuildIntoUnits(buildPlan, pending);
             
-            SteveMod.LOGGER.info("Divided '{}' into {} sections for collaborative building", 
-                structureId, sections.size());
+            for (WorkUnit unit : units) {
+                if (unit.unfinishedSupports.get() == 0) {
+                    sharedQueue.addLast(unit);
+                }
+            }
+            
+            SteveMod.LOGGER.info("Divided '{}' into {} work units ({} ready) for collaborative building", 
+                structureId, units.size(), sharedQueue.size());
         }
         
         /**
-         * Divide the build into 4 QUADRANTS (NW, NE, SW, SE)
-         * Each quadrant is sorted BOTTOM-TO-TOP so each Steve builds their quadrant from the ground up
+         * Group the blocks into TILE_SIZE x TILE_SIZE column tiles per BAND_HEIGHT band.
+         * The plan arrives sorted BOTTOM-TO-TOP from the planner, so every unit keeps that order.
+         * A unit only becomes ready once the nearest non-empty band below it in its own and neighbouring
+         * tiles is finished, which keeps floors before walls and walls before roofs while Steves work in parallel.
+         * Blocks that already match the world are left out entirely.
          */
-        private List<BuildSection> divideBuildIntoSections(List<BlockPlacement> plan) {
-            if (plan.isEmpty()) {
+        private List<WorkUnit> divideBuildIntoUnits(BuildPlan plan, BitSet pending) {
+            if (totalBlocks == 0) {
                 return new ArrayList<>();
             }
             
-            int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
-            int minZ = Integer.MAX_VALUE, maxZ = Integer.MIN_VALUE;
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            for (int i = 0; i < plan.size(); i++) {
+                long pos = plan.getPackedPos(i);
+                minX = Math.min(minX, BlockPos.getX(pos));
+                minY = Math.min(minY, BlockPos.getY(pos));
+                minZ = Math.min(minZ, BlockPos.getZ(pos));
+            }
             
-            for (BlockPlacement placement : plan) {
-                minX = Math.min(minX, placement.pos.getX());
-                maxX = Math.max(maxX, placement.pos.getX());
-                minZ = Math.min(minZ, placement.pos.getZ());
-                maxZ = Math.max(maxZ, placement.pos.getZ());
+            Map<Long, WorkUnit> byKey = new HashMap<>();
+            List<WorkUnit> unitList = new ArrayList<>();
+            for (int i = 0; i < plan.size(); i++) {
+                if (pending != null && !pending.get(i)) {
+                    continue;
+                }
+                long pos = plan.getPackedPos(i);
+                int tileX = (BlockPos.getX(pos) - minX) / TILE_SIZE;
+                int tileZ = (BlockPos.getZ(pos) - minZ) / TILE_SIZE;
+                int band = (BlockPos.getY(pos) - minY) / BAND_HEIGHT;
+                
+                WorkUnit unit = byKey.get(unitKey(tileX, tileZ, band));
+                if (unit == null) {
+                    unit = new WorkUnit(tileX, tileZ, band);
+                    byKey.put(unitKey(tileX, tileZ, band), unit);
+                    unitList.add(unit);
+                }
+                unit.add(i);
             }
             
-            int centerX = (minX + maxX) / 2;
-            int centerZ = (minZ + maxZ) / 2;
+            for (WorkUnit unit : unitList) {
+                unit.seal();
+                // Depend on the nearest band below that has anything under this unit, so a roof or
+                // keystone over an empty band still waits for the walls that carry it
+                for (int band = unit.band - 1; band >= 0; band--) {
+                    boolean supported = false;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            WorkUnit support = byKey.get(unitKey(unit.tileX + dx, unit.tileZ + dz, band));
+                            if (support != null) {
+                                support.dependents.add(unit);
+                                unit.unfinishedSupports.incrementAndGet();
+                                supported = true;
+                            }
+                        }
+                    }
+                    if (supported) {
+                        break;
+                    }
+                }
+            }
             
-            List<BlockPlacement> northWest = new ArrayList<>();
-            List<BlockPlacement> northEast = new ArrayList<>();
-            List<BlockPlacement> southWest = new ArrayList<>();
-            List<BlockPlacement> southEast = new ArrayList<>();
+            unitList.sort(Comparator.comparingInt((WorkUnit u) -> u.band)
+                .thenComparingInt(u -> u.tileX)
+                .thenComparingInt(u -> u.tileZ));
+            return unitList;
+        }
+        
+        private static long unitKey(int tileX, int tileZ, int band) {
+            // Tiles are relative to the plan's minimum corner, so every component is non-negative
+            return ((long) band << 42) | ((long) tileX << 21) | tileZ;
+        }
+        
+        /**
+         * Hand out the next block for a Steve: its current unit, then its own deque, then the shared queue,
+         * then a unit stolen from the busiest Steve, and finally a share of the largest unit still in progress
+         */
+        private BlockPlacement nextBlock(String steveName) {
+            if (cancelled) {
+                return null;
+            }
+            Worker worker = workers.computeIfAbsent(steveName, name -> new Worker());
             
-            for (BlockPlacement placement : plan) {
-                int x = placement.pos.getX();
-                int z = placement.pos.getZ();
+            while (true) {
+                WorkUnit unit = worker.current;
+                if (unit != null) {
+                    BlockPlacement placement = take(unit, worker);
+                    if (placement != null) {
+                        return placement;
+                    }
+                }
                 
-                if (x <= centerX && z <= centerZ) {
-                    northWest.add(placement);
-                } else if (x > centerX && z <= centerZ) {
-                    northEast.add(placement);
-                } else if (x <= centerX && z > centerZ) {
-                    southWest.add(placement);
-                } else {
-                    southEast.add(placement);
+                unit = findWork(worker, steveName);
+                if (unit == null) {
+                    worker.current = null;
+                    return null;
+                }
+                worker.current = unit;
+            }
+        }
+        
+        private BlockPlacement take(WorkUnit unit, Worker worker) {
+            int slot = unit.nextBlockIndex.getAndIncrement();
+            if (slot >= unit.blocks.length) {
+                return null;
+            }
+            blocksPlaced.incrementAndGet();
+            if (slot == unit.blocks.length - 1) {
+                // Placement happens right after hand-out on the server thread, so the unit is done
+                onUnitFinished(unit, worker);
+            }
+            int planIndex = unit.blocks[slot];
+            synchronized (completed) {
+                completed.set(planIndex);
+            }
+            if (storage != null) {
+                storage.markDirty(this);
+            }
+            return new BlockPlacement(planIndex, buildPlan.getPos(planIndex), buildPlan.getState(planIndex));
+        }
+        
+        private void onUnitFinished(WorkUnit unit, Worker worker) {
+            finishedUnits.incrementAndGet();
+            // Units released by this one sit right above it, so keep them local to this Steve
+            for (WorkUnit dependent : unit.dependents) {
+                if (dependent.unfinishedSupports.decrementAndGet() == 0) {
+                    worker.deque.addFirst(dependent);
                 }
             }
-            Comparator<BlockPlacement> bottomToTop = Comparator.comparingInt(p -> p.pos.getY());
-            northWest.sort(bottomToTop);
-            northEast.sort(bottomToTop);
-            southWest.sort(bottomToTop);
-            southEast.sort(bottomToTop);
+        }
+        
+        private WorkUnit findWork(Worker worker, String steveName) {
+            WorkUnit unit = worker.deque.pollFirst();
+            if (unit != null) {
+                return unit;
+            }
             
-            List<BuildSection> sectionList = new ArrayList<>();
-            if (!northWest.isEmpty()) sectionList.add(new BuildSection(0, northWest, "NORTH-WEST"));
-            if (!northEast.isEmpty()) sectionList.add(new BuildSection(1, northEast, "NORTH-EAST"));
-            if (!southWest.isEmpty()) sectionList.add(new BuildSection(2, southWest, "SOUTH-WEST"));
-            if (!southEast.isEmpty()) sectionList.add(new BuildSection(3, southEast, "SOUTH-EAST"));
+            unit = pollNearestShared(worker.current);
+            if (unit != null) {
+                return unit;
+            }
             
-            SteveMod.LOGGER.info("Divided structure into {} quadrants (BOTTOM-TO-TOP): NW={}, NE={}, SW={}, SE={} blocks", 
-                sectionList.size(), northWest.size(), northEast.size(), southWest.size(), southEast.size());
+            // Steal the oldest unit from the Steve with the most queued work
+            Worker victim = null;
+            int victimSize = 0;
+            for (Worker other : workers.values()) {
+                int size = other.deque.size();
+                if (other != worker && size > victimSize) {
+                    victim = other;
+                    victimSize = size;
+                }
+            }
+            if (victim != null) {
+                unit = victim.deque.pollLast();
+                if (unit != null) {
+                    SteveMod.LOGGER.debug("Steve '{}' stole work unit {} from another Steve on '{}'", 
+                        steveName, unit, structureId);
+                    return unit;
+                }
+            }
             
-            return sectionList;
+            // Nothing left to claim: help with the largest unit another Steve is still working through
+            WorkUnit largest = null;
+            int largestRemaining = 0;
+            for (Worker other : workers.values()) {
+                WorkUnit current = other.current;
+                if (other != worker && current != null && current.getRemaining() > largestRemaining) {
+                    largest = current;
+                    largestRemaining = current.getRemaining();
+                }
+            }
+            return largest;
+        }
+        
+        /**
+         * The ready unit closest to the one a Steve just finished, in tiles and bands, so it moves on to
+         * neighbouring work instead of crossing the site; the oldest one when there is no previous unit
+         */
+        private WorkUnit pollNearestShared(WorkUnit previous) {
+            while (true) {
+                WorkUnit best = null;
+                int bestDistance = Integer.MAX_VALUE;
+                for (WorkUnit unit : sharedQueue) {
+                    int distance = previous == null ? 0 : Math.max(Math.abs(unit.tileX - previous.tileX),
+                        Math.abs(unit.tileZ - previous.tileZ)) + Math.abs(unit.band - previous.band);
+                    if (distance < bestDistance) {
+                        best = unit;
+                        bestDistance = distance;
+                    }
+                }
+                if (best == null || sharedQueue.remove(best)) {
+                    return best;
+                }
+            }
         }
         
         public int getTotalBlocks() {
-            return buildPlan.size();
+            return totalBlocks;
+        }
+        
+        public BuildJournal getJournal() {
+            return journal;
+        }
+        
+        /**
+         * Whether the build was called off (e.g. undone) before it finished
+         */
+        public boolean isCancelled() {
+            return cancelled;
         }
         
         public int getBlocksPlaced() {
-            int total = 0;
-            for (BuildSection section : sections) {
-                total += section.getBlocksPlaced();
-            }
-            return total;
+            return blocksPlaced.get();
         }
         
         public boolean isComplete() {
-            for (BuildSection section : sections) {
-                if (!section.isComplete()) {
-                    return false;
-                }
-            }
-            return true;
+            return finishedUnits.get() >= units.size();
         }
         
         public int getProgressPercentage() {
-            return (getBlocksPlaced() * 100) / buildPlan.size();
+            if (totalBlocks == 0) {
+                return 100;
+            }
+            return (getBlocksPlaced() * 100) / totalBlocks;
+        }
+        
+        /**
+         * Plan indices that are done, either placed by a Steve or found matching when the build was diffed
+         */
+        public BitSet getCompletedIndices() {
+            synchronized (completed) {
+                return (BitSet) completed.clone();
+            }
+        }
+        
+        /**
+         * Plan indices not yet handed out to any Steve; the candidate set when re-diffing a resumed build
+         */
+        public BitSet getRemainingIndices() {
+            BitSet remaining = new BitSet(buildPlan.size());
+            for (WorkUnit unit : units) {
+                unit.collectRemaining(remaining);
+            }
+            return remaining;
         }
     }
     
     /**
-     * A section of the build that one Steve works on (represents a spatial quadrant)
+     * A Steve's view of a build: the unit it is placing and the ready units queued for it
      */
-    public static class BuildSection {
-        public final int yLevel; // Used as section ID
-        public final String sectionName;
-        private final List<BlockPlacement> blocks;
-        private final AtomicInteger nextBlockIndex;
+    private static class Worker {
+        final Deque<WorkUnit> deque = new ConcurrentLinkedDeque<>();
+        volatile WorkUnit current;
+    }
+    
+    /**
+     * A small, spatially coherent chunk of the build: one column tile within one Y band
+     */
+    public static class WorkUnit {
+        public final int tileX;
+        public final int tileZ;
+        public final int band;
+        private int[] blocks = new int[16]; // Indices into the plan, trimmed by seal()
+        private int size;
+        private final AtomicInteger nextBlockIndex = new AtomicInteger(0);
+        private final AtomicInteger unfinishedSupports = new AtomicInteger(0);
+        private final List<WorkUnit> dependents = new ArrayList<>();
         
-        public BuildSection(int sectionId, List<BlockPlacement> blocks, String sectionName) {
-            this.yLevel = sectionId;
-            this.sectionName = sectionName;
-            this.blocks = blocks;
-            this.nextBlockIndex = new AtomicInteger(0);
+        WorkUnit(int tileX, int tileZ, int band) {
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+            this.band = band;
         }
         
-        public BlockPlacement getNextBlock() {
-            int index = nextBlockIndex.getAndIncrement();
-            if (index < blocks.size()) {
-                return blocks.get(index);
+        void add(int planIndex) {
+            if (size == blocks.length) {
+                blocks = Arrays.copyOf(blocks, size * 2);
             }
-            return null;
+            blocks[size++] = planIndex;
         }
         
-        public int getBlocksPlaced() {
-            return Math.min(nextBlockIndex.get(), blocks.size());
+        void seal() {
+            blocks = Arrays.copyOf(blocks, size);
         }
         
-        public boolean isComplete() {
-            return nextBlockIndex.get() >= blocks.size();
+        public int getRemaining() {
+            return Math.max(0, blocks.length - nextBlockIndex.get());
         }
         
         public int getTotalBlocks() {
-            return blocks.size();
+            return blocks.length;
+        }
+        
+        void collectRemaining(BitSet remaining) {
+            for (int i = nextBlockIndex.get(); i < blocks.length; i++) {
+                remaining.set(blocks[i]);
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return "[" + tileX + "," + tileZ + " band " + band + ", " + blocks.length + " blocks]";
         }
     }
     
     public static class BlockPlacement {
+        public final int index; // Index into the build plan
         public final BlockPos pos;
-        public final Block block;
+        public final BlockState state;
         
-        public BlockPlacement(BlockPos pos, Block block) {
+        public BlockPlacement(int index, BlockPos pos, BlockState state) {
+            this.index = index;
             this.pos = pos;
-            this.block = block;
+            this.state = state;
         }
     }
     
     private static final Map<String, CollaborativeBuild> activeBuilds = new ConcurrentHashMap<>();
     
     /**
-     * Register a new collaborative build project
+     * Register a new collaborative build project and persist it in the level's saved data
+     * @param pending plan indices that differ from the world, or null to place the whole plan
      */
-    public static CollaborativeBuild registerBuild(String structureType, List<BlockPlacement> buildPlan, BlockPos startPos) {
+    public static CollaborativeBuild registerBuild(String structureType, BuildPlan buildPlan, BlockPos startPos,
+                                                   BitSet pending, ServerLevel level) {
         String structureId = structureType + "_" + System.currentTimeMillis();
-        CollaborativeBuild build = new CollaborativeBuild(structureId, buildPlan, startPos);
-        activeBuilds.put(structureId, build);
+        CollaborativeBuild build = new CollaborativeBuild(structureId, buildPlan, startPos, pending);
+        activate(build, level);
         
-        SteveMod.LOGGER.info("Registered collaborative build '{}' at {} with {} blocks", 
-            structureType, startPos, buildPlan.size());
+        SteveMod.LOGGER.info("Registered collaborative build '{}' at {} with {}/{} blocks to place", 
+            structureType, startPos, build.getTotalBlocks(), buildPlan.size());
         
         return build;
     }
     
     /**
-     * Get the next block for a Steve to place (each Steve works on their own section)
-     * Returns null if Steve's section is complete
+     * Bring a build stored by a previous session back into memory under its original ID
+     * @param pending the stored build's unfinished indices that still differ from the world
      */
-    public static BlockPlacement getNextBlock(CollaborativeBuild build, String steveName) {
-        if (build.isComplete()) {
-            return null;
-        }
-        
-        build.participatingSteves.add(steveName);
-        
-        // Assign Steve to a section if not already assigned
-        Integer sectionIndex = build.steveToSectionMap.get(steveName);
-        if (sectionIndex == null) {
-            sectionIndex = assignSteveToSection(build, steveName);
-            if (sectionIndex == null) {
-                // No sections available
-                return null;
-            }
+    public static CollaborativeBuild resumeBuild(CollaborativeBuildData.StoredBuild stored, BuildPlan buildPlan,
+                                                 BitSet pending, ServerLevel level) {
+        CollaborativeBuild existing = activeBuilds.get(stored.structureId);
+        if (existing != null) {
+            return existing;
         }
+        CollaborativeBuild build = new CollaborativeBuild(stored.structureId, buildPlan, stored.startPos, pending);
+        activate(build, level);
         
-        BuildSection section = build.sections.get(sectionIndex);
-        BlockPlacement block = section.getNextBlock();
+        SteveMod.LOGGER.info("Resumed collaborative build '{}' at {} with {}/{} blocks left to place", 
+            stored.structureId, stored.startPos, build.getTotalBlocks(), buildPlan.size());
         
-        if (block == null) {
-            if (sectionIndex != null) {
-                section = build.sections.get(sectionIndex);
-                block = section.getNextBlock();
-                if (block != null) {                }
-            }
+        return build;
+    }
+    
+    private static void activate(CollaborativeBuild build, ServerLevel level) {
+        activeBuilds.put(build.structureId, build);
+        if (level != null) {
+            build.storage = CollaborativeBuildData.get(level);
+            build.storage.track(build);
+            build.journal = BuildJournal.start(level, build.structureId);
+            build.journal.setStructure(build.startPos, build.buildPlan.getStructureType());
         }
-        
-        return block;
     }
     
     /**
-     * Assign a Steve to a section (quadrant) that needs work
-     * Prioritizes unassigned sections, but allows helping on large sections
-     * Returns the section index, or null if all sections are complete
+     * Get the next block for a Steve to place
+     * Returns null if there is nothing left this Steve can work on right now
      */
-    private static Integer assignSteveToSection(CollaborativeBuild build, String steveName) {
-        // First pass: Find a section that isn't complete and isn't already assigned
-        for (int i = 0; i < build.sections.size(); i++) {
-            BuildSection section = build.sections.get(i);
-            if (!section.isComplete()) {
-                boolean alreadyAssigned = build.steveToSectionMap.containsValue(i);
-                
-                if (!alreadyAssigned) {
-                    build.steveToSectionMap.put(steveName, i);
-                    SteveMod.LOGGER.info("Assigned Steve '{}' to {} quadrant - will build {} blocks BOTTOM-TO-TOP", 
-                        steveName, section.sectionName, section.getTotalBlocks());
-                    return i;
-                }
-            }
+    public static BlockPlacement getNextBlock(CollaborativeBuild build, String steveName) {
+        if (build.isComplete()) {
+            return null;
         }
         
-        // Second pass: Help with any incomplete section (even if assigned to someone else)
-        for (int i = 0; i < build.sections.size(); i++) {
-            BuildSection section = build.sections.get(i);
-            if (!section.isComplete()) {
-                build.steveToSectionMap.put(steveName, i);
-                SteveMod.LOGGER.info("Steve '{}' helping with {} quadrant ({} blocks remaining)", 
-                    steveName, section.sectionName, section.getTotalBlocks() - section.getBlocksPlaced());
-                return i;
+        if (build.participatingSteves.add(steveName)) {
+            SteveMod.LOGGER.info("Steve '{}' joined build '{}' ({} Steves working)", 
+                steveName, build.structureId, build.participatingSteves.size());
+            if (build.storage != null) {
+                build.storage.markDirty(build);
             }
         }
         
-        // All sections complete
-        return null;
+        return build.nextBlock(steveName);
     }
     
     /**
@@ -263,13 +460,48 @@ public class CollaborativeBuildManager {
     
     /**
      * Complete and remove a build
+     * @return true for the one caller that actually completed it, false if it was already gone
      */
-    public static void completeBuild(String structureId) {
+    public static boolean completeBuild(String structureId) {
         CollaborativeBuild build = activeBuilds.remove(structureId);
         if (build != null) {
+            if (build.storage != null) {
+                build.storage.remove(structureId);
+            }
             SteveMod.LOGGER.info("Collaborative build '{}' completed by {} Steves", 
                 structureId, build.participatingSteves.size());
+            return true;
         }
+        return false;
+    }
+    
+    /**
+     * Stop a build before it finishes and forget it, including its saved progress.
+     * Steves still holding the build get no more blocks and see isCancelled().
+     */
+    public static CollaborativeBuild cancelBuild(String structureId) {
+        CollaborativeBuild build = activeBuilds.remove(structureId);
+        if (build != null) {
+            build.cancelled = true;
+            if (build.storage != null) {
+                build.storage.remove(structureId);
+            }
+            SteveMod.LOGGER.info("Collaborative build '{}' cancelled after {}/{} blocks", 
+                structureId, build.getBlocksPlaced(), build.getTotalBlocks());
+        }
+        return build;
+    }
+    
+    /**
+     * The active build recording into a journal, or null if that build is no longer running
+     */
+    public static CollaborativeBuild findBuildByJournal(BuildJournal journal) {
+        for (CollaborativeBuild build : activeBuilds.values()) {
+            if (build.journal == journal) {
+                return build;
+            }
+        }
+        return null;
     }
     
     /**
@@ -288,7 +520,29 @@ public class CollaborativeBuildManager {
      * Clean up completed builds
      */
     public static void cleanupCompletedBuilds() {
-        activeBuilds.entrySet().removeIf(entry -> entry.getValue().isComplete());
+        for (CollaborativeBuild build : new ArrayList<>(activeBuilds.values())) {
+            if (build.isComplete()) {
+                completeBuild(build.structureId);
+            }
+        }
+    }
+    
+    /**
+     * Drop all builds from memory (e.g. when the world's Steves are respawned).
+     * Unfinished builds stay in their level's saved data and can be resumed.
+     */
+    public static void clearActiveBuilds() {
+        for (CollaborativeBuild build : activeBuilds.values()) {
+            if (build.storage == null) {
+                continue;
+            }
+            if (build.isComplete()) {
+                build.storage.remove(build.structureId);
+            } else {
+                build.storage.park(build);
+            }
+        }
+        activeBuilds.clear();
     }
 }
 
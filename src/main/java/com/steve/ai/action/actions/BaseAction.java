@@ -2,14 +2,20 @@ package com.steve.ai.action.actions;
 
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
+import com.steve.ai.chunk.ChunkPrefetcher;
+import com.steve.ai.chunk.ChunkTicketLevel;
 import com.steve.ai.entity.SteveEntity;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class BaseAction {
     protected final SteveEntity steve;
     protected final Task task;
     protected ActionResult result;
     protected boolean started = false;
     protected boolean cancelled = false;
+    private final List<ChunkPrefetcher.Lease> chunkLeases = new ArrayList<>();
 
     public BaseAction(SteveEntity steve, Task task) {
         this.steve = steve;
@@ -33,6 +39,7 @@ public abstract class BaseAction {
         cancelled = true;
         result = ActionResult.failure("Action cancelled");
         onCancel();
+        releaseChunks();
     }
 
     public boolean isComplete() {
@@ -54,6 +61,35 @@ public abstract class BaseAction {
         }
     }
 
+    /**
+     * How loaded the Steve's own chunk must stay while this action runs (see AgentChunkTickets).
+     * Anything short of ENTITY_TICKING stops the Steve itself, and with it the executor that runs this
+     * action, so the only other sensible answer is NONE for actions that stay where players already keep
+     * chunks loaded. Regions that only need blocks ticking (build sites) are held with BLOCK_TICKING leases.
+     */
+    public ChunkTicketLevel getChunkTicketLevel() {
+        return ChunkTicketLevel.ENTITY_TICKING;
+    }
+
+    /**
+     * Keep a prefetched region loaded until this action ends
+     */
+    protected ChunkPrefetcher.Lease holdChunks(ChunkPrefetcher.Lease lease) {
+        chunkLeases.add(lease);
+        return lease;
+    }
+
+    /**
+     * Release every chunk lease this action holds. Called by the executor once the action is complete
+     * and on cancel; actions may call it earlier when they leave the region.
+     */
+    public void releaseChunks() {
+        for (ChunkPrefetcher.Lease lease : chunkLeases) {
+            lease.release();
+        }
+        chunkLeases.clear();
+    }
+
     protected abstract void onStart();
 
     protected abstract void onTick();
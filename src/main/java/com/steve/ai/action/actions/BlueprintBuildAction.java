@@ -3,10 +3,20 @@ package com.steve.ai.action.actions;
 import com.steve.ai.SteveMod;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.navigation.MovementMonitor;
+import com.steve.ai.structure.BuildJournal;
+import com.steve.ai.structure.BuildOrderOptimizer;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.PlanTransform;
+import com.steve.ai.structure.SiteSelector;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.*;
@@ -15,11 +25,10 @@ public class BlueprintBuildAction extends BaseAction {
     private final List<BlockPlacement> placementQueue;
     private BlockPlacement currentPlacement;
     private int delayTicks;
-    private int ticksStuck = 0;
-    private double lastDistSqr = Double.MAX_VALUE;
     private int ticksRunning = 0;
     private int totalBlocks = 0;
     private int placedCount = 0;
+    private BuildJournal journal; // Previous states for /steve undo
 
     public BlueprintBuildAction(SteveEntity steve, Task task) {
         super(steve, task);
@@ -36,10 +45,33 @@ public class BlueprintBuildAction extends BaseAction {
 
         List<Map<String, Object>> blocksList = (List<Map<String, Object>>) params.get("blocks");
 
+        // Face the nearest player unless the blueprint asks for an orientation, and look for a site
+        // that fits the footprint as transformed
+        int minX = 0, minY = 0, minZ = 0, maxX = 0, maxY = 0, maxZ = 0;
+        for (Map<String, Object> blockData : blocksList) {
+            if (blockData.get("x") instanceof Number x) {
+                minX = Math.min(minX, x.intValue());
+                maxX = Math.max(maxX, x.intValue());
+            }
+            if (blockData.get("y") instanceof Number y) {
+                minY = Math.min(minY, y.intValue());
+                maxY = Math.max(maxY, y.intValue());
+            }
+            if (blockData.get("z") instanceof Number z) {
+                minZ = Math.min(minZ, z.intValue());
+                maxZ = Math.max(maxZ, z.intValue());
+            }
+        }
+        int width = maxX - minX + 1, height = maxY - minY + 1, depth = maxZ - minZ + 1;
+        BlockPos inFront = steve.blockPosition().relative(steve.getDirection(), 5);
+        PlanTransform transform = PlanTransform.fromParameters(params, facingNearestPlayer(inFront));
+
         // Find a good spot to build
-        BlockPos origin = findBuildOrigin();
+        BlockPos origin = findBuildOrigin(inFront, transform.transformedWidth(width, depth),
+            transform.transformedHeight(height), transform.transformedDepth(width, depth));
         steve.sendChatMessage("I'm going to build at " + origin.toShortString());
 
+        BuildPlan.Builder blueprint = new BuildPlan.Builder("blueprint", origin);
         for (Map<String, Object> blockData : blocksList) {
             try {
                 int x = ((Number) blockData.get("x")).intValue();
@@ -53,18 +85,30 @@ public class BlueprintBuildAction extends BaseAction {
                 }
 
                 if (block != null && block != Blocks.AIR) {
-                    placementQueue.add(new BlockPlacement(origin.offset(x, y, z), block));
+                    blueprint.add(origin.offset(x, y, z), block.defaultBlockState());
                 }
             } catch (Exception e) {
                 SteveMod.LOGGER.warn("Failed to parse blueprint block: {}", blockData);
             }
         }
 
-        // Sort bottom-to-top to ensure support
-        placementQueue.sort(Comparator.comparingInt(p -> p.pos.getY()));
+        // Order bottom-to-top for support with a short walk through each layer
+        BuildPlan ordered = BuildOrderOptimizer.optimize(blueprint.build().transformed(transform), steve.blockPosition());
+        for (int i = 0; i < ordered.size(); i++) {
+            placementQueue.add(new BlockPlacement(ordered.getPos(i), ordered.getState(i)));
+        }
         totalBlocks = placementQueue.size();
     }
 
+    private Direction facingNearestPlayer(BlockPos origin) {
+        Player player = steve.level().getNearestPlayer(steve, 64.0);
+        if (player == null) {
+            return null;
+        }
+        Direction direction = Direction.getNearest(player.getX() - origin.getX(), 0, player.getZ() - origin.getZ());
+        return direction.getAxis().isHorizontal() ? direction : null;
+    }
+
     @Override
     protected void onStart() {
         if (placementQueue.isEmpty()) {
@@ -72,6 +116,9 @@ public class BlueprintBuildAction extends BaseAction {
             markComplete(false, "Empty or invalid blueprint");
             return;
         }
+        if (steve.level() instanceof ServerLevel serverLevel) {
+            journal = BuildJournal.start(serverLevel, "blueprint by " + steve.getSteveName());
+        }
         steve.sendChatMessage("Starting construction! I have " + totalBlocks + " blocks to place.");
         SteveMod.LOGGER.info("Starting blueprint build with {} blocks", placementQueue.size());
     }
@@ -79,6 +126,11 @@ public class BlueprintBuildAction extends BaseAction {
     @Override
     protected void onTick() {
         ticksRunning++;
+        if (journal != null && journal.isClosed()) {
+            steve.sendChatMessage("Someone undid this build, so I'm stopping.");
+            markComplete(false, "Blueprint build undone");
+            return;
+        }
         if (delayTicks > 0) {
             delayTicks--;
             return;
@@ -102,7 +154,7 @@ public class BlueprintBuildAction extends BaseAction {
         }
 
         // Skip air blocks in blueprint (don't destroy existing blocks with air)
-        if (currentPlacement.block.defaultBlockState().isAir()) {
+        if (currentPlacement.state.isAir()) {
             currentPlacement = null;
             return;
         }
@@ -116,10 +168,9 @@ public class BlueprintBuildAction extends BaseAction {
             steve.getLookControl().setLookAt(currentPlacement.pos.getX() + 0.5, currentPlacement.pos.getY() + 0.5,
                     currentPlacement.pos.getZ() + 0.5);
 
-            if (ticksStuck > 10) {
+            if (steve.getMovementMonitor().getTicksWithoutProgress() > 10) {
                 // If we are close but stuck (maybe can't see it?), try to place anyway
                 placeBlock();
-                ticksStuck = 0;
             } else {
                 // Move to placement
                 steve.getNavigation().moveTo(currentPlacement.pos.getX() + 0.5, currentPlacement.pos.getY() + 1.0,
@@ -131,26 +182,11 @@ public class BlueprintBuildAction extends BaseAction {
                     currentPlacement.pos.getZ() + 0.5, 1.0);
         }
 
-        // Check if stuck
-        if (steve.getNavigation().isStuck() || (steve.getDeltaMovement().lengthSqr() < 0.0001 && distSqr > 4.0)) {
-            ticksStuck++;
-        } else {
-            ticksStuck = 0;
-        }
-
-        if (ticksStuck > 200) { // 10 seconds
-            if (distSqr > 100.0) {
-                // Teleport closer if stuck and far away
-                teleportToSafePos(currentPlacement.pos);
-                steve.getNavigation().stop();
-                ticksStuck = 0;
-            } else {
-                // Stuck but close. Try to jump.
-                if (steve.onGround())
-                    steve.getJumpControl().jump();
-                ticksStuck = 180;
-            }
-            // Don't return, let it fall through to placement
+        // Never breaks blocks to get unstuck, they may be part of the build; teleporting falls through to placement
+        if (distSqr > 4.0 && steve.getMovementMonitor().update(task.getAction(), currentPlacement.pos, false)
+                == MovementMonitor.Recovery.TELEPORT) {
+            teleportToSafePos(currentPlacement.pos);
+            steve.getNavigation().stop();
         }
 
         // Try to place if close enough
@@ -164,9 +200,12 @@ public class BlueprintBuildAction extends BaseAction {
             return;
 
         // Only place if empty or replaceable (simple check)
-        if (steve.level().isEmptyBlock(currentPlacement.pos)
-                || steve.level().getBlockState(currentPlacement.pos).canBeReplaced()) {
-            steve.level().setBlock(currentPlacement.pos, currentPlacement.block.defaultBlockState(), 3);
+        BlockState existing = steve.level().getBlockState(currentPlacement.pos);
+        if (existing.isAir() || existing.canBeReplaced()) {
+            if (journal != null) {
+                journal.record(currentPlacement.pos.asLong(), existing);
+            }
+            steve.level().setBlock(currentPlacement.pos, currentPlacement.state, 3);
             steve.swing(net.minecraft.world.InteractionHand.MAIN_HAND);
             delayTicks = 4; // Short delay between placements
             currentPlacement = null; // Move to next
@@ -177,7 +216,7 @@ public class BlueprintBuildAction extends BaseAction {
                 steve.sendChatMessage("Placed " + placedCount + " out of " + totalBlocks + " blocks.");
             }
 
-        } else if (steve.level().getBlockState(currentPlacement.pos).getBlock() == currentPlacement.block) {
+        } else if (existing.getBlock() == currentPlacement.state.getBlock()) {
             // Already placed
             currentPlacement = null;
             placedCount++;
@@ -195,9 +234,18 @@ public class BlueprintBuildAction extends BaseAction {
         return "Building custom blueprint";
     }
 
-    private BlockPos findBuildOrigin() {
-        // Try to find flat ground nearby
+    private BlockPos findBuildOrigin(BlockPos inFront, int width, int height, int depth) {
         BlockPos stevePos = steve.blockPosition();
+
+        // Flattest free footprint around Steve, from the heightmap
+        if (steve.level() instanceof ServerLevel serverLevel) {
+            BlockPos site = SiteSelector.findSite(serverLevel, inFront, 8, width, height, depth);
+            if (site != null) {
+                return site;
+            }
+        }
+
+        // Fall back to probing nearby spots
         BlockPos bestPos = null;
         int bestScore = -1;
 
@@ -222,7 +270,7 @@ public class BlueprintBuildAction extends BaseAction {
         }
 
         // Fallback: Just build in front
-        return stevePos.relative(steve.getDirection(), 5);
+        return inFront;
     }
 
     private int calculateFlatnessScore(BlockPos center) {
@@ -248,11 +296,11 @@ public class BlueprintBuildAction extends BaseAction {
 
     private static class BlockPlacement {
         final BlockPos pos;
-        final Block block;
+        final BlockState state; // Default state of the blueprint block, turned with the blueprint
 
-        BlockPlacement(BlockPos pos, Block block) {
+        BlockPlacement(BlockPos pos, BlockState state) {
             this.pos = pos;
-            this.block = block;
+            this.state = state;
         }
     }
 }
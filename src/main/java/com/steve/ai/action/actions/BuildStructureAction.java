@@ -2,47 +2,73 @@ package com.steve.ai.action.actions;
 
 import com.steve.ai.SteveMod;
 import com.steve.ai.action.ActionResult;
+import com.steve.ai.action.CollaborativeBuildData;
 import com.steve.ai.action.CollaborativeBuildManager;
 import com.steve.ai.action.Task;
+import com.steve.ai.chunk.ChunkPrefetcher;
+import com.steve.ai.chunk.ChunkTicketLevel;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.memory.StructureRegistry;
-import com.steve.ai.structure.StructureTemplateLoader;
+import com.steve.ai.navigation.MovementMonitor;
+import com.steve.ai.structure.BlockPlacer;
+import com.steve.ai.structure.BuildEffects;
+import com.steve.ai.structure.BuildJournal;
+import com.steve.ai.structure.BuildPlan;
+import com.steve.ai.structure.BuildPlanner;
+import com.steve.ai.structure.PlanTransform;
+import com.steve.ai.structure.SiteSelector;
+import com.steve.ai.structure.StructureSpec;
+import com.steve.ai.util.SteveExecutors;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.particles.BlockParticleOption;
-import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.core.Direction;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class BuildStructureAction extends BaseAction {
-    private static class BlockPlacement {
-        BlockPos pos;
-        Block block;
-        
-        BlockPlacement(BlockPos pos, Block block) {
-            this.pos = pos;
-            this.block = block;
-        }
+    private enum BuildState {
+        PREPARING,
+        LOADING,
+        DIFFING,
+        BUILDING,
+        VERIFYING
     }
     
     private String structureType;
-    private List<BlockPlacement> buildPlan;
-    private int currentBlockIndex;
+    private BuildState buildState;
+    private CompletableFuture<BuildPlan> pendingPlan; // Plan being prepared off the server thread
+    private CompletableFuture<BitSet> pendingDiff; // Plan indices that differ from the world (before building or after)
+    private BuildPlan preparedPlan;
+    private BitSet diffCandidates; // Indices to compare once the site is loaded, null for all
+    private ChunkPrefetcher.Lease siteChunks; // Held for as long as this Steve builds
+    private CollaborativeBuildData.StoredBuild resumingBuild; // Set when picking up a build from a previous session
+    private BlockPos buildOrigin;
+    private int buildWidth;
+    private int buildHeight;
+    private int buildDepth;
     private List<Block> buildMaterials;
     private int ticksRunning;
     private CollaborativeBuildManager.CollaborativeBuild collaborativeBuild; // For multi-Steve collaboration
     private boolean isCollaborative;
+    private CollaborativeBuildManager.BlockPlacement heldPlacement; // Handed out to us, waiting until we are in reach
     private static final int MAX_TICKS = 120000;
     private static final int BLOCKS_PER_TICK = 1;
+    private static final int MAX_SITE_SEARCH_RADIUS = 16;
+    private static final int SITE_MOVED_NOTICE = 4; // Tell the player when the site moved further than this
+    private static final int MAX_LOADING_TICKS = 200; // Diff anyway if the site takes longer than this to load
     private static final double BUILD_SPEED_MULTIPLIER = 1.5;
+    private static final double REACH = 5.0; // Blocks further than this are flown to before placing
 
     public BuildStructureAction(SteveEntity steve, Task task) {
         super(steve, task);
@@ -51,22 +77,17 @@ public class BuildStructureAction extends BaseAction {
     @Override
     protected void onStart() {
         structureType = task.getStringParameter("structure").toLowerCase();
-        currentBlockIndex = 0;
         ticksRunning = 0;
-        collaborativeBuild = CollaborativeBuildManager.findActiveBuild(structureType);
-        if (collaborativeBuild != null) {
-            isCollaborative = true;
-            
-            steve.setFlying(true);
-            
-            SteveMod.LOGGER.info("Steve '{}' JOINING collaborative build of '{}' ({}% complete) - FLYING & INVULNERABLE ENABLED", 
-                steve.getSteveName(), structureType, collaborativeBuild.getProgressPercentage());
-            
-            buildMaterials = new ArrayList<>();
-            buildMaterials.add(Blocks.OAK_PLANKS); // Default material
-            buildMaterials.add(Blocks.COBBLESTONE);
-            buildMaterials.add(Blocks.GLASS_PANE);
-            
+        
+        String resumeId = task.getStringParameter("resume");
+        if (resumeId != null) {
+            startResume(resumeId);
+            return;
+        }
+        
+        CollaborativeBuildManager.CollaborativeBuild activeBuild = CollaborativeBuildManager.findActiveBuild(structureType);
+        if (activeBuild != null) {
+            joinBuild(activeBuild);
             return; // Skip structure generation, just join the existing build
         }
         
@@ -145,47 +166,103 @@ public class BuildStructureAction extends BaseAction {
             return;
         }
         
+        if (!(steve.level() instanceof ServerLevel serverLevel)) {
+            result = ActionResult.failure("Cannot build on the client");
+            return;
+        }
+        
+        // Turn the front towards the player unless the task asks for a specific orientation
+        Direction front = null;
+        if (nearestPlayer != null) {
+            front = Direction.getNearest(nearestPlayer.getX() - (groundPos.getX() + width / 2.0), 0,
+                nearestPlayer.getZ() - (groundPos.getZ() + depth / 2.0));
+            if (!front.getAxis().isHorizontal()) {
+                front = null;
+            }
+        }
+        PlanTransform transform = PlanTransform.fromParameters(task.getParameters(), front);
+        buildWidth = transform.transformedWidth(width, depth);
+        buildHeight = transform.transformedHeight(height);
+        buildDepth = transform.transformedDepth(width, depth);
+        
+        // Move the footprint onto the flattest free ground around the chosen spot
+        int searchRadius = Math.min(MAX_SITE_SEARCH_RADIUS, Math.max(8, Math.max(buildWidth, buildDepth)));
+        BlockPos site = SiteSelector.findSite(serverLevel, groundPos.offset(buildWidth / 2, 0, buildDepth / 2),
+            searchRadius, buildWidth, buildHeight, buildDepth);
+        if (site != null) {
+            int moved = Math.max(Math.abs(site.getX() - groundPos.getX()), Math.abs(site.getZ() - groundPos.getZ()));
+            if (moved > SITE_MOVED_NOTICE) {
+                steve.sendChatMessage("The ground there is uneven, so I'll build the " + structureType + " at "
+                    + site.toShortString() + " instead.");
+            }
+            groundPos = site;
+        }
+        
         SteveMod.LOGGER.info("Found ground at Y={} (Build starting at {})", groundPos.getY(), groundPos);
         
-        BlockPos clearPos = groundPos;
+        buildOrigin = groundPos;
         
-        buildPlan = tryLoadFromTemplate(structureType, clearPos);
+        // Site chunks load in the background while the plan is prepared, and keep block ticking
+        // (falling blocks, fluids) while we build even if no player is around
+        siteChunks = holdChunks(ChunkPrefetcher.prefetch(serverLevel, buildOrigin,
+            buildOrigin.offset(buildWidth - 1, buildHeight, buildDepth - 1), 0, ChunkTicketLevel.BLOCK_TICKING));
         
-        if (buildPlan == null) {
-            // Fall back to procedural generation            buildPlan = generateBuildPlan(structureType, clearPos, width, height, depth);
-        } else {
-            SteveMod.LOGGER.info("Loaded '{}' from NBT template with {} blocks", structureType, buildPlan.size());
+        // Template loading and generation happen on a worker; we pick the plan up in onTick
+        pendingPlan = BuildPlanner.prepare(serverLevel,
+            new StructureSpec(structureType, buildOrigin, width, height, depth, buildMaterials, transform));
+        buildState = BuildState.PREPARING;
+        
+        SteveMod.LOGGER.info("Steve '{}' preparing build plan for {} at {}", steve.getSteveName(), structureType, buildOrigin);
+    }
+
+    private void joinBuild(CollaborativeBuildManager.CollaborativeBuild build) {
+        collaborativeBuild = build;
+        isCollaborative = true;
+        buildState = BuildState.BUILDING;
+        if (siteChunks == null && steve.level() instanceof ServerLevel serverLevel) {
+            siteChunks = holdChunks(ChunkPrefetcher.prefetch(serverLevel, build.buildPlan, ChunkTicketLevel.BLOCK_TICKING));
         }
         
-        if (buildPlan == null || buildPlan.isEmpty()) {
-            result = ActionResult.failure("Cannot generate build plan for: " + structureType);
+        steve.setFlying(true);
+        
+        SteveMod.LOGGER.info("Steve '{}' JOINING collaborative build of '{}' ({}% complete) - FLYING & INVULNERABLE ENABLED", 
+            steve.getSteveName(), structureType, collaborativeBuild.getProgressPercentage());
+        
+        buildMaterials = new ArrayList<>();
+        buildMaterials.add(Blocks.OAK_PLANKS); // Default material
+        buildMaterials.add(Blocks.COBBLESTONE);
+        buildMaterials.add(Blocks.GLASS_PANE);
+    }
+    
+    /**
+     * Pick up a build saved by a previous session. Only the part that was not finished is re-checked
+     * against the world, and nothing that was already placed is placed again.
+     */
+    private void startResume(String structureId) {
+        CollaborativeBuildManager.CollaborativeBuild activeBuild = CollaborativeBuildManager.getBuild(structureId);
+        if (activeBuild != null) {
+            joinBuild(activeBuild);
             return;
         }
         
-        StructureRegistry.register(clearPos, width, height, depth, structureType);
-        
-        collaborativeBuild = CollaborativeBuildManager.findActiveBuild(structureType);
+        if (!(steve.level() instanceof ServerLevel serverLevel)) {
+            result = ActionResult.failure("Cannot build on the client");
+            return;
+        }
         
-        if (collaborativeBuild != null) {
-            isCollaborative = true;
-            SteveMod.LOGGER.info("Steve '{}' JOINING existing {} collaborative build at {}", 
-                steve.getSteveName(), structureType, collaborativeBuild.startPos);
-        } else {
-            List<CollaborativeBuildManager.BlockPlacement> collaborativeBlocks = new ArrayList<>();
-            for (BlockPlacement bp : buildPlan) {
-                collaborativeBlocks.add(new CollaborativeBuildManager.BlockPlacement(bp.pos, bp.block));
-            }
-            
-            collaborativeBuild = CollaborativeBuildManager.registerBuild(structureType, collaborativeBlocks, clearPos);
-            isCollaborative = true;
-            SteveMod.LOGGER.info("Steve '{}' CREATED new {} collaborative build at {}", 
-                steve.getSteveName(), structureType, clearPos);
+        resumingBuild = CollaborativeBuildData.get(serverLevel).getStoredBuild(structureId);
+        if (resumingBuild == null) {
+            result = ActionResult.success(structureType + " has already been finished");
+            return;
         }
         
-        steve.setFlying(true);
+        buildOrigin = resumingBuild.startPos;
+        buildMaterials = new ArrayList<>();
+        pendingPlan = CompletableFuture.supplyAsync(resumingBuild::decodePlan, SteveExecutors.background());
+        buildState = BuildState.PREPARING;
         
-        SteveMod.LOGGER.info("Steve '{}' starting COLLABORATIVE build of {} at {} with {} blocks using materials: {} [FLYING ENABLED]", 
-            steve.getSteveName(), structureType, clearPos, buildPlan.size(), buildMaterials);
+        SteveMod.LOGGER.info("Steve '{}' resuming {} build '{}' at {}", 
+            steve.getSteveName(), structureType, structureId, buildOrigin);
     }
 
     @Override
@@ -198,17 +275,65 @@ public class BuildStructureAction extends BaseAction {
             return;
         }
         
+        if (buildState == BuildState.PREPARING) {
+            if (pendingPlan.isDone()) {
+                onPlanReady();
+            } else if (ticksRunning % 100 == 0) {
+                SteveMod.LOGGER.info("Steve '{}' still preparing build plan for {}", steve.getSteveName(), structureType);
+            }
+            return;
+        }
+        
+        if (buildState == BuildState.LOADING) {
+            if (siteChunks.isReady()) {
+                startDiff();
+            } else if (siteChunks.getAge() > MAX_LOADING_TICKS) {
+                SteveMod.LOGGER.warn("Steve '{}' gave up waiting for the {} site to load ({}/{} chunks)", 
+                    steve.getSteveName(), structureType, siteChunks.getLoadedCount(), siteChunks.getChunkCount());
+                startDiff();
+            }
+            return;
+        }
+        
+        if (buildState == BuildState.DIFFING) {
+            if (pendingDiff.isDone()) {
+                onDiffReady();
+            }
+            return;
+        }
+        
+        if (buildState == BuildState.VERIFYING) {
+            if (pendingDiff.isDone()) {
+                onVerifyReady();
+            }
+            return;
+        }
+        
         if (isCollaborative && collaborativeBuild != null) {
-            if (collaborativeBuild.isComplete()) {
-                CollaborativeBuildManager.completeBuild(collaborativeBuild.structureId);
+            if (collaborativeBuild.isCancelled()) {
+                steve.setFlying(false);
+                result = ActionResult.failure("Build of " + structureType + " was cancelled");
+                return;
+            }
+            
+            if (collaborativeBuild.isComplete() && heldPlacement == null) {
                 steve.setFlying(false);
+                // Only the Steve that closes the build verifies it; the others are simply done
+                if (CollaborativeBuildManager.completeBuild(collaborativeBuild.structureId)
+                        && steve.level() instanceof ServerLevel serverLevel) {
+                    preparedPlan = collaborativeBuild.buildPlan;
+                    pendingDiff = BuildPlanner.diff(serverLevel, preparedPlan, null);
+                    buildState = BuildState.VERIFYING;
+                    return;
+                }
                 result = ActionResult.success("Built " + structureType + " collaboratively!");
                 return;
             }
             
             for (int i = 0; i < BLOCKS_PER_TICK; i++) {
-                CollaborativeBuildManager.BlockPlacement placement = 
-                    CollaborativeBuildManager.getNextBlock(collaborativeBuild, steve.getSteveName());
+                CollaborativeBuildManager.BlockPlacement placement = heldPlacement != null ? heldPlacement
+                    : CollaborativeBuildManager.getNextBlock(collaborativeBuild, steve.getSteveName());
+                heldPlacement = null;
                 
                 if (placement == null) {
                     if (ticksRunning % 20 == 0) {
@@ -219,36 +344,35 @@ public class BuildStructureAction extends BaseAction {
                 }
                 
                 BlockPos pos = placement.pos;
-                double distance = Math.sqrt(steve.blockPosition().distSqr(pos));
-                if (distance > 5) {
-                    steve.teleportTo(pos.getX() + 2, pos.getY(), pos.getZ() + 2);
-                    SteveMod.LOGGER.info("Steve '{}' teleported to block at {}", steve.getSteveName(), pos);
+                BlockState blockState = placement.state;
+                BlockState existingState = steve.level().getBlockState(pos);
+                if (existingState == blockState) {
+                    continue; // Already in place, e.g. set by someone else since the plan was diffed
+                }
+                
+                if (steve.blockPosition().distSqr(pos) > REACH * REACH) {
+                    // Fly over in the optimizer's order; the block is ours until it is placed
+                    heldPlacement = placement;
+                    moveTowards(pos);
+                    break;
                 }
                 
                 steve.getLookControl().setLookAt(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5);
                 
                 steve.swing(InteractionHand.MAIN_HAND, true);
                 
-                BlockState existingState = steve.level().getBlockState(pos);
-                
-                BlockState blockState = placement.block.defaultBlockState();
+                if (collaborativeBuild.getJournal() != null) {
+                    collaborativeBuild.getJournal().record(pos.asLong(), existingState);
+                }
                 steve.level().setBlock(pos, blockState, 3);
                 
                 SteveMod.LOGGER.info("Steve '{}' PLACED BLOCK at {} - Total: {}/{}", 
                     steve.getSteveName(), pos, collaborativeBuild.getBlocksPlaced(), 
                     collaborativeBuild.getTotalBlocks());
                 
-                // Particles and sound
+                // Particles and sound are batched per section and sent at the end of the tick
                 if (steve.level() instanceof ServerLevel serverLevel) {
-                    serverLevel.sendParticles(
-                        new BlockParticleOption(ParticleTypes.BLOCK, blockState),
-                        pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5,
-                        15, 0.4, 0.4, 0.4, 0.15
-                    );
-                    
-                    var soundType = blockState.getSoundType(steve.level(), pos, steve);
-                    steve.level().playSound(null, pos, soundType.getPlaceSound(), 
-                        SoundSource.BLOCKS, 1.0f, soundType.getPitch());
+                    BuildEffects.blockPlaced(serverLevel, pos, blockState);
                 }
             }
             
@@ -266,408 +390,201 @@ public class BuildStructureAction extends BaseAction {
             result = ActionResult.failure("Build system error: not in collaborative mode");
         }
     }
-
-    @Override
-    protected void onCancel() {
-        steve.setFlying(false); // Disable flying when cancelled
-        steve.getNavigation().stop();
-    }
-
-    @Override
-    public String getDescription() {
-        return "Build " + structureType + " (" + currentBlockIndex + "/" + (buildPlan != null ? buildPlan.size() : 0) + ")";
-    }
-
-    private List<BlockPlacement> generateBuildPlan(String type, BlockPos start, int width, int height, int depth) {
-        return switch (type.toLowerCase()) {
-            case "house", "home" -> buildAdvancedHouse(start, width, height, depth);
-            case "castle", "catle", "fort" -> buildCastle(start, width, height, depth);
-            case "tower" -> buildAdvancedTower(start, width, height);
-            case "wall" -> buildWall(start, width, height);
-            case "platform" -> buildPlatform(start, width, depth);
-            case "barn", "shed" -> buildBarn(start, width, height, depth);
-            case "modern", "modern_house" -> buildModernHouse(start, width, height, depth);
-            case "box", "cube" -> buildBox(start, width, height, depth);
-            default -> {
-                SteveMod.LOGGER.warn("Unknown structure type '{}', building advanced house", type);
-                yield buildAdvancedHouse(start, Math.max(5, width), Math.max(4, height), Math.max(5, depth));
-            }
-        };
-    }
     
-    private Block getMaterial(int index) {
-        return buildMaterials.get(index % buildMaterials.size());
+    /**
+     * Fly towards a block we hold, teleporting next to it only when there is no path or the movement
+     * monitor has run out of other ways to get unstuck
+     */
+    private void moveTowards(BlockPos pos) {
+        MovementMonitor.Recovery recovery = steve.getMovementMonitor().update(task.getAction(), pos, false);
+        boolean teleport = recovery == MovementMonitor.Recovery.TELEPORT;
+        if (!teleport && (recovery == MovementMonitor.Recovery.REPATH || !pos.equals(steve.getNavigation().getTargetPos()))) {
+            teleport = !steve.getNavigation().moveTo(steve.getNavigation().createPath(pos, 1), BUILD_SPEED_MULTIPLIER);
+        } else if (!teleport && steve.getNavigation().isDone()) {
+            teleport = true; // Went as far as the path reached and the block is still out of reach
+        }
+        if (teleport) {
+            steve.getNavigation().stop();
+            steve.teleportTo(pos.getX() + 2, pos.getY(), pos.getZ() + 2);
+            SteveMod.LOGGER.info("Steve '{}' teleported to block at {}", steve.getSteveName(), pos);
+        }
     }
 
-    private List<BlockPlacement> buildHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block floorMaterial = getMaterial(0);
-        Block wallMaterial = getMaterial(1);
-        Block roofMaterial = getMaterial(2);
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
+    /**
+     * Called on the server thread once the background plan job has finished
+     */
+    private void onPlanReady() {
+        BuildPlan buildPlan;
+        try {
+            buildPlan = pendingPlan.join();
+        } catch (CompletionException | CancellationException e) {
+            SteveMod.LOGGER.error("Failed to prepare build plan for '{}'", structureType, e);
+            result = ActionResult.failure("Cannot generate build plan for: " + structureType);
+            return;
+        } finally {
+            pendingPlan = null;
         }
         
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial)); // Front wall
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial)); // Back wall
-            }
-            for (int z = 1; z < depth - 1; z++) {
-                blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial)); // Left wall
-                blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial)); // Right wall
-            }
+        if (buildPlan == null || buildPlan.isEmpty()) {
+            result = ActionResult.failure("Cannot generate build plan for: " + structureType);
+            return;
         }
         
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, height, z), roofMaterial));
-            }
+        if (!(steve.level() instanceof ServerLevel serverLevel)) {
+            result = ActionResult.failure("Cannot build on the client");
+            return;
         }
         
-        return blocks;
-    }
-
-    private List<BlockPlacement> buildWall(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-            }
-        }
-        return blocks;
-    }
-
-    private List<BlockPlacement> buildTower(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        Block accentMaterial = getMaterial(1);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < width; z++) {
-                    // Hollow tower with accent corners
-                    if (x == 0 || x == width - 1 || z == 0 || z == width - 1) {
-                        boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
-                        Block blockToUse = isCorner ? accentMaterial : material;
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), blockToUse));
-                    }
-                }
+        // Only place what differs from the world, so rebuilds and repairs cost their actual delta
+        BitSet candidates = null;
+        if (resumingBuild != null) {
+            if (buildPlan.size() == resumingBuild.getPlanSize()) {
+                candidates = new BitSet(buildPlan.size());
+                candidates.set(0, buildPlan.size());
+                candidates.andNot(resumingBuild.getCompletedIndices());
+            } else {
+                SteveMod.LOGGER.warn("Stored plan for '{}' no longer matches its generator ({} vs {} blocks), re-checking all of it", 
+                    resumingBuild.structureId, buildPlan.size(), resumingBuild.getPlanSize());
             }
         }
-        return blocks;
-    }
-
-    private List<BlockPlacement> buildPlatform(BlockPos start, int width, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), material));
-            }
+        preparedPlan = buildPlan;
+        diffCandidates = candidates;
+        if (siteChunks == null) {
+            siteChunks = holdChunks(ChunkPrefetcher.prefetch(serverLevel, buildPlan, ChunkTicketLevel.BLOCK_TICKING));
         }
-        return blocks;
+        buildState = BuildState.LOADING;
     }
-
-    private List<BlockPlacement> buildBox(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(0);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, z), material));
-                }
-            }
-        }
-        return blocks;
+    
+    /**
+     * Compare the plan against the world once its chunks are loaded; unloaded sections would all look missing
+     */
+    private void startDiff() {
+        pendingDiff = BuildPlanner.diff((ServerLevel) steve.level(), preparedPlan, diffCandidates);
+        diffCandidates = null;
+        buildState = BuildState.DIFFING;
     }
     
-    private List<BlockPlacement> buildAdvancedHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block floorMaterial = getMaterial(0);
-        Block wallMaterial = getMaterial(1);
-        Block roofMaterial = getMaterial(2);
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block doorMaterial = Blocks.OAK_DOOR;
-        
-        if (roofMaterial == Blocks.GLASS || roofMaterial == Blocks.GLASS_PANE) {
-            roofMaterial = Blocks.OAK_PLANKS; // Force wood roof if glass was selected
-        }
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
-        for (int y = 1; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x == width / 2 && y <= 2) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), doorMaterial));
-                } else if (y >= 2 && y <= height - 1 && (x == 2 || x == width - 3)) {
-                    // Windows on front wall (taller windows)
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-                
-                // BACK WALL - Multiple windows
-                if (y >= 2 && y <= height - 1 && (x == 2 || x == width / 2 || x == width - 3)) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-                }
-            }
-            for (int z = 1; z < depth - 1; z++) {
-                // Left and right walls with multiple windows
-                if (y >= 2 && y <= height - 1 && (z % 3 == 1)) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), windowMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
+    /**
+     * Called on the server thread once the plan has been compared against the world
+     */
+    private void onDiffReady() {
+        BuildPlan buildPlan = preparedPlan;
+        BitSet pending;
+        try {
+            pending = pendingDiff.join();
+        } catch (CompletionException | CancellationException e) {
+            SteveMod.LOGGER.error("Failed to compare build plan for '{}' against the world", structureType, e);
+            result = ActionResult.failure("Cannot check build site for: " + structureType);
+            return;
+        } finally {
+            pendingDiff = null;
+            preparedPlan = null;
         }
-        int roofStartHeight = height + 1;
-        int roofLayers = Math.max(width, depth) / 2 + 1;
         
-        for (int layer = 0; layer < roofLayers; layer++) {
-            int currentHeight = roofStartHeight + layer;
-            int inset = layer;
-            
-            for (int x = inset; x < width - inset; x++) {
-                for (int z = inset; z < depth - inset; z++) {
-                    if (x == inset || x == width - 1 - inset || 
-                        z == inset || z == depth - 1 - inset) {
-                        blocks.add(new BlockPlacement(start.offset(x, currentHeight, z), roofMaterial));
-                    }
-                }
-            }
-            
-            if (width - 2 * inset <= 1 || depth - 2 * inset <= 1) {
-                break;
-            }
+        if (resumingBuild != null) {
+            collaborativeBuild = CollaborativeBuildManager.resumeBuild(resumingBuild, buildPlan, pending, (ServerLevel) steve.level());
+            joinBuild(collaborativeBuild);
+            return;
         }
         
-        return blocks;
-    }
-    
-    private List<BlockPlacement> buildCastle(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block stoneMaterial = Blocks.STONE_BRICKS;
-        Block wallMaterial = Blocks.COBBLESTONE;
-        Block accentMaterial = getMaterial(2); // Use third material for accent
-        Block windowMaterial = Blocks.GLASS_PANE;
-        
-        for (int y = 0; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < depth; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == depth - 1);
-                    boolean isCorner = (x <= 2 || x >= width - 3) && (z <= 2 || z >= depth - 3);
-                    
-                    if (y == 0) {
-                        // Solid stone floor
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), stoneMaterial));
-                    } else if (isEdge && !isCorner) {
-                        if (x == width / 2 && z == 0 && y <= 3) {
-                            if (y >= 1 && y <= 3 && x >= width / 2 - 1 && x <= width / 2 + 1) {
-                                blocks.add(new BlockPlacement(start.offset(x, y, 0), Blocks.AIR));
-                            }
-                        } else if (y % 4 == 2 && !isCorner) {
-                            // Arrow slit windows
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else {
-                            // Thick stone walls
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
-        }
+        StructureRegistry.register((ServerLevel) steve.level(), buildOrigin, buildWidth, buildHeight, buildDepth, structureType);
         
-        int towerHeight = height + 6; // Much taller towers
-        int towerSize = 3;
-        int[][] corners = {{0, 0}, {width - towerSize, 0}, {0, depth - towerSize}, {width - towerSize, depth - towerSize}};
-        
-        for (int[] corner : corners) {
-            for (int y = 0; y <= towerHeight; y++) {
-                for (int dx = 0; dx < towerSize; dx++) {
-                    for (int dz = 0; dz < towerSize; dz++) {
-                        boolean isTowerEdge = (dx == 0 || dx == towerSize - 1 || dz == 0 || dz == towerSize - 1);
-                        
-                        if (y == 0 || isTowerEdge) {
-                            // Solid base and hollow center
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), stoneMaterial));
-                        }
-                        
-                        // Windows on towers
-                        if (y % 5 == 3 && isTowerEdge && (dx == towerSize / 2 || dz == towerSize / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), windowMaterial));
-                        }
-                    }
-                }
-            }
-            for (int dx = 0; dx < towerSize; dx++) {
-                for (int dz = 0; dz < towerSize; dz++) {
-                    if (dx % 2 == 0 || dz % 2 == 0) {
-                        blocks.add(new BlockPlacement(start.offset(corner[0] + dx, towerHeight + 1, corner[1] + dz), stoneMaterial));
-                    }
-                }
-            }
-        }
-        for (int x = 0; x < width; x += 2) {
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, depth - 1), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, depth - 1), stoneMaterial));
-        }
-        for (int z = 0; z < depth; z += 2) {
-            blocks.add(new BlockPlacement(start.offset(0, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(0, height + 2, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 2, z), stoneMaterial));
+        // Another Steve may have started the same structure while we were planning
+        collaborativeBuild = CollaborativeBuildManager.findActiveBuild(structureType);
+        
+        if (collaborativeBuild != null) {
+            isCollaborative = true;
+            SteveMod.LOGGER.info("Steve '{}' JOINING existing {} collaborative build at {}", 
+                steve.getSteveName(), structureType, collaborativeBuild.startPos);
+        } else if (pending.isEmpty()) {
+            SteveMod.LOGGER.info("Steve '{}' found {} at {} already built", steve.getSteveName(), structureType, buildOrigin);
+            result = ActionResult.success(structureType + " is already built");
+            return;
+        } else {
+            collaborativeBuild = CollaborativeBuildManager.registerBuild(structureType, buildPlan, buildOrigin, pending,
+                (ServerLevel) steve.level());
+            isCollaborative = true;
+            SteveMod.LOGGER.info("Steve '{}' CREATED new {} collaborative build at {}", 
+                steve.getSteveName(), structureType, buildOrigin);
         }
         
-        return blocks;
+        buildState = BuildState.BUILDING;
+        steve.setFlying(true);
+        
+        SteveMod.LOGGER.info("Steve '{}' starting COLLABORATIVE build of {} at {} with {}/{} blocks to place using materials: {} [FLYING ENABLED]", 
+            steve.getSteveName(), structureType, buildOrigin, collaborativeBuild.getTotalBlocks(), buildPlan.size(), buildMaterials);
     }
-    
-    private List<BlockPlacement> buildModernHouse(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.QUARTZ_BLOCK;
-        Block floorMaterial = Blocks.SMOOTH_STONE;
-        Block glassMaterial = Blocks.GLASS;
-        Block roofMaterial = Blocks.DARK_OAK_PLANKS;
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
+
+    /**
+     * Called on the server thread once the finished build has been compared against its plan.
+     * Reports how much of the plan ended up in the world and hands the mismatches (blocks washed away,
+     * broken by mobs, overwritten by someone else) to the bulk placer, so repairs cost only the errors.
+     */
+    private void onVerifyReady() {
+        BuildPlan buildPlan = preparedPlan;
+        BitSet mismatched;
+        try {
+            mismatched = pendingDiff.join();
+        } catch (CompletionException | CancellationException e) {
+            SteveMod.LOGGER.error("Failed to verify finished build '{}'", collaborativeBuild.structureId, e);
+            result = ActionResult.success("Built " + structureType + " collaboratively!");
+            return;
+        } finally {
+            pendingDiff = null;
+            preparedPlan = null;
         }
         
-        // Modern design with lots of glass
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                // Front - mostly glass
-                if (x % 2 == 0 || y > 1) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-                
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-            }
-            
-            for (int z = 1; z < depth - 1; z++) {
-                // Side walls with some glass
-                if (z % 3 == 1 && y == 2) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), glassMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
-        }
+        int wrong = mismatched.cardinality();
+        double accuracy = 100.0 * (buildPlan.size() - wrong) / buildPlan.size();
+        String accuracyText = String.format("%.1f%%", accuracy);
+        SteveMod.LOGGER.info("Verified build '{}': {}/{} blocks correct ({}), {} to repair", 
+            collaborativeBuild.structureId, buildPlan.size() - wrong, buildPlan.size(), accuracyText, wrong);
         
-        // Flat modern roof
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, height, z), roofMaterial));
-            }
+        BuildJournal journal = collaborativeBuild.getJournal();
+        if (wrong == 0 || (journal != null && journal.isClosed())) {
+            // Nothing to fix, or the build was undone while we were checking it
+            result = ActionResult.success("Built " + structureType + " collaboratively! (" + accuracyText + " accurate)");
+            return;
         }
         
-        return blocks;
+        BlockPlacer.submit((ServerLevel) steve.level(), "repair " + collaborativeBuild.structureId,
+            buildPlan.cursor(mismatched), Block.UPDATE_ALL, journal, null);
+        result = ActionResult.success("Built " + structureType + " collaboratively! (" + accuracyText 
+            + " accurate, repairing " + wrong + " blocks)");
     }
-    
-    private List<BlockPlacement> buildBarn(BlockPos start, int width, int height, int depth) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block woodMaterial = Blocks.OAK_PLANKS;
-        Block logMaterial = Blocks.OAK_LOG;
-        Block roofMaterial = Blocks.SPRUCE_PLANKS;
-        
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), woodMaterial));
-            }
-        }
-        
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean isSupport = (x == 0 || x == width - 1 || x == width / 2);
-                Block material = isSupport ? logMaterial : woodMaterial;
-                
-                // Large door opening in front
-                if (x >= width / 3 && x <= 2 * width / 3 && y <= 2) {
-                    continue; // Skip for large opening
-                }
-                
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), material));
-            }
-            
-            for (int z = 1; z < depth - 1; z++) {
-                blocks.add(new BlockPlacement(start.offset(0, y, z), logMaterial));
-                blocks.add(new BlockPlacement(start.offset(width - 1, y, z), logMaterial));
-            }
+
+    @Override
+    protected void onCancel() {
+        if (pendingPlan != null) {
+            pendingPlan.cancel(false);
+            pendingPlan = null;
         }
-        
-        // Tall peaked roof
-        int roofPeakHeight = height + width / 2;
-        for (int x = 0; x < width; x++) {
-            int distFromCenter = Math.abs(x - width / 2);
-            int roofY = roofPeakHeight - distFromCenter;
-            
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, roofY, z), roofMaterial));
-            }
+        if (pendingDiff != null) {
+            pendingDiff.cancel(false);
+            pendingDiff = null;
         }
-        
-        return blocks;
+        steve.setFlying(false); // Disable flying when cancelled
+        steve.getNavigation().stop();
     }
-    
-    private List<BlockPlacement> buildAdvancedTower(BlockPos start, int width, int height) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.STONE_BRICKS;
-        Block accentMaterial = Blocks.CHISELED_STONE_BRICKS;
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block roofMaterial = Blocks.DARK_OAK_STAIRS;
-        
-        // Main tower body
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < width; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == width - 1);
-                    boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
-                    
-                    if (y == 0) {
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                    } else if (isEdge) {
-                        // Windows every few levels
-                        if (y % 3 == 2 && !isCorner && (x == width / 2 || z == width / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else if (isCorner) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), accentMaterial));
-                        } else {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
+
+    @Override
+    public String getDescription() {
+        if (buildState == BuildState.PREPARING) {
+            return "Preparing " + structureType + " build plan";
         }
-        
-        for (int i = 0; i < width / 2 + 1; i++) {
-            for (int x = i; x < width - i; x++) {
-                for (int z = i; z < width - i; z++) {
-                    if (x == i || x == width - 1 - i || z == i || z == width - 1 - i) {
-                        blocks.add(new BlockPlacement(start.offset(x, height + i, z), roofMaterial));
-                    }
-                }
-            }
+        if (buildState == BuildState.LOADING) {
+            return "Loading " + structureType + " build site";
         }
-        
-        return blocks;
+        if (buildState == BuildState.DIFFING) {
+            return "Checking " + structureType + " build site";
+        }
+        if (buildState == BuildState.VERIFYING) {
+            return "Verifying " + structureType;
+        }
+        if (collaborativeBuild != null) {
+            return "Build " + structureType + " (" + collaborativeBuild.getBlocksPlaced() + "/" + collaborativeBuild.getTotalBlocks() + ")";
+        }
+        return "Build " + structureType;
     }
 
     private Block parseBlock(String blockName) {
@@ -845,30 +762,6 @@ public class BuildStructureAction extends BaseAction {
         return suitable;
     }
     
-    /**
-     * Try to load structure from NBT template file
-     * Returns null if no template found (falls back to procedural generation)
-     */
-    private List<BlockPlacement> tryLoadFromTemplate(String structureName, BlockPos startPos) {
-        if (!(steve.level() instanceof ServerLevel serverLevel)) {
-            return null;
-        }
-        
-        var template = StructureTemplateLoader.loadFromNBT(serverLevel, structureName);
-        if (template == null) {
-            return null;
-        }
-        
-        List<BlockPlacement> blocks = new ArrayList<>();
-        for (var templateBlock : template.blocks) {
-            BlockPos worldPos = startPos.offset(templateBlock.relativePos);
-            Block block = templateBlock.blockState.getBlock();
-            blocks.add(new BlockPlacement(worldPos, block));
-        }
-        
-        return blocks;
-    }
-    
     /**
      * Find the nearest player to build in front of
      */
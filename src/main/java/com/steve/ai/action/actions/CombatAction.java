@@ -2,9 +2,12 @@ package com.steve.ai.action.actions;
 
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
+import com.steve.ai.combat.CombatCoordinator;
+import com.steve.ai.combat.HostileTracker;
 import com.steve.ai.entity.SteveEntity;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.monster.Monster;
 import net.minecraft.world.phys.AABB;
 
@@ -18,6 +21,7 @@ public class CombatAction extends BaseAction {
     private double lastX, lastZ;
     private static final int MAX_TICKS = 600;
     private static final double ATTACK_RANGE = 3.5;
+    private static final double SEARCH_RADIUS = 32.0;
 
     public CombatAction(SteveEntity steve, Task task) {
         super(steve, task);
@@ -50,14 +54,25 @@ public class CombatAction extends BaseAction {
             steve.setInvulnerableBuilding(false);
             steve.setSprinting(false);
             steve.getNavigation().stop();
+            leaveFight();
             com.steve.ai.SteveMod.LOGGER.info("Steve '{}' combat complete, invulnerability disabled", 
                 steve.getSteveName());
             result = ActionResult.success("Combat complete");
             return;
         }
         
-        // Re-search for targets periodically or if current target is invalid
-        if (target == null || !target.isAlive() || target.isRemoved()) {
+        // Hostiles are split between fighting Steves by the coordinator; search ourselves only until it assigns one
+        LivingEntity assigned = null;
+        if (steve.level() instanceof ServerLevel level) {
+            assigned = CombatCoordinator.get(level).requestTarget(steve, this::isValidTarget, level.getGameTime());
+        }
+        if (assigned != null) {
+            if (assigned != target) {
+                com.steve.ai.SteveMod.LOGGER.debug("Steve '{}' assigned to: {}", steve.getSteveName(),
+                    assigned.getType().toString());
+            }
+            target = assigned;
+        } else if (target == null || !target.isAlive() || target.isRemoved()) {
             if (ticksRunning % 20 == 0) {
                 findTarget();
             }
@@ -69,7 +84,7 @@ public class CombatAction extends BaseAction {
         double distance = steve.distanceTo(target);
         
         steve.setSprinting(true);
-        steve.getNavigation().moveTo(target, 2.5); // High speed multiplier for sprinting
+        steve.getFollowController().follow(target, 2.5); // High speed multiplier for sprinting
         
         double currentX = steve.getX();
         double currentZ = steve.getZ();
@@ -113,6 +128,7 @@ public class CombatAction extends BaseAction {
     protected void onCancel() {
         steve.setInvulnerableBuilding(false);
         steve.getNavigation().stop();
+        leaveFight();
         steve.setSprinting(false);
         steve.setFlying(false);
         target = null;
@@ -120,20 +136,46 @@ public class CombatAction extends BaseAction {
             steve.getSteveName());
     }
 
+    private void leaveFight() {
+        steve.getFollowController().stop();
+        if (steve.level() instanceof ServerLevel level) {
+            CombatCoordinator.get(level).release(steve);
+        }
+    }
+
     @Override
     public String getDescription() {
         return "Attack " + targetType;
     }
 
     private void findTarget() {
-        AABB searchBox = steve.getBoundingBox().inflate(32.0);
+        LivingEntity nearest = null;
+        if (steve.level() instanceof ServerLevel level) {
+            // Hostiles come from the level's shared index rather than a world query per Steve
+            List<LivingEntity> hostiles = HostileTracker.get(level).nearest(level.getGameTime(), steve.position(), 1,
+                SEARCH_RADIUS, this::isValidTarget);
+            nearest = hostiles.isEmpty() ? null : hostiles.get(0);
+        }
+        if (nearest == null && !targetsAnyHostile()) {
+            nearest = findNonHostileTarget(); // Specific types may name passive mobs
+        }
+        
+        target = nearest;
+        if (target != null) {
+            com.steve.ai.SteveMod.LOGGER.info("Steve '{}' locked onto: {} at {}m", 
+                steve.getSteveName(), target.getType().toString(), (int)steve.distanceTo(target));
+        }
+    }
+
+    private LivingEntity findNonHostileTarget() {
+        AABB searchBox = steve.getBoundingBox().inflate(SEARCH_RADIUS);
         List<Entity> entities = steve.level().getEntities(steve, searchBox);
         
         LivingEntity nearest = null;
         double nearestDistance = Double.MAX_VALUE;
         
         for (Entity entity : entities) {
-            if (entity instanceof LivingEntity living && isValidTarget(living)) {
+            if (entity instanceof LivingEntity living && !HostileTracker.isHostile(living) && isValidTarget(living)) {
                 double distance = steve.distanceTo(living);
                 if (distance < nearestDistance) {
                     nearest = living;
@@ -141,12 +183,13 @@ public class CombatAction extends BaseAction {
                 }
             }
         }
-        
-        target = nearest;
-        if (target != null) {
-            com.steve.ai.SteveMod.LOGGER.info("Steve '{}' locked onto: {} at {}m", 
-                steve.getSteveName(), target.getType().toString(), (int)nearestDistance);
-        }
+        return nearest;
+    }
+
+    private boolean targetsAnyHostile() {
+        String targetLower = targetType.toLowerCase();
+        return targetLower.contains("mob") || targetLower.contains("hostile") || 
+            targetLower.contains("monster") || targetLower.equals("any");
     }
 
     private boolean isValidTarget(LivingEntity entity) {
@@ -159,16 +202,13 @@ public class CombatAction extends BaseAction {
             return false;
         }
         
-        String targetLower = targetType.toLowerCase();
-        
         // Match ANY hostile mob
-        if (targetLower.contains("mob") || targetLower.contains("hostile") || 
-            targetLower.contains("monster") || targetLower.equals("any")) {
+        if (targetsAnyHostile()) {
             return entity instanceof Monster;
         }
         
         // Match specific entity type
         String entityTypeName = entity.getType().toString().toLowerCase();
-        return entityTypeName.contains(targetLower);
+        return entityTypeName.contains(targetType.toLowerCase());
     }
 }
@@ -2,7 +2,9 @@ package com.steve.ai.action.actions;
 
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
+import com.steve.ai.chunk.ChunkTicketLevel;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.navigation.MovementMonitor;
 import net.minecraft.world.entity.player.Player;
 
 import java.util.List;
@@ -11,8 +13,6 @@ public class FollowPlayerAction extends BaseAction {
     private String playerName;
     private Player targetPlayer;
     private int ticksRunning;
-    private int ticksStuck = 0;
-    private double lastDistSqr = Double.MAX_VALUE;
     private static final int MAX_TICKS = 6000; // 5 minutes
 
     public FollowPlayerAction(SteveEntity steve, Task task) {
@@ -68,41 +68,31 @@ public class FollowPlayerAction extends BaseAction {
         steve.getLookControl().setLookAt(targetPlayer, 30.0F, 30.0F);
 
         if (distance > 3.0) {
-            steve.getNavigation().moveTo(targetPlayer, 1.0);
-        } else if (distance < 2.0) {
-        } else if (distance < 2.0) {
-            steve.getNavigation().stop();
-        }
-
-        // Stuck detection
-        double distSqr = steve.distanceToSqr(targetPlayer);
-        if (Math.abs(distSqr - lastDistSqr) < 0.1 && distance > 3.0) {
-            ticksStuck++;
-        } else {
-            ticksStuck = 0;
-            lastDistSqr = distSqr;
-        }
-
-        if (ticksStuck > 200) { // 10 seconds
-            if (distance > 10.0) {
-                com.steve.ai.SteveMod.LOGGER.info("Stuck following (>10s, >10 blocks). Teleporting to player...");
+            steve.getFollowController().follow(targetPlayer, 1.0);
+            if (steve.getMovementMonitor().update(task.getAction(), targetPlayer.blockPosition(), false)
+                    == MovementMonitor.Recovery.TELEPORT) {
+                com.steve.ai.SteveMod.LOGGER.info("Stuck following. Teleporting to player...");
                 teleportToSafePos(targetPlayer.blockPosition());
-                ticksStuck = 0;
-            } else {
-                // Stuck but close. Jump.
-                if (steve.onGround())
-                    steve.getJumpControl().jump();
-                ticksStuck = 180;
+                steve.getFollowController().stop();
             }
+        } else if (distance < 2.0) {
+            steve.getFollowController().stop();
+            steve.getNavigation().stop();
         }
     }
 
     @Override
     protected void onCancel() {
+        steve.getFollowController().stop();
         steve.getNavigation().stop();
         steve.setFlying(false);
     }
 
+    @Override
+    public ChunkTicketLevel getChunkTicketLevel() {
+        return ChunkTicketLevel.NONE; // Stays next to a player, whose chunks are loaded anyway
+    }
+
     @Override
     public String getDescription() {
         return "Follow player " + playerName;
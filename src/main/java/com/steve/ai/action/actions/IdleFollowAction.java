@@ -3,7 +3,12 @@ package com.steve.ai.action.actions;
 import com.steve.ai.SteveMod;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
+import com.steve.ai.chunk.ChunkPrefetcher;
+import com.steve.ai.chunk.ChunkTicketLevel;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.navigation.FlowFields;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.player.Player;
 
 import java.util.HashMap;
@@ -17,10 +22,12 @@ import java.util.List;
 public class IdleFollowAction extends BaseAction {
     private Player targetPlayer;
     private int ticksSincePlayerSearch;
+    private ChunkPrefetcher.Lease teleportChunks; // Destination being loaded before a long teleport
     private static final int PLAYER_SEARCH_INTERVAL = 100; // Search for new player every 5 seconds
     private static final double FOLLOW_DISTANCE = 4.0; // Stay this far from player
     private static final double MIN_DISTANCE = 2.5; // Stop moving if closer than this
     private static final double TELEPORT_DISTANCE = 50.0; // Teleport if further than 50 blocks
+    private static final double SLOT_TOLERANCE = 0.5; // Close enough to a formation slot to stand still
 
     public IdleFollowAction(SteveEntity steve) {
         super(steve, new Task("idle_follow", new HashMap<>()));
@@ -58,6 +65,15 @@ public class IdleFollowAction extends BaseAction {
         // Follow the player at a comfortable distance
         double distance = steve.distanceTo(targetPlayer);
         if (distance > TELEPORT_DISTANCE) {
+            // Load the destination in the background first so the teleport does not stall the tick
+            if (teleportChunks == null && steve.level() instanceof ServerLevel serverLevel) {
+                teleportChunks = holdChunks(ChunkPrefetcher.prefetch(serverLevel, targetPlayer.blockPosition(), 1));
+            }
+            if (teleportChunks != null && !teleportChunks.isReady()) {
+                steve.getNavigation().stop();
+                return;
+            }
+            
             // Teleport near the player (3-5 blocks away)
             double offsetX = (Math.random() - 0.5) * 6; // Random offset between -3 and +3
             double offsetZ = (Math.random() - 0.5) * 6;
@@ -78,18 +94,25 @@ public class IdleFollowAction extends BaseAction {
             }
             
             steve.teleportTo(targetX, targetY, targetZ);
+            steve.getFollowController().stop();
             steve.getNavigation().stop(); // Clear navigation after teleport
+            releaseChunks(); // The player keeps the area loaded from here on
+            teleportChunks = null;
             
             SteveMod.LOGGER.info("Steve '{}' teleported to player (was {} blocks away)", 
                 steve.getSteveName(), (int)distance);
             
+        } else if (followFlowField()) {
+            // Stepping along the player's shared flow field, or holding a formation slot
         } else if (distance > FOLLOW_DISTANCE) {
-            // Too far, move closer (normal walking)
-            steve.getNavigation().moveTo(targetPlayer, 1.0);
+            // Too far, move closer (normal walking, repathing only when the player has moved on)
+            steve.getFollowController().follow(targetPlayer, 1.0);
         } else if (distance < MIN_DISTANCE) {
             // Too close, stop
+            steve.getFollowController().stop();
             steve.getNavigation().stop();
         } else {
+            steve.getFollowController().stop();
             if (!steve.getNavigation().isDone()) {
                 steve.getNavigation().stop();
             }
@@ -98,11 +121,38 @@ public class IdleFollowAction extends BaseAction {
         // This action never completes on its own - it runs until cancelled
     }
 
+    /**
+     * Take the next step from the flow field around the player, which all idle Steves share.
+     * @return false when the field cannot guide us yet, so plain navigation takes over
+     */
+    private boolean followFlowField() {
+        if (!(steve.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+        BlockPos step = FlowFields.get(serverLevel).nextStep(steve, targetPlayer, serverLevel.getGameTime());
+        if (step == null) {
+            return false;
+        }
+        steve.getNavigation().stop();
+        double x = step.getX() + 0.5, z = step.getZ() + 0.5;
+        double dx = x - steve.getX(), dz = z - steve.getZ();
+        if (dx * dx + dz * dz > SLOT_TOLERANCE * SLOT_TOLERANCE || Math.abs(step.getY() - steve.getY()) > 1.0) {
+            steve.getMoveControl().setWantedPosition(x, step.getY(), z, 1.0);
+        }
+        return true;
+    }
+
     @Override
     protected void onCancel() {
+        steve.getFollowController().stop();
         steve.getNavigation().stop();
     }
 
+    @Override
+    public ChunkTicketLevel getChunkTicketLevel() {
+        return ChunkTicketLevel.NONE; // Stays next to a player, whose chunks are loaded anyway
+    }
+
     @Override
     public String getDescription() {
         return "Following player (idle)";
@@ -4,6 +4,8 @@ import com.steve.ai.SteveMod;
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.integration.BaritoneInterface;
+import com.steve.ai.navigation.MovementMonitor;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -43,6 +45,7 @@ public class MineBlockAction extends BaseAction {
     private final java.util.Set<BlockPos> veinMineQueue = new java.util.HashSet<>();
     private static final int MAX_TICKS = 12000; // 10 minutes max
     private static final int SEARCH_RADIUS = 32;
+    private static final double LONG_RETURN_DIST_SQR = 32.0 * 32.0; // Further returns use the native pathfinder
 
     public MineBlockAction(SteveEntity steve, Task task) {
         super(steve, task);
@@ -189,9 +192,6 @@ public class MineBlockAction extends BaseAction {
         }
     }
 
-    private int ticksStuck = 0;
-    private double lastDistSqr = Double.MAX_VALUE;
-
     private void handleMovingToBlock() {
         if (currentTargetBlockPos == null) {
             currentState = MiningState.SEARCHING;
@@ -200,41 +200,20 @@ public class MineBlockAction extends BaseAction {
 
         double distSqr = steve.blockPosition().distSqr(currentTargetBlockPos);
 
-        // Check if we are stuck
-        if (Math.abs(distSqr - lastDistSqr) < 0.1) {
-            ticksStuck++;
-        } else {
-            ticksStuck = 0;
-            lastDistSqr = distSqr;
-        }
-
-        // Teleport failsafe if stuck
-        // User request: "teleport after some amount of time, maybe 10 seconds if they
-        // arent within 10 blocks"
-        if (ticksStuck > 200) { // 10 seconds
-            if (distSqr > 100.0) { // > 10 blocks away
-                SteveMod.LOGGER.info("Stuck moving to block (>10s, >10 blocks). Teleporting...");
-                teleportToSafePos(currentTargetBlockPos);
-                steve.getNavigation().stop();
-                currentState = MiningState.MINING;
-                ticksStuck = 0;
-                return;
-            } else {
-                // Stuck but close (< 10 blocks).
-                // Try to clear surroundings if we are in a hole/tunnel
-                if (ticksStuck % 20 == 0) { // Every second
-                    clearSurroundings();
-                    if (steve.onGround())
-                        steve.getJumpControl().jump();
-                }
-
-                // If we are digging deep and stuck, try to continue the staircase
-                if (isDeepOre(targetBlock) && ticksStuck > 100) {
-                    digStaircase();
-                }
-
-                // Reset stuck counter slightly to avoid spamming but keep checking
-                ticksStuck = 180;
+        // Getting unstuck escalates from repathing to clearing, jumping and finally teleporting
+        MovementMonitor.Recovery recovery = steve.getMovementMonitor().update(task.getAction(), currentTargetBlockPos, true);
+        if (recovery == MovementMonitor.Recovery.TELEPORT) {
+            SteveMod.LOGGER.info("Stuck moving to block. Teleporting...");
+            teleportToSafePos(currentTargetBlockPos);
+            steve.getNavigation().stop();
+            currentState = MiningState.MINING;
+            return;
+        }
+        if (recovery == MovementMonitor.Recovery.CLEAR) {
+            // We may be in a hole or tunnel; when digging deep, try to continue the staircase too
+            clearSurroundings();
+            if (isDeepOre(targetBlock)) {
+                digStaircase();
             }
         }
 
@@ -246,10 +225,7 @@ public class MineBlockAction extends BaseAction {
                 boolean pathFound = steve.getNavigation().moveTo(currentTargetBlockPos.getX(),
                         currentTargetBlockPos.getY(), currentTargetBlockPos.getZ(), 1.0);
 
-                if (!pathFound && distSqr < 100.0) {
-                    // If pathfinding fails and we are close, try to move directly or teleport
-                    ticksStuck += 10; // Accelerate stuck detection
-                } else if (!pathFound && distSqr > 100.0 && isDeepOre(targetBlock)
+                if (!pathFound && distSqr > 100.0 && isDeepOre(targetBlock)
                         && currentTargetBlockPos.getY() < steve.getY()) {
                     // If pathfinding fails for deep ore, dig staircase
                     digStaircase();
@@ -328,46 +304,35 @@ public class MineBlockAction extends BaseAction {
 
         double distSqr = steve.blockPosition().distSqr(returnPos);
 
-        // Check if we are stuck
-        if (Math.abs(distSqr - lastDistSqr) < 0.1) {
-            ticksStuck++;
-        } else {
-            ticksStuck = 0;
-            lastDistSqr = distSqr;
-        }
-
-        // Teleport failsafe if stuck
-        // User request: "teleport after some amount of time, maybe 10 seconds if they
-        // arent within 10 blocks"
-        if (ticksStuck > 200) { // 10 seconds
-            if (distSqr > 100.0) { // > 10 blocks away
-                SteveMod.LOGGER.info("Stuck returning (>10s, >10 blocks). Teleporting...");
-                teleportToSafePos(returnPos);
-                steve.getNavigation().stop();
-                steve.setFlying(false);
-                deliverItems(player);
-                return;
-            } else {
-                // Stuck but close (< 10 blocks). Do NOT teleport.
-                if (steve.onGround())
-                    steve.getJumpControl().jump();
-                ticksStuck = 180;
-            }
+        if (steve.getMovementMonitor().update(task.getAction(), returnPos, true) == MovementMonitor.Recovery.TELEPORT) {
+            SteveMod.LOGGER.info("Stuck returning. Teleporting...");
+            teleportToSafePos(returnPos);
+            steve.getNavigation().stop();
+            steve.getPathfinder().stop();
+            steve.setFlying(false);
+            deliverItems(player);
+            return;
         }
 
+        BaritoneInterface pathfinder = steve.getPathfinder();
         if (distSqr <= 9.0) { // Within 3 blocks
             steve.getNavigation().stop();
+            pathfinder.stop();
             steve.setFlying(false);
             deliverItems(player);
+        } else if (distSqr > LONG_RETURN_DIST_SQR) {
+            // Steves returning to the same player share this path through the path cache
+            if (ticksSinceLastPathCalc++ > 10 && (!pathfinder.isActive() || pathfinder.getTarget() == null
+                    || pathfinder.getTarget().distSqr(returnPos) > 16.0)) {
+                pathfinder.pathfindTo(returnPos);
+                ticksSinceLastPathCalc = 0;
+            }
         } else {
+            if (pathfinder.isActive()) {
+                pathfinder.stop();
+            }
             if (ticksSinceLastPathCalc++ > 10 || steve.getNavigation().isDone()) {
-                boolean pathFound = steve.getNavigation().moveTo(returnPos.getX(), returnPos.getY(), returnPos.getZ(),
-                        1.0);
-
-                if (!pathFound && distSqr < 100.0) {
-                    ticksStuck += 10;
-                }
-
+                steve.getNavigation().moveTo(returnPos.getX(), returnPos.getY(), returnPos.getZ(), 1.0);
                 ticksSinceLastPathCalc = 0;
             }
         }
@@ -591,6 +556,9 @@ public class MineBlockAction extends BaseAction {
     @Override
     protected void onCancel() {
         steve.getNavigation().stop();
+        if (steve.getPathfinder().isActive()) {
+            steve.getPathfinder().stop();
+        }
         steve.setFlying(false);
         steve.setItemInHand(InteractionHand.MAIN_HAND, ItemStack.EMPTY);
     }
@@ -2,13 +2,25 @@ package com.steve.ai.action.actions;
 
 import com.steve.ai.action.ActionResult;
 import com.steve.ai.action.Task;
+import com.steve.ai.chunk.ChunkPrefetcher;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.integration.BaritoneInterface;
+import com.steve.ai.navigation.MovementMonitor;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 
 public class PathfindAction extends BaseAction {
     private BlockPos targetPos;
     private int ticksRunning;
+    private ChunkPrefetcher.Lease firstLeg; // Loaded in the background before we path there; released once moving
+    private ChunkPrefetcher.Lease targetArea; // Far trips only; held until the action ends
+    private boolean longRange; // Walked with the native pathfinder instead of vanilla navigation
+    private boolean pathStarted;
+    private int maxTicks;
     private static final int MAX_TICKS = 600; // 30 seconds timeout
+    private static final double VANILLA_RANGE = 32.0; // Further targets are beyond what vanilla navigation can plan
+    private static final int MAX_PREFETCH_TICKS = 200; // Path anyway if the first leg takes longer than this to load
+    private static final double FIRST_LEG = 48.0; // Blocks towards the target that must be loaded before moving
 
     public PathfindAction(SteveEntity steve, Task task) {
         super(steve, task);
@@ -22,55 +34,114 @@ public class PathfindAction extends BaseAction {
 
         targetPos = new BlockPos(x, y, z);
         ticksRunning = 0;
+        double distance = Math.sqrt(steve.blockPosition().distSqr(targetPos));
+        longRange = distance > VANILLA_RANGE;
+        maxTicks = longRange ? MAX_TICKS + (int) (distance * 10) : MAX_TICKS; // Half a second per block
+
+        if (steve.level() instanceof ServerLevel serverLevel) {
+            // Only the stretch the first search covers, plus the target area for far trips; the chunks in
+            // between load around the Steve as it walks
+            BlockPos start = steve.blockPosition();
+            BlockPos legEnd = targetPos;
+            if (distance > FIRST_LEG) {
+                double t = FIRST_LEG / distance;
+                legEnd = BlockPos.containing(start.getX() + (targetPos.getX() - start.getX()) * t, start.getY(),
+                    start.getZ() + (targetPos.getZ() - start.getZ()) * t);
+                targetArea = holdChunks(ChunkPrefetcher.prefetch(serverLevel, targetPos, 1));
+            }
+            firstLeg = holdChunks(ChunkPrefetcher.prefetch(serverLevel, start, legEnd, 0));
+        }
+        if (firstLeg == null || firstLeg.isReady()) {
+            startMoving();
+        }
+    }
 
-        steve.getNavigation().moveTo(x, y, z, 1.0);
+    private void startMoving() {
+        if (longRange) {
+            pathStarted = steve.getPathfinder().pathfindTo(targetPos);
+        } else {
+            steve.getNavigation().moveTo(targetPos.getX(), targetPos.getY(), targetPos.getZ(), 1.0);
+            releaseFirstLeg(); // Vanilla navigation has its path already
+        }
     }
 
-    private int ticksStuck = 0;
-    private double lastDistSqr = Double.MAX_VALUE;
+    /**
+     * Drop the first leg's tickets; the target area stays held until the action ends
+     */
+    private void releaseFirstLeg() {
+        if (firstLeg != null) {
+            firstLeg.release();
+            firstLeg = null;
+        }
+    }
 
     @Override
     protected void onTick() {
         ticksRunning++;
 
+        if (firstLeg != null && !firstLeg.isReady() && firstLeg.getAge() < MAX_PREFETCH_TICKS) {
+            return; // Chunks on the way are still loading
+        }
+
         double distSqr = steve.blockPosition().distSqr(targetPos);
 
         if (distSqr < 4.0) { // Within 2 blocks
             result = ActionResult.success("Reached target position");
+            stopPathfinder();
             return;
         }
 
-        // Check if we are stuck
-        if (Math.abs(distSqr - lastDistSqr) < 0.1) {
-            ticksStuck++;
-        } else {
-            ticksStuck = 0;
-            lastDistSqr = distSqr;
+        if (ticksRunning > maxTicks) {
+            result = ActionResult.failure("Pathfinding timeout");
+            stopPathfinder();
+            return;
         }
 
-        // Teleport failsafe if stuck close to target
-        if (ticksStuck > 60 && distSqr < 100.0) {
-            steve.setPos(targetPos.getX() + 0.5, targetPos.getY() + 1.0, targetPos.getZ() + 0.5);
-            result = ActionResult.success("Reached target position (teleported)");
+        if (longRange) {
+            tickLongRange();
             return;
         }
 
-        if (ticksRunning > MAX_TICKS) {
-            result = ActionResult.failure("Pathfinding timeout");
+        // Teleport failsafe once the movement monitor has run out of other ways to get unstuck, but only
+        // close to the target; walking somewhere never breaks blocks
+        if (steve.getMovementMonitor().update(task.getAction(), targetPos, false) == MovementMonitor.Recovery.TELEPORT
+                && distSqr < 100.0) {
+            teleportToSafePos(targetPos);
+            result = ActionResult.success("Reached target position (teleported)");
             return;
         }
 
-        if (steve.getNavigation().isDone() && distSqr >= 4.0) {
-            boolean pathFound = steve.getNavigation().moveTo(targetPos.getX(), targetPos.getY(), targetPos.getZ(), 1.0);
-            if (!pathFound && distSqr < 100.0) {
-                ticksStuck += 10;
+        if (steve.getNavigation().isDone()) {
+            startMoving();
+        }
+    }
+
+    private void tickLongRange() {
+        if (!pathStarted) {
+            startMoving(); // Chunks finished loading
+            return;
+        }
+        BaritoneInterface pathfinder = steve.getPathfinder();
+        switch (pathfinder.getStatus()) {
+            case FOLLOWING -> {
+                releaseFirstLeg(); // The first leg is planned; later legs load around the Steve
             }
+            case ARRIVED -> result = ActionResult.success("Reached target position");
+            case FAILED -> result = ActionResult.failure("No path to " + targetPos.toShortString());
+            default -> { }
+        }
+    }
+
+    private void stopPathfinder() {
+        if (pathStarted) {
+            steve.getPathfinder().stop();
         }
     }
 
     @Override
     protected void onCancel() {
         steve.getNavigation().stop();
+        stopPathfinder();
     }
 
     @Override
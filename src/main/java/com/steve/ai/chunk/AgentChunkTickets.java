@@ -0,0 +1,104 @@
+package com.steve.ai.chunk;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the chunk a working Steve stands in loaded at the level its action needs, so unattended Steves
+ * do not freeze when players walk away. Each Steve owns at most one ticket; it follows the Steve from chunk
+ * to chunk and is dropped as soon as the Steve has nothing left to do. Work regions (build sites) are held
+ * separately through ChunkPrefetcher leases. Tickets whose Steve stopped reporting are swept every tick.
+ */
+public class AgentChunkTickets {
+    public static final TicketType<UUID> AGENT = TicketType.create(SteveMod.MODID + "_agent", Comparator.naturalOrder());
+
+    private static final int STALE_TICKS = 40; // Drop a ticket its Steve has not refreshed for this long
+
+    private static final Map<UUID, Holder> holders = new ConcurrentHashMap<>();
+
+    private static class Holder {
+        final ServerLevel level;
+        final ChunkPos chunk;
+        final ChunkTicketLevel ticketLevel;
+        long lastUpdate;
+
+        Holder(ServerLevel level, ChunkPos chunk, ChunkTicketLevel ticketLevel) {
+            this.level = level;
+            this.chunk = chunk;
+            this.ticketLevel = ticketLevel;
+        }
+    }
+
+    /**
+     * Called every tick by a Steve's action executor with the level its current work needs
+     */
+    public static void update(SteveEntity steve, ChunkTicketLevel ticketLevel) {
+        if (!(steve.level() instanceof ServerLevel level)) {
+            return;
+        }
+        UUID id = steve.getUUID();
+        if (ticketLevel == ChunkTicketLevel.NONE) {
+            release(id);
+            return;
+        }
+
+        ChunkPos chunk = steve.chunkPosition();
+        Holder holder = holders.get(id);
+        if (holder == null || holder.level != level || !holder.chunk.equals(chunk) || holder.ticketLevel != ticketLevel) {
+            // Add the new ticket before removing the old one so the area never drops out in between
+            Holder replacement = new Holder(level, chunk, ticketLevel);
+            level.getChunkSource().addRegionTicket(AGENT, chunk, ticketLevel.distance, id);
+            if (holder != null) {
+                remove(holder, id);
+            }
+            holders.put(id, replacement);
+            holder = replacement;
+        }
+        holder.lastUpdate = level.getGameTime();
+    }
+
+    public static void release(SteveEntity steve) {
+        release(steve.getUUID());
+    }
+
+    private static void release(UUID id) {
+        Holder holder = holders.remove(id);
+        if (holder != null) {
+            remove(holder, id);
+        }
+    }
+
+    /**
+     * Drop tickets of Steves in this level that were removed or stopped ticking without releasing them
+     */
+    public static void tick(ServerLevel level) {
+        long now = level.getGameTime();
+        Iterator<Map.Entry<UUID, Holder>> it = holders.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Holder> entry = it.next();
+            Holder holder = entry.getValue();
+            if (holder.level == level && now - holder.lastUpdate > STALE_TICKS) {
+                it.remove();
+                remove(holder, entry.getKey());
+                SteveMod.LOGGER.debug("Dropped stale chunk ticket of {} at {}", entry.getKey(), holder.chunk);
+            }
+        }
+    }
+
+    public static int getTicketCount() {
+        return holders.size();
+    }
+
+    private static void remove(Holder holder, UUID id) {
+        holder.level.getChunkSource().removeRegionTicket(AGENT, holder.chunk, holder.ticketLevel.distance, id);
+    }
+}
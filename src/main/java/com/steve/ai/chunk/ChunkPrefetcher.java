@@ -0,0 +1,175 @@
+package com.steve.ai.chunk;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.structure.BuildPlan;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gets the chunks a Steve is about to work in loaded before it needs them.
+ * A prefetch adds a region ticket per chunk, which makes the chunk system load (or generate) them on its
+ * worker threads over the following ticks instead of synchronously when the Steve first touches them.
+ * Actions poll Lease.isReady() and hold the lease while they work there; releasing it removes the tickets.
+ * Must be used from the server thread.
+ */
+public class ChunkPrefetcher {
+    // Keyed by lease so overlapping leases hold separate tickets and releasing one leaves the others in place
+    public static final TicketType<Long> PREFETCH = TicketType.create(SteveMod.MODID + "_prefetch", Comparator.naturalOrder());
+
+    private static final AtomicLong nextLeaseId = new AtomicLong();
+
+    private static final int MAX_CHUNKS = 256; // Larger regions are clamped around their center
+
+    /**
+     * Prefetch the chunks within radius chunks of a block position
+     */
+    public static Lease prefetch(ServerLevel level, BlockPos center, int radius) {
+        ChunkPos chunk = new ChunkPos(center);
+        return prefetchArea(level, chunk.x - radius, chunk.z - radius, chunk.x + radius, chunk.z + radius,
+            ChunkTicketLevel.LOADED);
+    }
+
+    /**
+     * Prefetch the chunks covering a block box plus a margin of chunks around it
+     */
+    public static Lease prefetch(ServerLevel level, BlockPos from, BlockPos to, int margin) {
+        return prefetch(level, from, to, margin, ChunkTicketLevel.LOADED);
+    }
+
+    /**
+     * Prefetch the chunks covering a block box and keep them at the given level while the lease is held
+     */
+    public static Lease prefetch(ServerLevel level, BlockPos from, BlockPos to, int margin, ChunkTicketLevel ticketLevel) {
+        return prefetchArea(level,
+            (Math.min(from.getX(), to.getX()) >> 4) - margin, (Math.min(from.getZ(), to.getZ()) >> 4) - margin,
+            (Math.max(from.getX(), to.getX()) >> 4) + margin, (Math.max(from.getZ(), to.getZ()) >> 4) + margin,
+            ticketLevel);
+    }
+
+    /**
+     * Prefetch exactly the chunks a plan places blocks in
+     */
+    public static Lease prefetch(ServerLevel level, BuildPlan plan) {
+        return prefetch(level, plan, ChunkTicketLevel.LOADED);
+    }
+
+    /**
+     * Prefetch exactly the chunks a plan places blocks in and keep them at the given level while the lease is held
+     */
+    public static Lease prefetch(ServerLevel level, BuildPlan plan, ChunkTicketLevel ticketLevel) {
+        Set<Long> chunks = new HashSet<>();
+        for (int i = 0; i < plan.size(); i++) {
+            long pos = plan.getPackedPos(i);
+            chunks.add(ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4));
+        }
+        long[] packed = new long[chunks.size()];
+        int k = 0;
+        for (long chunk : chunks) {
+            packed[k++] = chunk;
+        }
+        return new Lease(level, clamp(packed, plan.getOrigin()), ticketLevel);
+    }
+
+    private static Lease prefetchArea(ServerLevel level, int minX, int minZ, int maxX, int maxZ, ChunkTicketLevel ticketLevel) {
+        long[] chunks = new long[(maxX - minX + 1) * (maxZ - minZ + 1)];
+        int k = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                chunks[k++] = ChunkPos.asLong(x, z);
+            }
+        }
+        return new Lease(level, clamp(chunks, new BlockPos((minX + maxX) * 8, 0, (minZ + maxZ) * 8)), ticketLevel);
+    }
+
+    private static long[] clamp(long[] chunks, BlockPos center) {
+        if (chunks.length <= MAX_CHUNKS) {
+            return chunks;
+        }
+        SteveMod.LOGGER.warn("Prefetch of {} chunks clamped to the {} nearest {}", chunks.length, MAX_CHUNKS, center);
+        int centerX = center.getX() >> 4;
+        int centerZ = center.getZ() >> 4;
+        return Arrays.stream(chunks).boxed()
+            .sorted(Comparator.comparingInt(chunk -> Math.max(Math.abs(ChunkPos.getX(chunk) - centerX),
+                Math.abs(ChunkPos.getZ(chunk) - centerZ))))
+            .limit(MAX_CHUNKS)
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+
+    /**
+     * Tickets held on a set of chunks until released
+     */
+    public static class Lease {
+        private final ServerLevel level;
+        private final long[] chunks;
+        private final int distance;
+        private final long id;
+        private final long startTick;
+        private int loaded; // Chunks known to be loaded; checked in order, so only the rest is polled
+        private boolean released;
+
+        Lease(ServerLevel level, long[] chunks, ChunkTicketLevel ticketLevel) {
+            this.level = level;
+            this.chunks = chunks;
+            this.distance = Math.max(0, ticketLevel.distance);
+            this.id = nextLeaseId.getAndIncrement();
+            this.startTick = level.getGameTime();
+            for (long chunk : chunks) {
+                ChunkPos pos = new ChunkPos(chunk);
+                level.getChunkSource().addRegionTicket(PREFETCH, pos, distance, id);
+            }
+        }
+
+        /**
+         * Whether every chunk has finished loading. Cheap to call every tick.
+         */
+        public boolean isReady() {
+            while (loaded < chunks.length) {
+                if (level.getChunkSource().getChunkNow(ChunkPos.getX(chunks[loaded]), ChunkPos.getZ(chunks[loaded])) == null) {
+                    return false;
+                }
+                loaded++;
+            }
+            return true;
+        }
+
+        public int getChunkCount() {
+            return chunks.length;
+        }
+
+        public int getLoadedCount() {
+            isReady();
+            return loaded;
+        }
+
+        /**
+         * Ticks since the prefetch was issued, for callers that give up waiting at some point
+         */
+        public long getAge() {
+            return level.getGameTime() - startTick;
+        }
+
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            for (long chunk : chunks) {
+                ChunkPos pos = new ChunkPos(chunk);
+                level.getChunkSource().removeRegionTicket(PREFETCH, pos, distance, id);
+            }
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+    }
+}
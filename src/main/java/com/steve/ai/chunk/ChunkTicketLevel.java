@@ -0,0 +1,19 @@
+package com.steve.ai.chunk;
+
+/**
+ * How much of the game keeps running in a chunk held by a Steve ticket.
+ * Tickets are added as region tickets, so the level spreads outwards: an ENTITY_TICKING chunk has a
+ * ring of block-ticking chunks and a further ring of loaded chunks around it.
+ */
+public enum ChunkTicketLevel {
+    NONE(-1),          // No ticket
+    LOADED(0),         // Accessible, but nothing ticks
+    BLOCK_TICKING(1),  // Scheduled and random block ticks, fluids, falling blocks; for work regions, a Steve here freezes
+    ENTITY_TICKING(2); // Also ticks entities, which a Steve needs to keep acting
+
+    public final int distance; // Region ticket distance; the resulting ticket level is 33 - distance
+
+    ChunkTicketLevel(int distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,197 @@
+package com.steve.ai.combat;
+
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.monster.Creeper;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Splits the hostiles around fighting Steves between them, so they do not all chase the same zombie.
+ * Every WINDOW ticks (sooner when a fighter joins or its target dies) each fighter is given one of the
+ * CANDIDATES nearest hostiles it may attack, greedily by cost: the distance to it, made cheaper for
+ * threatening targets (going for a player or Steve, close to a player, creepers) and nearly dead ones,
+ * dearer for each Steve already on it beyond what its health calls for, and cheaper for the fighter's
+ * current target so assignments only change when another target is clearly better. Server thread only.
+ */
+public class CombatCoordinator {
+    private static final int WINDOW = 20;
+    private static final int CANDIDATES = 8;
+    private static final double SEARCH_RADIUS = 32.0;
+    private static final long FIGHTER_TIMEOUT = 40; // Ticks without asking before a fighter is dropped
+    private static final double THREAT_WEIGHT = 8.0; // Blocks of detour a unit of threat is worth
+    private static final double HEALTH_WEIGHT = 4.0; // Blocks of detour a full health bar costs
+    private static final double CROWD_PENALTY = 10.0; // Per Steve already on a target beyond its share
+    private static final double STICKY_BONUS = 6.0; // Another target must beat the current one by this much
+    private static final float HEALTH_PER_FIGHTER = 20.0f; // A zombie's worth of health per assigned Steve
+
+    private static final Map<ResourceKey<Level>, CombatCoordinator> levels = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Fighter> fighters = new LinkedHashMap<>();
+    private long lastAssignment = -WINDOW;
+    private boolean dirty;
+
+    private static class Fighter {
+        final SteveEntity steve;
+        Predicate<LivingEntity> filter;
+        LivingEntity target;
+        long lastSeen;
+
+        Fighter(SteveEntity steve) {
+            this.steve = steve;
+        }
+    }
+
+    public static CombatCoordinator get(ServerLevel level) {
+        return levels.computeIfAbsent(level.dimension(), key -> new CombatCoordinator());
+    }
+
+    /**
+     * Target assigned to a fighting Steve, or null when none is assigned yet; calling this every tick
+     * keeps the Steve in the fight
+     * @param filter which entities this Steve is willing to attack
+     */
+    public LivingEntity requestTarget(SteveEntity steve, Predicate<LivingEntity> filter, long gameTime) {
+        Fighter fighter = fighters.computeIfAbsent(steve.getUUID(), id -> {
+            dirty = true;
+            return new Fighter(steve);
+        });
+        fighter.filter = filter;
+        fighter.lastSeen = gameTime;
+        if (fighter.target != null && (!fighter.target.isAlive() || fighter.target.isRemoved())) {
+            fighter.target = null;
+            dirty = true;
+        }
+        return fighter.target;
+    }
+
+    /**
+     * Drop a level's fighters when it unloads
+     */
+    public static void unload(ServerLevel level) {
+        levels.remove(level.dimension());
+    }
+
+    /**
+     * A Steve stopped fighting; its target is free for the others
+     */
+    public void release(SteveEntity steve) {
+        if (fighters.remove(steve.getUUID()) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Called at the end of every server tick for each level
+     */
+    public static void tick(ServerLevel level) {
+        CombatCoordinator coordinator = levels.get(level.dimension());
+        if (coordinator == null || coordinator.fighters.isEmpty()) {
+            return;
+        }
+        long now = level.getGameTime();
+        Iterator<Fighter> it = coordinator.fighters.values().iterator();
+        while (it.hasNext()) {
+            Fighter fighter = it.next();
+            if (now - fighter.lastSeen > FIGHTER_TIMEOUT || fighter.steve.isRemoved()) {
+                it.remove();
+                coordinator.dirty = true;
+            }
+        }
+        if (coordinator.dirty || now - coordinator.lastAssignment >= WINDOW) {
+            coordinator.assign(level);
+            coordinator.lastAssignment = now;
+            coordinator.dirty = false;
+        }
+    }
+
+    private void assign(ServerLevel level) {
+        HostileTracker tracker = HostileTracker.get(level);
+        Map<Fighter, List<LivingEntity>> candidates = new HashMap<>();
+        for (Fighter fighter : fighters.values()) {
+            candidates.put(fighter, tracker.nearest(level.getGameTime(), fighter.steve.position(), CANDIDATES,
+                SEARCH_RADIUS, fighter.filter));
+        }
+        Map<LivingEntity, Double> threats = new IdentityHashMap<>();
+        Map<LivingEntity, Integer> load = new IdentityHashMap<>();
+        List<Fighter> unassigned = new ArrayList<>(fighters.values());
+
+        // Repeatedly settle the cheapest fighter-target pair given who is already on what
+        while (!unassigned.isEmpty()) {
+            Fighter bestFighter = null;
+            LivingEntity bestTarget = null;
+            double bestCost = Double.MAX_VALUE;
+            for (Fighter fighter : unassigned) {
+                for (LivingEntity target : candidates.get(fighter)) {
+                    double threat = threats.computeIfAbsent(target, entity -> threat(level, entity));
+                    double cost = cost(fighter, target, threat, load.getOrDefault(target, 0));
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestFighter = fighter;
+                        bestTarget = target;
+                    }
+                }
+            }
+            if (bestFighter == null) {
+                // Nothing within reach of the rest; they keep what they had, if it is still alive
+                for (Fighter fighter : unassigned) {
+                    if (fighter.target != null && (!fighter.target.isAlive() || fighter.target.isRemoved())) {
+                        fighter.target = null;
+                    }
+                }
+                return;
+            }
+            bestFighter.target = bestTarget;
+            load.merge(bestTarget, 1, Integer::sum);
+            unassigned.remove(bestFighter);
+        }
+    }
+
+    private static double cost(Fighter fighter, LivingEntity target, double threat, int assigned) {
+        double cost = fighter.steve.distanceTo(target);
+        cost -= THREAT_WEIGHT * threat;
+        cost += HEALTH_WEIGHT * target.getHealth() / Math.max(1.0f, target.getMaxHealth());
+        int share = Math.max(1, (int) Math.ceil(target.getMaxHealth() / HEALTH_PER_FIGHTER));
+        cost += CROWD_PENALTY * Math.max(0, assigned - share + 1);
+        if (target == fighter.target) {
+            cost -= STICKY_BONUS;
+        }
+        return cost;
+    }
+
+    /**
+     * How urgently a hostile needs dealing with, roughly 0 to 3
+     */
+    private static double threat(ServerLevel level, LivingEntity entity) {
+        double threat = 0.0;
+        if (entity instanceof Mob mob && (mob.getTarget() instanceof Player || mob.getTarget() instanceof SteveEntity)) {
+            threat += 1.0;
+        }
+        Player player = level.getNearestPlayer(entity, 16.0);
+        if (player != null) {
+            threat += 1.0 - entity.distanceTo(player) / 16.0;
+        }
+        if (entity instanceof Creeper) {
+            threat += 1.0;
+        }
+        return threat;
+    }
+
+    public int getFighterCount() {
+        return fighters.size();
+    }
+}
@@ -0,0 +1,122 @@
+package com.steve.ai.combat;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.monster.Enemy;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Every hostile mob in a level, for all fighting Steves to query instead of each scanning the world.
+ * Membership follows entity join and leave events; positions are bucketed by chunk section the first
+ * time anyone asks during a tick, so the index costs nothing while nobody fights and is built at most
+ * once per tick however many Steves do. Server thread only.
+ */
+public class HostileTracker {
+    private static final Map<ResourceKey<Level>, HostileTracker> levels = new ConcurrentHashMap<>();
+
+    private final Set<LivingEntity> hostiles = new HashSet<>();
+    private final Map<Long, List<LivingEntity>> bySection = new HashMap<>();
+    private long indexedAt = -1;
+
+    public static HostileTracker get(ServerLevel level) {
+        return levels.computeIfAbsent(level.dimension(), key -> new HostileTracker());
+    }
+
+    /**
+     * Drop a level's tracker when it unloads, along with the entities it still holds
+     */
+    public static void unload(ServerLevel level) {
+        levels.remove(level.dimension());
+    }
+
+    public static boolean isHostile(Entity entity) {
+        return entity instanceof Enemy && entity instanceof LivingEntity;
+    }
+
+    /**
+     * An entity joined the level; hostile ones are tracked from now on
+     */
+    public static void onJoin(ServerLevel level, Entity entity) {
+        if (isHostile(entity)) {
+            HostileTracker tracker = get(level);
+            tracker.hostiles.add((LivingEntity) entity);
+            tracker.indexedAt = -1;
+        }
+    }
+
+    public static void onLeave(ServerLevel level, Entity entity) {
+        HostileTracker tracker = levels.get(level.dimension());
+        if (tracker != null && tracker.hostiles.remove(entity)) {
+            tracker.indexedAt = -1;
+        }
+    }
+
+    private void ensureIndexed(long gameTime) {
+        if (indexedAt == gameTime) {
+            return;
+        }
+        indexedAt = gameTime;
+        bySection.clear();
+        for (LivingEntity entity : hostiles) {
+            if (entity.isAlive()) {
+                bySection.computeIfAbsent(SectionPos.asLong(entity.blockPosition()), key -> new ArrayList<>()).add(entity);
+            }
+        }
+    }
+
+    /**
+     * Living hostiles within radius of center that pass filter, in no particular order
+     * @param gameTime the level's current game time; the index is rebuilt once per tick
+     */
+    public List<LivingEntity> withinRadius(long gameTime, Vec3 center, double radius, Predicate<LivingEntity> filter) {
+        ensureIndexed(gameTime);
+        List<LivingEntity> found = new ArrayList<>();
+        double radiusSqr = radius * radius;
+        int minX = SectionPos.posToSectionCoord(center.x - radius), maxX = SectionPos.posToSectionCoord(center.x + radius);
+        int minY = SectionPos.posToSectionCoord(center.y - radius), maxY = SectionPos.posToSectionCoord(center.y + radius);
+        int minZ = SectionPos.posToSectionCoord(center.z - radius), maxZ = SectionPos.posToSectionCoord(center.z + radius);
+        for (int sx = minX; sx <= maxX; sx++) {
+            for (int sz = minZ; sz <= maxZ; sz++) {
+                for (int sy = minY; sy <= maxY; sy++) {
+                    List<LivingEntity> section = bySection.get(SectionPos.asLong(sx, sy, sz));
+                    if (section == null) {
+                        continue;
+                    }
+                    for (LivingEntity entity : section) {
+                        if (entity.isAlive() && entity.distanceToSqr(center) <= radiusSqr && filter.test(entity)) {
+                            found.add(entity);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Up to k living hostiles within radius of center that pass filter, nearest first
+     */
+    public List<LivingEntity> nearest(long gameTime, Vec3 center, int k, double radius, Predicate<LivingEntity> filter) {
+        List<LivingEntity> found = withinRadius(gameTime, center, radius, filter);
+        found.sort(Comparator.comparingDouble(entity -> entity.distanceToSqr(center)));
+        return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+    }
+
+    public int size() {
+        return hostiles.size();
+    }
+}
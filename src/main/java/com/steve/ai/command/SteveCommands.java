@@ -4,12 +4,24 @@ import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.steve.ai.SteveMod;
+import com.steve.ai.action.CollaborativeBuildManager;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.entity.SteveManager;
+import com.steve.ai.memory.StructureRegistry;
+import com.steve.ai.navigation.FlowFields;
+import com.steve.ai.navigation.FollowController;
+import com.steve.ai.navigation.MovementMonitor;
+import com.steve.ai.navigation.PathCache;
+import com.steve.ai.navigation.PathTypeCache;
+import com.steve.ai.navigation.SectionGraph;
+import com.steve.ai.navigation.StuckIncidents;
+import com.steve.ai.structure.BlockPlacer;
+import com.steve.ai.structure.BuildJournal;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.phys.Vec3;
 
 public class SteveCommands {
@@ -33,7 +45,13 @@ public class SteveCommands {
                                         .executes(SteveCommands::tellSteve))))
                 .then(Commands.literal("glow")
                         .then(Commands.argument("name", StringArgumentType.string())
-                                .executes(SteveCommands::toggleGlow))));
+                                .executes(SteveCommands::toggleGlow)))
+                .then(Commands.literal("undo")
+                        .executes(SteveCommands::undoBuild))
+                .then(Commands.literal("stuck")
+                        .executes(SteveCommands::stuckReport))
+                .then(Commands.literal("nav")
+                        .executes(SteveCommands::navReport)));
     }
 
     private static int spawnSteve(CommandContext<CommandSourceStack> context) {
@@ -157,4 +175,80 @@ public class SteveCommands {
             return 0;
         }
     }
+
+    private static int undoBuild(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        ServerLevel serverLevel = source.getLevel();
+
+        BuildJournal journal = BuildJournal.popLatest(serverLevel);
+        if (journal == null) {
+            source.sendFailure(Component.literal("Nothing to undo"));
+            return 0;
+        }
+
+        // Stop the build first so nobody places blocks on top of the restore
+        CollaborativeBuildManager.CollaborativeBuild build = CollaborativeBuildManager.findBuildByJournal(journal);
+        if (build != null) {
+            CollaborativeBuildManager.cancelBuild(build.structureId);
+        }
+        if (journal.getStructureOrigin() != null) {
+            StructureRegistry.unregister(serverLevel, journal.getStructureOrigin(), journal.getStructureType());
+        }
+
+        BlockPlacer.submit(serverLevel, "undo " + journal.name, journal.undoCursor(), BlockPlacer.RESTORE_FLAGS,
+                journal::discard);
+        source.sendSuccess(() -> Component.literal("Undoing " + journal), true);
+        return 1;
+    }
+
+    private static int stuckReport(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        StuckIncidents incidents = StuckIncidents.get(source.getLevel());
+
+        if (incidents.getStatsByAction().isEmpty()) {
+            source.sendSuccess(() -> Component.literal("No Steve has been stuck in this dimension"), false);
+            return 1;
+        }
+        incidents.getStatsByAction().forEach((action, stats) -> source.sendSuccess(() -> Component.literal(
+                action + ": " + stats.getIncidents() + " incidents, " + stats.getLostTicks() / 20 + "s lost"), false));
+        for (long chunk : incidents.getHotspots(3)) {
+            ChunkPos pos = new ChunkPos(chunk);
+            int count = incidents.getIncidentsInChunk(chunk);
+            source.sendSuccess(() -> Component.literal("Hotspot around " + pos.getMiddleBlockX() + ", "
+                    + pos.getMiddleBlockZ() + ": " + count + " incidents"), false);
+        }
+        return 1;
+    }
+
+    /**
+     * How the navigation caches of this dimension are doing, and how hard each Steve is working to get around
+     */
+    private static int navReport(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        ServerLevel level = source.getLevel();
+
+        PathCache paths = PathCache.get(level);
+        source.sendSuccess(() -> Component.literal(String.format("Path cache: %d paths, %d hits, %d misses (%.0f%% hit rate)",
+                paths.size(), paths.getHits(), paths.getMisses(), paths.getHitRate() * 100.0)), false);
+        PathTypeCache types = PathTypeCache.get(level);
+        source.sendSuccess(() -> Component.literal("Path types: " + types.getSectionCount() + " sections, "
+                + types.getHits() + " hits, " + types.getMisses() + " misses"), false);
+        SectionGraph graph = SectionGraph.get(level);
+        source.sendSuccess(() -> Component.literal("Section graph: " + graph.getSummaryCount() + " sections, "
+                + graph.getPendingCount() + " pending"), false);
+        int fields = FlowFields.get(level).getFieldCount();
+        source.sendSuccess(() -> Component.literal("Flow fields: " + fields), false);
+
+        for (SteveEntity steve : SteveMod.getSteveManager().getAllSteves()) {
+            if (steve.level() != level) {
+                continue;
+            }
+            FollowController follow = steve.getFollowController();
+            MovementMonitor monitor = steve.getMovementMonitor();
+            source.sendSuccess(() -> Component.literal(steve.getSteveName() + ": " + follow.getRepathCount()
+                    + " follow repaths, " + follow.getSteerTicks() / 20 + "s steered, " + monitor.getIncidentCount()
+                    + " times stuck, " + monitor.getLostTicks() / 20 + "s lost"), false);
+        }
+        return 1;
+    }
 }
@@ -1,7 +1,12 @@
 package com.steve.ai.entity;
 
 import com.steve.ai.action.ActionExecutor;
+import com.steve.ai.chunk.AgentChunkTickets;
+import com.steve.ai.integration.BaritoneInterface;
 import com.steve.ai.memory.SteveMemory;
+import com.steve.ai.navigation.FollowController;
+import com.steve.ai.navigation.MovementMonitor;
+import com.steve.ai.navigation.SteveNavigation;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.syncher.EntityDataAccessor;
@@ -14,6 +19,7 @@ import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.goal.FloatGoal;
 import net.minecraft.world.entity.ai.goal.LookAtPlayerGoal;
 import net.minecraft.world.entity.ai.goal.RandomLookAroundGoal;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.ServerLevelAccessor;
@@ -26,8 +32,12 @@ public class SteveEntity extends PathfinderMob {
     private String steveName;
     private SteveMemory memory;
     private ActionExecutor actionExecutor;
+    private BaritoneInterface pathfinder;
+    private FollowController followController;
+    private MovementMonitor movementMonitor;
     private int tickCounter = 0;
     private boolean isFlying = false;
+    private static final double FLY_VERTICAL_SPEED = 0.4; // Blocks per tick a flying Steve climbs or sinks at most
     private boolean isInvulnerable = false;
 
     public SteveEntity(EntityType<? extends PathfinderMob> entityType, Level level) {
@@ -35,6 +45,9 @@ public class SteveEntity extends PathfinderMob {
         this.steveName = "Steve";
         this.memory = new SteveMemory(this);
         this.actionExecutor = new ActionExecutor(this);
+        this.pathfinder = new BaritoneInterface(this);
+        this.followController = new FollowController(this);
+        this.movementMonitor = new MovementMonitor(this);
         this.setCustomNameVisible(true);
 
         this.isInvulnerable = true;
@@ -53,6 +66,11 @@ public class SteveEntity extends PathfinderMob {
                 .add(Attributes.FOLLOW_RANGE, 48.0D);
     }
 
+    @Override
+    protected PathNavigation createNavigation(Level level) {
+        return new SteveNavigation(this, level);
+    }
+
     @Override
     protected void registerGoals() {
         this.goalSelector.addGoal(0, new FloatGoal(this));
@@ -72,7 +90,16 @@ public class SteveEntity extends PathfinderMob {
 
         if (!this.level().isClientSide) {
             actionExecutor.tick();
+            pathfinder.tick();
+        }
+    }
+
+    @Override
+    public void remove(RemovalReason reason) {
+        if (!this.level().isClientSide) {
+            AgentChunkTickets.release(this);
         }
+        super.remove(reason);
     }
 
     public void setSteveName(String name) {
@@ -93,6 +120,18 @@ public class SteveEntity extends PathfinderMob {
         return this.actionExecutor;
     }
 
+    public BaritoneInterface getPathfinder() {
+        return this.pathfinder;
+    }
+
+    public FollowController getFollowController() {
+        return this.followController;
+    }
+
+    public MovementMonitor getMovementMonitor() {
+        return this.movementMonitor;
+    }
+
     @Override
     public void addAdditionalSaveData(CompoundTag tag) {
         super.addAdditionalSaveData(tag);
@@ -139,6 +178,10 @@ public class SteveEntity extends PathfinderMob {
     }
 
     public void setFlying(boolean flying) {
+        if (flying && !this.isFlying) {
+            // Hover where we are until something gives the move control a new height
+            this.getMoveControl().setWantedPosition(this.getX(), this.getY(), this.getZ(), 0.0);
+        }
         this.isFlying = flying;
         this.setNoGravity(flying);
         this.setInvulnerableBuilding(flying);
@@ -170,13 +213,13 @@ public class SteveEntity extends PathfinderMob {
     @Override
     public void travel(net.minecraft.world.phys.Vec3 travelVector) {
         if (this.isFlying && !this.level().isClientSide) {
-            double motionY = this.getDeltaMovement().y;
-
-            if (this.getNavigation().isInProgress()) {
-                super.travel(travelVector);
-            } else {
-                super.travel(travelVector);
-            }
+            // The ground move control only steers horizontally (and jumps, which would drift up forever
+            // without gravity), so climb or sink towards the height it is heading for ourselves
+            double dy = this.getMoveControl().getWantedY() - this.getY();
+            net.minecraft.world.phys.Vec3 motion = this.getDeltaMovement();
+            this.setDeltaMovement(motion.x, net.minecraft.util.Mth.clamp(dy * 0.5, -FLY_VERTICAL_SPEED, FLY_VERTICAL_SPEED),
+                motion.z);
+            super.travel(travelVector);
         } else {
             // Swim logic: If in water and not flying, ensure we can move
             if (this.isInWater() && !this.isFlying) {
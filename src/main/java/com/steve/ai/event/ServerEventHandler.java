@@ -1,16 +1,41 @@
 package com.steve.ai.event;
 
 import com.steve.ai.SteveMod;
+import com.steve.ai.action.CollaborativeBuildData;
+import com.steve.ai.action.CollaborativeBuildManager;
+import com.steve.ai.action.Task;
+import com.steve.ai.chunk.AgentChunkTickets;
+import com.steve.ai.combat.CombatCoordinator;
+import com.steve.ai.combat.HostileTracker;
 import com.steve.ai.entity.SteveEntity;
 import com.steve.ai.entity.SteveManager;
-import com.steve.ai.memory.StructureRegistry;
+import com.steve.ai.navigation.FlowFields;
+import com.steve.ai.navigation.PathCache;
+import com.steve.ai.navigation.PathTypeCache;
+import com.steve.ai.navigation.SectionGraph;
+import com.steve.ai.navigation.StuckIncidents;
+import com.steve.ai.structure.BlockPlacer;
+import com.steve.ai.structure.BuildEffects;
+import com.steve.ai.structure.BuildJournal;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Mod.EventBusSubscriber(modid = SteveMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
 public class ServerEventHandler {
     private static boolean stevesSpawned = false;
@@ -22,8 +47,8 @@ public class ServerEventHandler {
             SteveManager manager = SteveMod.getSteveManager();
             if (!stevesSpawned) {                manager.clearAllSteves();
                 
-                // Clear structure registry for fresh spatial awareness
-                StructureRegistry.clear();
+                // In-memory builds belonged to the discarded Steves; unfinished ones stay in saved data
+                CollaborativeBuildManager.clearActiveBuilds();
                 
                 // Then, remove ALL SteveEntity instances from the world (including ones loaded from NBT)
                 int removedCount = 0;
@@ -51,13 +76,104 @@ public class ServerEventHandler {
                     if (steve != null) {                    }
                 }
                 
+                resumeStoredBuilds(level, manager);
+                
                 stevesSpawned = true;            }
         }
     }
 
+    /**
+     * Hand unfinished builds from the previous session back to the Steves that were working on them
+     */
+    private static void resumeStoredBuilds(ServerLevel level, SteveManager manager) {
+        for (CollaborativeBuildData.StoredBuild stored : CollaborativeBuildData.get(level).getStoredBuilds()) {
+            List<SteveEntity> builders = new ArrayList<>();
+            for (String name : stored.participants) {
+                SteveEntity steve = manager.getSteve(name);
+                if (steve != null) {
+                    builders.add(steve);
+                }
+            }
+            if (builders.isEmpty() && !manager.getAllSteves().isEmpty()) {
+                builders.add(manager.getAllSteves().iterator().next());
+            }
+            
+            for (SteveEntity steve : builders) {
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("structure", stored.structureType);
+                parameters.put("resume", stored.structureId);
+                steve.getActionExecutor().queueTask(new Task("build", parameters));
+            }
+            SteveMod.LOGGER.info("Resuming build '{}' at {} with {} Steves", 
+                stored.structureId, stored.startPos, builders.size());
+        }
+    }
+
     @SubscribeEvent
     public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
         stevesSpawned = false;
     }
-}
 
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            BlockPlacer.tick(level);
+            BuildEffects.flush(level);
+            AgentChunkTickets.tick(level);
+            SectionGraph.tick(level);
+            FlowFields.tick(level);
+            CombatCoordinator.tick(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            HostileTracker.onJoin(level, event.getEntity());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            HostileTracker.onLeave(level, event.getEntity());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            SectionGraph.invalidate(level, event.getPos());
+            PathCache.invalidate(level, event.getPos());
+            FlowFields.invalidate(level, event.getPos());
+            PathTypeCache.invalidate(level, event.getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            // Per-level state holds entities of the unloading level and its game time, neither carries over
+            HostileTracker.unload(level);
+            CombatCoordinator.unload(level);
+            SectionGraph.unload(level);
+            PathCache.unload(level);
+            FlowFields.unload(level);
+            PathTypeCache.unload(level);
+            StuckIncidents.unload(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        // Park unfinished builds in this world's saved data while it is still to be saved
+        CollaborativeBuildManager.clearActiveBuilds();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        // Undo data and queued placements belong to the world that just closed
+        BlockPlacer.clearAll();
+        BuildJournal.clearAll();
+    }
+}
@@ -1,44 +1,283 @@
 package com.steve.ai.integration;
 
+import com.steve.ai.SteveMod;
 import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.navigation.AStarPathfinder;
+import com.steve.ai.navigation.AbstractPathfinder;
+import com.steve.ai.navigation.NavPath;
+import com.steve.ai.navigation.NavigationSnapshot;
+import com.steve.ai.navigation.PathCache;
+import com.steve.ai.navigation.PathFollower;
+import com.steve.ai.navigation.SectionGraph;
+import com.steve.ai.util.SteveExecutors;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.level.block.Block;
 
-// TODO: Will be implemented later - Baritone pathfinding integration
-// Currently using vanilla Minecraft pathfinding instead
-// Future: Will integrate Baritone API for advanced pathfinding and automation
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Interface for Baritone integration.
+ * Long-range navigation for a Steve, in place of the Baritone integration this class used to stub.
+ * Targets within LOCAL_RANGE are searched for directly: the chunks along the way are copied on the server
+ * thread and an A* search runs over the copy on SteveExecutors.pathfinding(); tick() picks the path up
+ * when it is done and walks it with a PathFollower. Further targets first get a coarse route over the
+ * section portal graph (AbstractPathfinder), and only the next LEG_DISTANCE blocks of it are refined into
+ * a walkable path at a time. Local searches go through the level's PathCache first, and their results
+ * are shared through it with the other Steves. Stuck or blocked walks are replanned from the current position up to
+ * MAX_REPLANS times.
  *
- * NOTE: Baritone integration is currently stubbed out.
- * To fully integrate Baritone:
- * 1. Add Baritone API jar to libs/ folder
- * 2. Uncomment dependency in build.gradle
- * 3. Implement methods below using Baritone API
- * 4. Create/get Baritone instance for each Steve entity
- * 
- * Baritone provides:
- * - Advanced pathfinding (better than vanilla)
- * - Automated mining with tool selection
- * - Block placement with proper orientation
- * - Crafting automation
- * - Building schematics
+ * Mining and placing through this interface are not supported natively yet.
  */
 public class BaritoneInterface {
+    public enum Status {
+        IDLE,
+        PLANNING,
+        FOLLOWING,
+        ARRIVED,
+        FAILED
+    }
+
+    private static final int LOCAL_RANGE = 64; // Closer targets are searched for directly, without a coarse route
+    private static final int LEG_DISTANCE = 48; // How far along the coarse route each local search reaches
+    private static final int CORRIDOR_CHUNKS = 3; // Chunks copied on each side of the straight line
+    private static final int VERTICAL_MARGIN = 24;
+    private static final int MAX_REPLANS = 12;
+    private static final int FOLLOW_REPATH_TICKS = 20;
+
     private final SteveEntity steve;
-    // private IBaritone baritone; // Uncomment when Baritone is added
+    private Status status = Status.IDLE;
+    private BlockPos target;
+    private boolean mayEditTerrain; // Whether searches may dig through and pillar over blocks
+    private CompletableFuture<AbstractPathfinder.Route> pendingRoute;
+    private CompletableFuture<NavPath> pendingPath;
+    private boolean pendingFromCache;
+    private AbstractPathfinder.Route route;
+    private int routeIndex;
+    private PathFollower follower;
+    private int replans;
+    private Entity followTarget;
+    private double followDistance;
+    private int followTicks;
 
     public BaritoneInterface(SteveEntity steve) {
         this.steve = steve;
-        // baritone = BaritoneAPI.getProvider().createBaritone(steve);
     }
 
     /**
-     * Pathfind to a specific position
+     * Start planning a path to a position without breaking or placing blocks; the Steve starts walking
+     * once the search finishes
      */
     public boolean pathfindTo(BlockPos target) {
-        return false;
+        return pathfindTo(target, false);
+    }
+
+    /**
+     * Start planning a path to a position
+     * @param mayEditTerrain whether the path may dig through soft blocks and pillar up
+     */
+    public boolean pathfindTo(BlockPos target, boolean mayEditTerrain) {
+        this.target = target.immutable();
+        this.mayEditTerrain = mayEditTerrain;
+        this.route = null;
+        this.replans = 0;
+        this.followTarget = null;
+        return plan();
+    }
+
+    private boolean plan() {
+        if (!(steve.level() instanceof ServerLevel level)) {
+            return false;
+        }
+        cancelPending();
+        follower = null;
+        status = Status.PLANNING;
+        steve.getNavigation().stop();
+
+        BlockPos start = steve.blockPosition();
+        BlockPos legGoal = target;
+        if (horizontalDistanceSqr(start, target) > LOCAL_RANGE * LOCAL_RANGE) {
+            if (route == null) {
+                // Coarse route first; the leg is planned when it arrives
+                SectionGraph graph = SectionGraph.get(level);
+                BlockPos goal = target;
+                pendingRoute = CompletableFuture.supplyAsync(() -> new AbstractPathfinder(graph).find(start, goal),
+                    SteveExecutors.pathfinding());
+                return true;
+            }
+            legGoal = nextLegGoal(start);
+        }
+
+        NavPath cached = mayEditTerrain ? null : PathCache.get(level).lookup(start, legGoal, level.getGameTime());
+        if (cached != null) {
+            SteveMod.LOGGER.debug("{} reusing a cached path to {}", steve.getSteveName(), legGoal);
+            pendingPath = CompletableFuture.completedFuture(cached);
+            pendingFromCache = true;
+            return true;
+        }
+
+        NavigationSnapshot snapshot = NavigationSnapshot.captureCorridor(level, start, legGoal, CORRIDOR_CHUNKS, VERTICAL_MARGIN);
+        BlockPos goal = legGoal;
+        pendingFromCache = false;
+        AStarPathfinder.Options options = new AStarPathfinder.Options();
+        options.allowDigging = mayEditTerrain;
+        options.allowPillaring = mayEditTerrain;
+        pendingPath = CompletableFuture.supplyAsync(() -> new AStarPathfinder(snapshot, options).find(start, goal),
+            SteveExecutors.pathfinding());
+        return true;
+    }
+
+    /**
+     * Furthest route waypoint within LEG_DISTANCE, so only the next few sections are refined at a time
+     */
+    private BlockPos nextLegGoal(BlockPos start) {
+        List<BlockPos> waypoints = route.waypoints;
+        int next = routeIndex;
+        while (next + 1 < waypoints.size() && horizontalDistanceSqr(start, waypoints.get(next + 1)) <= LEG_DISTANCE * LEG_DISTANCE) {
+            next++;
+        }
+        if (next + 1 < waypoints.size() && horizontalDistanceSqr(start, waypoints.get(next)) <= 4) {
+            next++; // Already standing on it
+        }
+        routeIndex = next;
+        return waypoints.get(next);
+    }
+
+    private static double horizontalDistanceSqr(BlockPos a, BlockPos b) {
+        double dx = a.getX() - b.getX(), dz = a.getZ() - b.getZ();
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Called every server tick by the Steve
+     */
+    public void tick() {
+        if (followTarget != null) {
+            tickFollow();
+        }
+        switch (status) {
+            case PLANNING -> pollSearch();
+            case FOLLOWING -> tickFollower();
+            default -> { }
+        }
+    }
+
+    private void pollSearch() {
+        if (pendingRoute != null) {
+            pollRoute();
+            return;
+        }
+        if (!pendingPath.isDone()) {
+            return;
+        }
+        NavPath path;
+        try {
+            path = pendingPath.join();
+        } catch (Exception e) {
+            SteveMod.LOGGER.error("Path search for {} failed", steve.getSteveName(), e);
+            status = Status.FAILED;
+            return;
+        } finally {
+            pendingPath = null;
+        }
+
+        SteveMod.LOGGER.debug("{} planned {} after {} nodes", steve.getSteveName(), path, path.getExpandedNodes());
+        // Paths that dig or pillar are only for Steves allowed to do so, so they are not shared
+        if (!pendingFromCache && !mayEditTerrain && steve.level() instanceof ServerLevel level) {
+            PathCache.get(level).store(path, level.getGameTime());
+        }
+        if (path.size() <= 1) {
+            if (path.isPartial()) {
+                SteveMod.LOGGER.info("{} found no way towards {}", steve.getSteveName(), target);
+                status = Status.FAILED;
+            } else {
+                status = Status.ARRIVED;
+            }
+            return;
+        }
+        follower = new PathFollower(steve, path);
+        status = Status.FOLLOWING;
+    }
+
+    private void pollRoute() {
+        if (!pendingRoute.isDone()) {
+            return;
+        }
+        try {
+            route = pendingRoute.join();
+        } catch (Exception e) {
+            SteveMod.LOGGER.error("Route search for {} failed", steve.getSteveName(), e);
+            status = Status.FAILED;
+            return;
+        } finally {
+            pendingRoute = null;
+        }
+        routeIndex = 0;
+        SteveMod.LOGGER.debug("{} routed to {} through {} waypoints ({} nodes{})", steve.getSteveName(), target,
+            route.waypoints.size(), route.expandedNodes, route.complete ? "" : ", partial");
+        if (route.waypoints.isEmpty()) {
+            SteveMod.LOGGER.info("{} found no route towards {}", steve.getSteveName(), target);
+            status = Status.FAILED;
+            return;
+        }
+        plan();
+    }
+
+    private void tickFollower() {
+        PathFollower.Status result = follower.tick();
+        switch (result) {
+            case FINISHED -> {
+                NavPath path = follower.getPath();
+                if (path.isPartial()) {
+                    route = null; // Fell short of the leg; the section graph may know better by now
+                    replan("leg fell short");
+                } else if (path.getTarget().equals(target)) {
+                    follower = null;
+                    status = Status.ARRIVED;
+                } else if (route != null && !route.complete && routeIndex == route.waypoints.size() - 1) {
+                    route = null; // End of a partial route; look further now that more is known
+                    replan("end of partial route");
+                } else {
+                    plan(); // Next leg along the route
+                }
+            }
+            case STUCK, BLOCKED -> replan(result.name().toLowerCase());
+            default -> { }
+        }
+    }
+
+    private void replan(String reason) {
+        if (++replans > MAX_REPLANS) {
+            SteveMod.LOGGER.info("{} gave up on reaching {} after {} replans", steve.getSteveName(), target, MAX_REPLANS);
+            follower = null;
+            status = Status.FAILED;
+            return;
+        }
+        SteveMod.LOGGER.debug("{} replanning to {} ({})", steve.getSteveName(), target, reason);
+        plan();
+    }
+
+    private void tickFollow() {
+        if (!followTarget.isAlive() || followTarget.level() != steve.level()) {
+            stop();
+            return;
+        }
+        if (++followTicks < FOLLOW_REPATH_TICKS) {
+            return;
+        }
+        followTicks = 0;
+        if (steve.distanceTo(followTarget) <= followDistance) {
+            return;
+        }
+        BlockPos targetPos = followTarget.blockPosition();
+        // Keep walking the current path unless the entity has moved away from its end
+        if (status != Status.PLANNING && (status != Status.FOLLOWING || target.distSqr(targetPos) > 9)) {
+            target = targetPos;
+            route = null;
+            replans = 0;
+            plan();
+        }
     }
 
     /**
@@ -63,23 +302,59 @@ public class BaritoneInterface {
     }
 
     /**
-     * Follow an entity
+     * Keep pathing to an entity whenever it is further than distance away, until stopped
      */
-    public boolean followEntity(net.minecraft.world.entity.Entity entity, double distance) {
-        return false;
+    public boolean followEntity(Entity entity, double distance) {
+        if (!(steve.level() instanceof ServerLevel)) {
+            return false;
+        }
+        followTarget = entity;
+        followDistance = distance;
+        mayEditTerrain = false;
+        followTicks = FOLLOW_REPATH_TICKS;
+        return true;
     }
 
     /**
-     * Stop all current Baritone processes
+     * Stop planning and walking
      */
     public void stop() {
+        cancelPending();
+        follower = null;
+        followTarget = null;
+        target = null;
+        route = null;
+        status = Status.IDLE;
+        steve.getMoveControl().setWantedPosition(steve.getX(), steve.getY(), steve.getZ(), 0.0);
+    }
+
+    private void cancelPending() {
+        if (pendingRoute != null) {
+            pendingRoute.cancel(false);
+            pendingRoute = null;
+        }
+        if (pendingPath != null) {
+            pendingPath.cancel(false);
+            pendingPath = null;
+        }
     }
 
     /**
-     * Check if Baritone is currently active
+     * Check if a path is being planned or walked
      */
     public boolean isActive() {
-        return false;
+        return status == Status.PLANNING || status == Status.FOLLOWING || followTarget != null;
     }
-}
 
+    public Status getStatus() {
+        return status;
+    }
+
+    public BlockPos getTarget() {
+        return target;
+    }
+
+    public boolean mayEditTerrain() {
+        return mayEditTerrain;
+    }
+}
@@ -0,0 +1,207 @@
+package com.steve.ai.memory;
+
+import com.steve.ai.SteveMod;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.phys.AABB;
+
+import java.util.*;
+
+/**
+ * Grid-hashed index of the structures built in one dimension, stored with the level.
+ * Every structure is filed under each CELL_SIZE x CELL_SIZE column its (spaced) bounds touch,
+ * so overlap queries only look at the few cells under the query box and nearest queries
+ * search outwards ring by ring. All methods are synchronized; queries are cheap enough that
+ * contention does not matter.
+ */
+public class StructureIndex extends SavedData {
+    private static final String DATA_NAME = SteveMod.MODID + "_structures";
+    private static final int CELL_SIZE = 32;
+
+    private final List<StructureRegistry.BuiltStructure> structures = new ArrayList<>();
+    private final Map<Long, List<StructureRegistry.BuiltStructure>> cells = new HashMap<>();
+    private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE;
+    private int minCellZ = Integer.MAX_VALUE, maxCellZ = Integer.MIN_VALUE;
+
+    public static StructureIndex get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(StructureIndex::load, StructureIndex::new, DATA_NAME);
+    }
+
+    private static StructureIndex load(CompoundTag tag) {
+        StructureIndex index = new StructureIndex();
+        ListTag list = tag.getList("Structures", Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag entry = list.getCompound(i);
+            int[] size = entry.getIntArray("Size");
+            if (size.length != 3) {
+                continue;
+            }
+            index.insert(new StructureRegistry.BuiltStructure(BlockPos.of(entry.getLong("Pos")),
+                size[0], size[1], size[2], entry.getString("Type")));
+        }
+        SteveMod.LOGGER.info("Loaded {} registered structures into {} index cells", index.structures.size(), index.cells.size());
+        return index;
+    }
+
+    @Override
+    public synchronized CompoundTag save(CompoundTag tag) {
+        ListTag list = new ListTag();
+        for (StructureRegistry.BuiltStructure structure : structures) {
+            CompoundTag entry = new CompoundTag();
+            entry.putLong("Pos", structure.position.asLong());
+            entry.putIntArray("Size", new int[]{structure.width, structure.height, structure.depth});
+            entry.putString("Type", structure.type);
+            list.add(entry);
+        }
+        tag.put("Structures", list);
+        return tag;
+    }
+
+    /**
+     * @return false if the same structure was already registered
+     */
+    public synchronized boolean add(StructureRegistry.BuiltStructure structure) {
+        for (StructureRegistry.BuiltStructure existing : cellAt(structure.position)) {
+            if (existing.position.equals(structure.position) && existing.type.equals(structure.type)) {
+                return false;
+            }
+        }
+        insert(structure);
+        setDirty();
+        return true;
+    }
+
+    private void insert(StructureRegistry.BuiltStructure structure) {
+        structures.add(structure);
+        AABB bounds = structure.bounds;
+        int fromX = cellCoord(bounds.minX), toX = cellCoord(bounds.maxX);
+        int fromZ = cellCoord(bounds.minZ), toZ = cellCoord(bounds.maxZ);
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cz = fromZ; cz <= toZ; cz++) {
+                cells.computeIfAbsent(ChunkPos.asLong(cx, cz), key -> new ArrayList<>(2)).add(structure);
+            }
+        }
+        minCellX = Math.min(minCellX, fromX);
+        maxCellX = Math.max(maxCellX, toX);
+        minCellZ = Math.min(minCellZ, fromZ);
+        maxCellZ = Math.max(maxCellZ, toZ);
+    }
+
+    /**
+     * Remove the structure of this type registered at pos
+     * @return false if no such structure was registered
+     */
+    public synchronized boolean remove(BlockPos pos, String type) {
+        StructureRegistry.BuiltStructure match = null;
+        for (StructureRegistry.BuiltStructure existing : cellAt(pos)) {
+            if (existing.position.equals(pos) && existing.type.equals(type)) {
+                match = existing;
+                break;
+            }
+        }
+        if (match == null) {
+            return false;
+        }
+        structures.remove(match);
+        AABB bounds = match.bounds;
+        for (int cx = cellCoord(bounds.minX); cx <= cellCoord(bounds.maxX); cx++) {
+            for (int cz = cellCoord(bounds.minZ); cz <= cellCoord(bounds.maxZ); cz++) {
+                long key = ChunkPos.asLong(cx, cz);
+                List<StructureRegistry.BuiltStructure> cell = cells.get(key);
+                if (cell != null && cell.remove(match) && cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+        // Cell bounds are only used to stop nearest searches, so leaving them wide is harmless
+        setDirty();
+        return true;
+    }
+
+    /**
+     * Whether a box at pos would come within the minimum spacing of any registered structure
+     */
+    public synchronized boolean hasConflict(BlockPos pos, int width, int height, int depth) {
+        int fromX = cellCoord(pos.getX()), toX = cellCoord(pos.getX() + width);
+        int fromZ = cellCoord(pos.getZ()), toZ = cellCoord(pos.getZ() + depth);
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cz = fromZ; cz <= toZ; cz++) {
+                List<StructureRegistry.BuiltStructure> cell = cells.get(ChunkPos.asLong(cx, cz));
+                if (cell == null) continue;
+                for (StructureRegistry.BuiltStructure structure : cell) {
+                    if (structure.intersects(pos, width, height, depth)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Structure whose origin is closest to pos, or null if none is registered
+     */
+    public synchronized StructureRegistry.BuiltStructure getClosest(BlockPos pos) {
+        if (structures.isEmpty()) {
+            return null;
+        }
+        int originX = cellCoord(pos.getX());
+        int originZ = cellCoord(pos.getZ());
+        int maxRadius = Math.max(
+            Math.max(Math.abs(originX - minCellX), Math.abs(originX - maxCellX)),
+            Math.max(Math.abs(originZ - minCellZ), Math.abs(originZ - maxCellZ)));
+
+        StructureRegistry.BuiltStructure closest = null;
+        double minDistance = Double.MAX_VALUE;
+        for (int r = 0; r <= maxRadius; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                int step = (dx == -r || dx == r) ? 1 : 2 * r;
+                for (int dz = -r; dz <= r; dz += step) {
+                    List<StructureRegistry.BuiltStructure> cell = cells.get(ChunkPos.asLong(originX + dx, originZ + dz));
+                    if (cell == null) continue;
+                    for (StructureRegistry.BuiltStructure structure : cell) {
+                        double distance = structure.distanceTo(pos);
+                        if (distance < minDistance) {
+                            minDistance = distance;
+                            closest = structure;
+                        }
+                    }
+                }
+            }
+            // Anything not seen yet has its origin at least r whole cells away
+            if (closest != null && minDistance <= (double) r * CELL_SIZE) {
+                break;
+            }
+        }
+        return closest;
+    }
+
+    public synchronized List<StructureRegistry.BuiltStructure> getAll() {
+        return new ArrayList<>(structures);
+    }
+
+    public synchronized int size() {
+        return structures.size();
+    }
+
+    public synchronized void clear() {
+        structures.clear();
+        cells.clear();
+        minCellX = minCellZ = Integer.MAX_VALUE;
+        maxCellX = maxCellZ = Integer.MIN_VALUE;
+        setDirty();
+    }
+
+    private List<StructureRegistry.BuiltStructure> cellAt(BlockPos pos) {
+        return cells.getOrDefault(ChunkPos.asLong(cellCoord(pos.getX()), cellCoord(pos.getZ())), List.of());
+    }
+
+    private static int cellCoord(double blockCoord) {
+        return Math.floorDiv((int) Math.floor(blockCoord), CELL_SIZE);
+    }
+}
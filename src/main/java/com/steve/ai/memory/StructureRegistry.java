@@ -2,16 +2,16 @@ package com.steve.ai.memory;
 
 import com.steve.ai.SteveMod;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.phys.AABB;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Tracks all built structures to prevent overlapping builds
+ * Tracks all built structures to prevent overlapping builds.
+ * Structures are kept per dimension in a spatial index saved with the level (see StructureIndex).
  */
 public class StructureRegistry {
-    private static final List<BuiltStructure> structures = new ArrayList<>();
     private static final int MIN_SPACING = 5; // Minimum blocks between structures
     
     public static class BuiltStructure {
@@ -62,22 +62,27 @@ public class StructureRegistry {
     /**
      * Register a newly built structure
      */
-    public static void register(BlockPos pos, int width, int height, int depth, String type) {
+    public static void register(ServerLevel level, BlockPos pos, int width, int height, int depth, String type) {
         BuiltStructure structure = new BuiltStructure(pos, width, height, depth, type);
-        structures.add(structure);
-        SteveMod.LOGGER.info("Registered structure '{}' at {} ({}x{}x{})", type, pos, width, height, depth);
+        if (StructureIndex.get(level).add(structure)) {
+            SteveMod.LOGGER.info("Registered structure '{}' at {} ({}x{}x{})", type, pos, width, height, depth);
+        }
     }
     
     /**
-     * Check if a position would conflict with existing structures
+     * Forget a structure again, e.g. after its build was undone
      */
-    public static boolean hasConflict(BlockPos pos, int width, int height, int depth) {
-        for (BuiltStructure structure : structures) {
-            if (structure.intersects(pos, width, height, depth)) {
-                return true;
-            }
+    public static void unregister(ServerLevel level, BlockPos pos, String type) {
+        if (StructureIndex.get(level).remove(pos, type)) {
+            SteveMod.LOGGER.info("Unregistered structure '{}' at {}", type, pos);
         }
-        return false;
+    }
+    
+    /**
+     * Check if a position would conflict with existing structures
+     */
+    public static boolean hasConflict(ServerLevel level, BlockPos pos, int width, int height, int depth) {
+        return StructureIndex.get(level).hasConflict(pos, width, height, depth);
     }
     
     /**
@@ -85,8 +90,9 @@ public class StructureRegistry {
      * Searches in expanding circles around the original position
      * Maintains the same Y level as the original position (already ground-adjusted)
      */
-    public static BlockPos findClearPosition(BlockPos originalPos, int width, int height, int depth) {
-        if (!hasConflict(originalPos, width, height, depth)) {
+    public static BlockPos findClearPosition(ServerLevel level, BlockPos originalPos, int width, int height, int depth) {
+        StructureIndex index = StructureIndex.get(level);
+        if (!index.hasConflict(originalPos, width, height, depth)) {
             return originalPos;
         }        int maxSearchRadius = 50; // Max 50 blocks away
         int searchStep = Math.max(width, depth) + MIN_SPACING; // Step by structure size + spacing
@@ -103,7 +109,7 @@ public class StructureRegistry {
                     originalPos.getZ() + offsetZ
                 );
                 
-                if (!hasConflict(testPos, width, height, depth)) {
+                if (!index.hasConflict(testPos, width, height, depth)) {
                     SteveMod.LOGGER.info("Found clear position at {} ({}m away)", testPos, radius);
                     return testPos;
                 }
@@ -122,43 +128,28 @@ public class StructureRegistry {
     /**
      * Get all registered structures
      */
-    public static List<BuiltStructure> getAllStructures() {
-        return new ArrayList<>(structures);
+    public static List<BuiltStructure> getAllStructures(ServerLevel level) {
+        return StructureIndex.get(level).getAll();
     }
     
     /**
      * Get the closest structure to a position
      */
-    public static BuiltStructure getClosest(BlockPos pos) {
-        if (structures.isEmpty()) {
-            return null;
-        }
-        
-        BuiltStructure closest = structures.get(0);
-        double minDistance = closest.distanceTo(pos);
-        
-        for (BuiltStructure structure : structures) {
-            double distance = structure.distanceTo(pos);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closest = structure;
-            }
-        }
-        
-        return closest;
+    public static BuiltStructure getClosest(ServerLevel level, BlockPos pos) {
+        return StructureIndex.get(level).getClosest(pos);
     }
     
     /**
-     * Clear all registered structures (useful for cleanup)
+     * Clear all registered structures in a dimension (useful for cleanup)
      */
-    public static void clear() {
-        structures.clear();    }
+    public static void clear(ServerLevel level) {
+        StructureIndex.get(level).clear();
+    }
     
     /**
      * Get count of registered structures
      */
-    public static int getCount() {
-        return structures.size();
+    public static int getCount(ServerLevel level) {
+        return StructureIndex.get(level).size();
     }
 }
-
@@ -0,0 +1,211 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A* over a NavigationSnapshot, meant to run on SteveExecutors.pathfinding().
+ * Nodes are feet positions of a two-block-tall walker. Besides walking, jumping up one block and
+ * dropping down a few, the search can be allowed to dig through soft blocks and pillar up by placing
+ * a block underneath, at costs high enough that it only does so when going around is much longer.
+ * Open and closed sets are primitive arrays (an open-addressing table of packed positions and a
+ * binary heap of node indices) that grow by doubling, so a search allocates nothing per node.
+ * A search that cannot reach the goal returns a partial path to the node that got closest.
+ * Not thread safe; use one instance per search.
+ */
+public class AStarPathfinder {
+    public static final int MAX_DROP = 3;
+
+    private static final float WALK_COST = 1.0f;
+    private static final float SWIM_COST = 2.0f;
+    private static final float ASCEND_COST = 2.0f;
+    private static final float DROP_COST_PER_BLOCK = 0.5f;
+    private static final float CLIMB_COST = 1.5f;
+    private static final float PILLAR_COST = 5.0f;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DZ = {0, 0, 1, -1};
+    private static final NavPath.Move[] MOVES = NavPath.Move.values();
+
+    public static class Options {
+        public boolean allowDigging; // Terrain editing is off unless the caller asks for it
+        public boolean allowPillaring;
+        public int maxNodes = 60_000; // Expanded nodes before giving up with a partial path
+        public float heuristicWeight = 1.5f; // Above 1 trades optimality for far fewer expansions
+        public int goalRange = 1; // Any node this close to the goal (per axis, +1 vertically) counts as arriving
+    }
+
+    private final NavigationSnapshot snapshot;
+    private final Options options;
+    private final NodeTable nodes;
+    private final OpenHeap open;
+    private int goalX, goalY, goalZ;
+
+    public AStarPathfinder(NavigationSnapshot snapshot, Options options) {
+        this.snapshot = snapshot;
+        this.options = options;
+        this.nodes = new NodeTable(options.maxNodes * 4);
+        this.open = new OpenHeap(nodes);
+    }
+
+    public NavPath find(BlockPos start, BlockPos goal) {
+        goalX = goal.getX();
+        goalY = goal.getY();
+        goalZ = goal.getZ();
+
+        int startNode = nodes.getOrCreate(start.asLong());
+        nodes.g[startNode] = 0;
+        nodes.move[startNode] = (byte) NavPath.Move.START.ordinal();
+        open.push(startNode, options.heuristicWeight * heuristic(start.getX(), start.getY(), start.getZ()));
+
+        int best = startNode;
+        float bestH = Float.MAX_VALUE;
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            nodes.closed[current] = true;
+            long pos = nodes.pos[current];
+            int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+
+            if (isGoal(x, y, z)) {
+                return buildPath(current, goal, false, expanded);
+            }
+            float h = heuristic(x, y, z);
+            if (h < bestH) {
+                bestH = h;
+                best = current;
+            }
+            if (++expanded >= options.maxNodes) {
+                break;
+            }
+            expand(current, x, y, z);
+        }
+        return buildPath(best, goal, true, expanded);
+    }
+
+    private boolean isGoal(int x, int y, int z) {
+        int range = options.goalRange;
+        return Math.abs(x - goalX) <= range && Math.abs(z - goalZ) <= range && Math.abs(y - goalY) <= range + 1;
+    }
+
+    /**
+     * Horizontal moves cost at least one per block, climbing about one extra per block and falling half
+     */
+    private float heuristic(int x, int y, int z) {
+        int dy = goalY - y;
+        return Math.abs(goalX - x) + Math.abs(goalZ - z) + (dy > 0 ? dy : -dy * DROP_COST_PER_BLOCK);
+    }
+
+    private void expand(int current, int x, int y, int z) {
+        byte feet = snapshot.flags(x, y, z);
+        boolean inLiquid = Passability.is(feet, Passability.LIQUID);
+
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DX[d], nz = z + DZ[d];
+            if (snapshot.canOccupy(nx, y, nz)) {
+                if (snapshot.canStand(nx, y, nz)) {
+                    boolean swimming = Passability.is(snapshot.flags(nx, y, nz), Passability.LIQUID);
+                    relax(current, nx, y, nz, swimming ? SWIM_COST : WALK_COST, swimming ? NavPath.Move.SWIM : NavPath.Move.WALK);
+                } else {
+                    descend(current, nx, y, nz);
+                }
+            } else if (snapshot.canOccupy(nx, y + 1, nz) && snapshot.canStand(nx, y + 1, nz) && snapshot.isClear(x, y + 2, z)) {
+                relax(current, nx, y + 1, nz, ASCEND_COST, NavPath.Move.ASCEND);
+            } else if (options.allowDigging) {
+                dig(current, nx, y, nz);
+            }
+        }
+
+        if ((inLiquid || Passability.is(feet, Passability.CLIMBABLE)) && snapshot.canOccupy(x, y + 1, z)) {
+            relax(current, x, y + 1, z, inLiquid ? SWIM_COST : CLIMB_COST, inLiquid ? NavPath.Move.SWIM : NavPath.Move.CLIMB);
+        } else if (options.allowPillaring && !inLiquid && snapshot.isClear(x, y + 2, z)
+                && (snapshot.canStand(x, y, z) || nodes.move[current] == NavPath.Move.PILLAR.ordinal())) {
+            // A pillar stands on the block it placed, which the snapshot does not know about
+            relax(current, x, y + 1, z, PILLAR_COST, NavPath.Move.PILLAR);
+        }
+
+        if (inLiquid && snapshot.canOccupy(x, y - 1, z)) {
+            relax(current, x, y - 1, z, SWIM_COST, NavPath.Move.SWIM);
+        } else if (options.allowDigging && !inLiquid) {
+            byte below = snapshot.flags(x, y - 1, z);
+            if (Passability.is(below, Passability.DIGGABLE) && !Passability.is(below, Passability.DANGER)
+                    && snapshot.canStand(x, y - 1, z)) {
+                relax(current, x, y - 1, z, WALK_COST + Passability.digCost(snapshot.getBlockState(x, y - 1, z)),
+                    NavPath.Move.DIG_DOWN);
+            }
+        }
+    }
+
+    /**
+     * Step off an edge and fall to the first floor within MAX_DROP blocks
+     */
+    private void descend(int current, int x, int y, int z) {
+        for (int drop = 1; drop <= MAX_DROP; drop++) {
+            if (!snapshot.isClear(x, y - drop, z)) {
+                return;
+            }
+            if (snapshot.canStand(x, y - drop, z)) {
+                relax(current, x, y - drop, z, WALK_COST + drop * DROP_COST_PER_BLOCK, NavPath.Move.DESCEND);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Dig out whatever blocks the feet and head space of the next position, unless that would open up a fluid
+     */
+    private void dig(int current, int x, int y, int z) {
+        if (!snapshot.canStand(x, y, z) || Passability.is(snapshot.flags(x, y + 2, z), Passability.LIQUID)) {
+            return;
+        }
+        float cost = WALK_COST;
+        for (int dy = 0; dy < 2; dy++) {
+            byte flags = snapshot.flags(x, y + dy, z);
+            if (Passability.is(flags, Passability.DANGER)) {
+                return;
+            }
+            if (Passability.is(flags, Passability.PASSABLE)) {
+                continue;
+            }
+            if (!Passability.is(flags, Passability.DIGGABLE)) {
+                return;
+            }
+            cost += Passability.digCost(snapshot.getBlockState(x, y + dy, z));
+        }
+        relax(current, x, y, z, cost, NavPath.Move.DIG);
+    }
+
+    private void relax(int current, int x, int y, int z, float cost, NavPath.Move move) {
+        int node = nodes.getOrCreate(BlockPos.asLong(x, y, z));
+        if (node < 0 || nodes.closed[node]) {
+            return; // Table full, or already settled (closed nodes are not reopened)
+        }
+        float g = nodes.g[current] + cost;
+        if (g >= nodes.g[node]) {
+            return;
+        }
+        nodes.g[node] = g;
+        nodes.parent[node] = current;
+        nodes.move[node] = (byte) move.ordinal();
+        float f = g + options.heuristicWeight * heuristic(x, y, z);
+        if (nodes.heapIndex[node] >= 0) {
+            open.decrease(node, f);
+        } else {
+            open.push(node, f);
+        }
+    }
+
+    private NavPath buildPath(int end, BlockPos goal, boolean partial, int expanded) {
+        int length = 0;
+        for (int node = end; node >= 0; node = nodes.parent[node]) {
+            length++;
+        }
+        long[] positions = new long[length];
+        NavPath.Move[] moves = new NavPath.Move[length];
+        int i = length - 1;
+        for (int node = end; node >= 0; node = nodes.parent[node], i--) {
+            positions[i] = nodes.pos[node];
+            moves[i] = MOVES[nodes.move[node]];
+        }
+        return new NavPath(positions, moves, goal.immutable(), partial, expanded);
+    }
+}
@@ -0,0 +1,236 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Coarse A* over the section portal graph (see SectionGraph), the upper level of long-distance planning.
+ * Nodes are portals of known sections plus one node per unknown section (not summarised yet, usually
+ * because its chunk is not loaded), which is assumed crossable at a flat cost so trips can head into
+ * unexplored land. The result is a list of waypoints a few blocks to a section apart; only the next
+ * few of them are refined into a walkable path by AStarPathfinder. Runs on SteveExecutors.pathfinding().
+ */
+public class AbstractPathfinder {
+    private static final int UNKNOWN = 255; // Portal index of an unknown section's node
+    private static final long START = -1L;
+    private static final float CROSS_COST = 1.0f;
+    private static final float UNKNOWN_ENTRY_COST = 8.0f; // Half a section, into or out of an unknown one
+    private static final float UNKNOWN_SECTION_COST = 16.0f;
+    private static final float HEURISTIC_WEIGHT = 1.2f;
+    private static final int MAX_NODES = 50_000;
+
+    private final SectionGraph graph;
+    private final NodeTable nodes = new NodeTable(MAX_NODES * 4);
+    private final OpenHeap open = new OpenHeap(nodes);
+    private int goalX, goalY, goalZ;
+
+    /**
+     * Waypoints from the start to the goal (which is always the last one)
+     */
+    public static class Route {
+        public final List<BlockPos> waypoints;
+        public final boolean complete; // False when it only gets as close as the search could
+        public final int expandedNodes;
+
+        Route(List<BlockPos> waypoints, boolean complete, int expandedNodes) {
+            this.waypoints = waypoints;
+            this.complete = complete;
+            this.expandedNodes = expandedNodes;
+        }
+    }
+
+    public AbstractPathfinder(SectionGraph graph) {
+        this.graph = graph;
+    }
+
+    public Route find(BlockPos start, BlockPos goal) {
+        goalX = goal.getX();
+        goalY = goal.getY();
+        goalZ = goal.getZ();
+        int goalSectionX = goalX >> 4, goalSectionY = goalY >> 4, goalSectionZ = goalZ >> 4;
+
+        int startNode = nodes.getOrCreate(START);
+        nodes.g[startNode] = 0;
+        open.push(startNode, 0);
+
+        int best = startNode;
+        float bestH = Float.MAX_VALUE;
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            nodes.closed[current] = true;
+            long key = nodes.pos[current];
+            if (key != START && sectionX(key) == goalSectionX && sectionY(key) == goalSectionY && sectionZ(key) == goalSectionZ) {
+                return buildRoute(current, goal, true, expanded);
+            }
+            if (key != START) {
+                float h = heuristic(position(key));
+                if (h < bestH) {
+                    bestH = h;
+                    best = current;
+                }
+            }
+            if (++expanded >= MAX_NODES) {
+                break;
+            }
+
+            if (key == START) {
+                expandStart(current, start);
+            } else if (portal(key) == UNKNOWN) {
+                expandUnknown(current, sectionX(key), sectionY(key), sectionZ(key));
+            } else {
+                expandPortal(current, key);
+            }
+        }
+        return buildRoute(best, goal, false, expanded);
+    }
+
+    private void expandStart(int current, BlockPos start) {
+        int sx = start.getX() >> 4, sy = start.getY() >> 4, sz = start.getZ() >> 4;
+        SectionSummary summary = graph.getSummary(sx, sy, sz);
+        if (summary == null) {
+            relax(current, key(sx, sy, sz, UNKNOWN), 0);
+            return;
+        }
+        // Portals are reachable from anywhere in the section as far as this level is concerned
+        for (int p = 0; p < summary.portals.length; p++) {
+            relax(current, key(sx, sy, sz, p), manhattan(start.asLong(), summary.portals[p].pos));
+        }
+    }
+
+    private void expandPortal(int current, long key) {
+        int sx = sectionX(key), sy = sectionY(key), sz = sectionZ(key);
+        SectionSummary summary = graph.getSummary(sx, sy, sz);
+        if (summary == null || portal(key) >= summary.portals.length) {
+            return; // Invalidated since we got here
+        }
+        int p = portal(key);
+        for (int q = 0; q < summary.portals.length; q++) {
+            float cost = summary.cost(p, q);
+            if (q != p && cost != Float.POSITIVE_INFINITY) {
+                relax(current, key(sx, sy, sz, q), cost);
+            }
+        }
+
+        SectionSummary.Portal portal = summary.portals[p];
+        Direction face = portal.face;
+        int nx = sx + face.getStepX(), ny = sy + face.getStepY(), nz = sz + face.getStepZ();
+        if (!graph.isInWorld(ny)) {
+            return;
+        }
+        SectionSummary neighbour = graph.getSummary(nx, ny, nz);
+        if (neighbour == null) {
+            relax(current, key(nx, ny, nz, UNKNOWN), UNKNOWN_ENTRY_COST);
+            return;
+        }
+        Direction opposite = face.getOpposite();
+        for (int q = 0; q < neighbour.portals.length; q++) {
+            SectionSummary.Portal other = neighbour.portals[q];
+            if (other.face == opposite && portal.connects(other)) {
+                relax(current, key(nx, ny, nz, q), CROSS_COST);
+            }
+        }
+    }
+
+    private void expandUnknown(int current, int sx, int sy, int sz) {
+        for (Direction direction : Direction.values()) {
+            int nx = sx + direction.getStepX(), ny = sy + direction.getStepY(), nz = sz + direction.getStepZ();
+            if (!graph.isInWorld(ny)) {
+                continue;
+            }
+            SectionSummary neighbour = graph.getSummary(nx, ny, nz);
+            if (neighbour == null) {
+                relax(current, key(nx, ny, nz, UNKNOWN), UNKNOWN_SECTION_COST);
+                continue;
+            }
+            Direction opposite = direction.getOpposite();
+            for (int q = 0; q < neighbour.portals.length; q++) {
+                if (neighbour.portals[q].face == opposite) {
+                    relax(current, key(nx, ny, nz, q), UNKNOWN_ENTRY_COST);
+                }
+            }
+        }
+    }
+
+    private void relax(int current, long key, float cost) {
+        int node = nodes.getOrCreate(key);
+        if (node < 0 || nodes.closed[node]) {
+            return;
+        }
+        float g = nodes.g[current] + cost;
+        if (g >= nodes.g[node]) {
+            return;
+        }
+        nodes.g[node] = g;
+        nodes.parent[node] = current;
+        float f = g + HEURISTIC_WEIGHT * heuristic(position(key));
+        if (nodes.heapIndex[node] >= 0) {
+            open.decrease(node, f);
+        } else {
+            open.push(node, f);
+        }
+    }
+
+    private float heuristic(long pos) {
+        return Math.abs(BlockPos.getX(pos) - goalX) + Math.abs(BlockPos.getY(pos) - goalY) + Math.abs(BlockPos.getZ(pos) - goalZ);
+    }
+
+    private static float manhattan(long a, long b) {
+        return Math.abs(BlockPos.getX(a) - BlockPos.getX(b)) + Math.abs(BlockPos.getY(a) - BlockPos.getY(b))
+            + Math.abs(BlockPos.getZ(a) - BlockPos.getZ(b));
+    }
+
+    /**
+     * Block position a node stands for: its portal's representative cell, or the middle of an unknown section
+     */
+    private long position(long key) {
+        int sx = sectionX(key), sy = sectionY(key), sz = sectionZ(key);
+        int p = portal(key);
+        if (p != UNKNOWN) {
+            SectionSummary summary = graph.getSummary(sx, sy, sz);
+            if (summary != null && p < summary.portals.length) {
+                return summary.portals[p].pos;
+            }
+        }
+        return SectionPos.of(sx, sy, sz).center().asLong();
+    }
+
+    private Route buildRoute(int end, BlockPos goal, boolean complete, int expanded) {
+        List<BlockPos> waypoints = new ArrayList<>();
+        if (complete) {
+            waypoints.add(goal.immutable());
+        }
+        for (int node = end; node >= 0 && nodes.pos[node] != START; node = nodes.parent[node]) {
+            waypoints.add(BlockPos.of(position(nodes.pos[node])));
+        }
+        Collections.reverse(waypoints);
+        return new Route(waypoints, complete, expanded);
+    }
+
+    // Node keys: section X and Z in 21 bits each, section Y in 8 and the portal index in the low 8
+
+    private static long key(int sx, int sy, int sz, int portal) {
+        return ((long) (sx & 0x1FFFFF) << 37) | ((long) (sz & 0x1FFFFF) << 16) | ((long) (sy & 0xFF) << 8) | portal;
+    }
+
+    private static int sectionX(long key) {
+        return (int) (key >> 37) << 11 >> 11;
+    }
+
+    private static int sectionZ(long key) {
+        return (int) (key >> 16) << 11 >> 11;
+    }
+
+    private static int sectionY(long key) {
+        return (byte) (key >> 8);
+    }
+
+    private static int portal(long key) {
+        return (int) (key & 0xFF);
+    }
+}
@@ -0,0 +1,171 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra map around a goal: for every walkable cell in a box around it, the number of moves to the goal
+ * and the neighbouring cell to step to next. Computed once on a worker (breadth-first from the goal over
+ * reversed moves) and then read by any number of walkers in O(1) per step. Immutable once computed.
+ */
+public class FlowField {
+    private static final int MAX_DROP = 3;
+    private static final int UNREACHABLE = -1;
+
+    private final BlockPos goal;
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final int[] distance;
+    private final int[] next; // Cell index of the next step, -1 at the goal and where unreachable
+
+    private FlowField(BlockPos goal, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this.goal = goal;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.distance = new int[sizeX * sizeY * sizeZ];
+        this.next = new int[distance.length];
+        Arrays.fill(distance, UNREACHABLE);
+        Arrays.fill(next, -1);
+    }
+
+    /**
+     * Flow towards goal over a box reaching radius blocks out horizontally and height blocks up and down
+     */
+    public static FlowField compute(NavigationSnapshot snapshot, BlockPos goal, int radius, int height) {
+        FlowField field = new FlowField(goal.immutable(), goal.getX() - radius, goal.getY() - height, goal.getZ() - radius,
+            2 * radius + 1, 2 * height + 1, 2 * radius + 1);
+        BlockPos start = field.groundBelow(snapshot, goal);
+        if (start == null) {
+            return field; // Goal hanging in the air or out of the snapshot; nothing reaches it
+        }
+
+        int[] queue = new int[field.distance.length];
+        int head = 0, tail = 0;
+        int startIndex = field.index(start.getX(), start.getY(), start.getZ());
+        field.distance[startIndex] = 0;
+        queue[tail++] = startIndex;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = field.minX + cell % field.sizeX;
+            int z = field.minZ + (cell / field.sizeX) % field.sizeZ;
+            int y = field.minY + cell / (field.sizeX * field.sizeZ);
+            int d = field.distance[cell] + 1;
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int ax = x + direction.getStepX(), az = z + direction.getStepZ();
+                // Walkers that reach this cell in one move: level with it, one below (jumping up) or dropping down into it
+                tail = field.tryPredecessor(snapshot, ax, y, az, cell, d, queue, tail);
+                if (snapshot.isClear(ax, y + 1, az)) {
+                    tail = field.tryPredecessor(snapshot, ax, y - 1, az, cell, d, queue, tail);
+                }
+                for (int drop = 1; drop <= MAX_DROP && snapshot.isClear(x, y + drop + 1, z); drop++) {
+                    tail = field.tryPredecessor(snapshot, ax, y + drop, az, cell, d, queue, tail);
+                }
+            }
+        }
+        return field;
+    }
+
+    private int tryPredecessor(NavigationSnapshot snapshot, int x, int y, int z, int toward, int d, int[] queue, int tail) {
+        if (!contains(x, y, z)) {
+            return tail;
+        }
+        int cell = index(x, y, z);
+        if (distance[cell] != UNREACHABLE || !snapshot.canOccupy(x, y, z) || !snapshot.canStand(x, y, z)) {
+            return tail;
+        }
+        distance[cell] = d;
+        next[cell] = toward;
+        queue[tail++] = cell;
+        return tail;
+    }
+
+    /**
+     * First cell a walker could stand in at or a few blocks below a position
+     */
+    private BlockPos groundBelow(NavigationSnapshot snapshot, BlockPos pos) {
+        for (int y = pos.getY(); y >= pos.getY() - 4; y--) {
+            if (contains(pos.getX(), y, pos.getZ()) && snapshot.canOccupy(pos.getX(), y, pos.getZ())
+                    && snapshot.canStand(pos.getX(), y, pos.getZ())) {
+                return new BlockPos(pos.getX(), y, pos.getZ());
+            }
+        }
+        return null;
+    }
+
+    private boolean contains(int x, int y, int z) {
+        return x >= minX && x < minX + sizeX && y >= minY && y < minY + sizeY && z >= minZ && z < minZ + sizeZ;
+    }
+
+    private int index(int x, int y, int z) {
+        return ((y - minY) * sizeZ + (z - minZ)) * sizeX + (x - minX);
+    }
+
+    private BlockPos position(int cell) {
+        return new BlockPos(minX + cell % sizeX, minY + cell / (sizeX * sizeZ), minZ + (cell / sizeX) % sizeZ);
+    }
+
+    /**
+     * Cell to step to next from feet position, or null when the position is outside the field or cannot reach the goal.
+     * Also tries the cell below, for walkers caught mid-jump or standing on a slab.
+     */
+    public BlockPos nextStep(BlockPos feet) {
+        for (int dy = 0; dy >= -1; dy--) {
+            int x = feet.getX(), y = feet.getY() + dy, z = feet.getZ();
+            if (contains(x, y, z)) {
+                int cell = index(x, y, z);
+                if (distance[cell] > 0) {
+                    return position(next[cell]);
+                }
+                if (distance[cell] == 0) {
+                    return position(cell);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves from a position to the goal, -1 when unreachable or outside the field
+     */
+    public int distanceFrom(BlockPos feet) {
+        return contains(feet.getX(), feet.getY(), feet.getZ()) ? distance[index(feet.getX(), feet.getY(), feet.getZ())] : UNREACHABLE;
+    }
+
+    /**
+     * Reachable cell nearest to a position within range blocks (checked column by column), or null
+     */
+    public BlockPos nearestReachable(BlockPos pos, int range) {
+        BlockPos best = null;
+        int bestScore = Integer.MAX_VALUE;
+        for (int dx = -range; dx <= range; dx++) {
+            for (int dz = -range; dz <= range; dz++) {
+                for (int dy = -2; dy <= 2; dy++) {
+                    int x = pos.getX() + dx, y = pos.getY() + dy, z = pos.getZ() + dz;
+                    if (!contains(x, y, z) || distance[index(x, y, z)] == UNREACHABLE) {
+                        continue;
+                    }
+                    int score = dx * dx + dz * dz + dy * dy;
+                    if (score < bestScore) {
+                        bestScore = score;
+                        best = new BlockPos(x, y, z);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    public boolean containsBlock(BlockPos pos) {
+        return contains(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public BlockPos getGoal() {
+        return goal;
+    }
+}
@@ -0,0 +1,188 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.util.SteveExecutors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One FlowField per followed player, shared by every Steve following them.
+ * The field is recomputed on the pathfinding pool when the player moves into another CELL_SHIFT cell
+ * or a block changes inside it, at most every MIN_RECOMPUTE_TICKS; followers read their next step from
+ * whatever field is current. Close to the player each follower heads for its own formation slot behind
+ * them instead of the player's cell, so they do not clump; it follows the field until the slot is a short
+ * straight walk away. Every recompute is a full breadth-first pass: when the player moves, the distance of
+ * every cell changes, so there is little of the old field to reuse, and the pass (about 40k cells) runs off
+ * the server thread at most once per cell move. Fields without followers are dropped.
+ * Server thread only.
+ */
+public class FlowFields {
+    private static final int RADIUS = 24;
+    private static final int HEIGHT = 8;
+    private static final int CELL_SHIFT = 2; // 4-block cells
+    private static final int MIN_RECOMPUTE_TICKS = 10;
+    private static final long FOLLOWER_TIMEOUT = 40; // Ticks a follower may go without asking before it loses its slot
+    private static final double SLOT_RANGE = 8.0; // Look for the formation slot once this close to the player
+    private static final double SLOT_APPROACH = 3.0; // Walk straight to the slot from this close, if nothing is in the way
+    private static final double SLOT_DISTANCE = 3.0;
+    private static final float SLOT_SPREAD = 45.0f; // Degrees between neighbouring slots
+
+    private static final Map<ResourceKey<Level>, FlowFields> levels = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Tracker> trackers = new HashMap<>();
+
+    private static class Tracker {
+        final Player player;
+        final Map<UUID, Long> followers = new LinkedHashMap<>(); // Last tick each asked; join order gives the slots
+        FlowField field;
+        CompletableFuture<FlowField> pending;
+        long fieldCell = Long.MIN_VALUE;
+        long lastCompute = -MIN_RECOMPUTE_TICKS;
+        boolean dirty;
+
+        Tracker(Player player) {
+            this.player = player;
+        }
+    }
+
+    public static FlowFields get(ServerLevel level) {
+        return levels.computeIfAbsent(level.dimension(), key -> new FlowFields());
+    }
+
+    /**
+     * Drop a level's fields and the players they follow when it unloads
+     */
+    public static void unload(ServerLevel level) {
+        levels.remove(level.dimension());
+    }
+
+    /**
+     * Block to walk towards this tick to follow a player, or null when the field cannot guide the Steve
+     * (not computed yet, Steve outside it, or no way to the player)
+     */
+    public BlockPos nextStep(SteveEntity steve, Player player, long gameTime) {
+        Tracker tracker = trackers.computeIfAbsent(player.getUUID(), id -> new Tracker(player));
+        tracker.followers.put(steve.getUUID(), gameTime);
+        FlowField field = tracker.field;
+        if (field == null) {
+            return null;
+        }
+        if (steve.distanceTo(player) <= SLOT_RANGE) {
+            BlockPos slot = slot(tracker, steve.getUUID(), field);
+            if (slot != null && canWalkStraightTo(steve, slot)) {
+                return slot;
+            }
+        }
+        // Further out, or with a wall or drop between us and the slot, the field leads round it
+        return field.nextStep(steve.blockPosition());
+    }
+
+    private static boolean canWalkStraightTo(SteveEntity steve, BlockPos slot) {
+        double x = slot.getX() + 0.5, z = slot.getZ() + 0.5;
+        double dx = x - steve.getX(), dz = z - steve.getZ();
+        return dx * dx + dz * dz <= SLOT_APPROACH * SLOT_APPROACH && steve.getBlockY() == slot.getY()
+            && PathSmoother.isStraight(steve.level(), steve.getX(), slot.getY(), steve.getZ(), x, slot.getY(), z, false);
+    }
+
+    /**
+     * Reachable spot behind the player for this follower, fanned out by join order
+     */
+    private static BlockPos slot(Tracker tracker, UUID follower, FlowField field) {
+        int index = 0;
+        for (UUID id : tracker.followers.keySet()) {
+            if (id.equals(follower)) {
+                break;
+            }
+            index++;
+        }
+        int count = tracker.followers.size();
+        // Snapped to the player's facing so slots do not swing around with every turn of the head
+        Direction behind = Direction.fromYRot(tracker.player.getYRot()).getOpposite();
+        double angle = Math.toRadians(behind.toYRot() + (index - (count - 1) / 2.0) * SLOT_SPREAD);
+        double x = tracker.player.getX() - Math.sin(angle) * SLOT_DISTANCE;
+        double z = tracker.player.getZ() + Math.cos(angle) * SLOT_DISTANCE;
+        return field.nearestReachable(BlockPos.containing(x, tracker.player.getY(), z), 2);
+    }
+
+    /**
+     * Called at the end of every server tick for each level
+     */
+    public static void tick(ServerLevel level) {
+        FlowFields fields = levels.get(level.dimension());
+        if (fields == null || fields.trackers.isEmpty()) {
+            return;
+        }
+        long now = level.getGameTime();
+        Iterator<Tracker> it = fields.trackers.values().iterator();
+        while (it.hasNext()) {
+            Tracker tracker = it.next();
+            tracker.followers.values().removeIf(last -> now - last > FOLLOWER_TIMEOUT);
+            if (tracker.followers.isEmpty() || tracker.player.isRemoved() || tracker.player.level() != level) {
+                if (tracker.pending != null) {
+                    tracker.pending.cancel(false);
+                }
+                it.remove();
+                continue;
+            }
+            update(level, tracker, now);
+        }
+    }
+
+    private static void update(ServerLevel level, Tracker tracker, long now) {
+        if (tracker.pending != null) {
+            if (!tracker.pending.isDone()) {
+                return;
+            }
+            try {
+                tracker.field = tracker.pending.join();
+            } catch (Exception e) {
+                SteveMod.LOGGER.error("Flow field for {} failed", tracker.player.getName().getString(), e);
+            }
+            tracker.pending = null;
+        }
+
+        BlockPos goal = tracker.player.blockPosition();
+        long cell = BlockPos.asLong(goal.getX() >> CELL_SHIFT, goal.getY() >> CELL_SHIFT, goal.getZ() >> CELL_SHIFT);
+        if ((cell == tracker.fieldCell && !tracker.dirty) || now - tracker.lastCompute < MIN_RECOMPUTE_TICKS) {
+            return;
+        }
+        tracker.fieldCell = cell;
+        tracker.lastCompute = now;
+        tracker.dirty = false;
+        NavigationSnapshot snapshot = NavigationSnapshot.captureCorridor(level, goal, goal, 2, HEIGHT + 4);
+        tracker.pending = CompletableFuture.supplyAsync(() -> FlowField.compute(snapshot, goal, RADIUS, HEIGHT),
+            SteveExecutors.pathfinding());
+    }
+
+    /**
+     * A block changed; fields covering it are recomputed on their next turn
+     */
+    public static void invalidate(Level level, BlockPos pos) {
+        FlowFields fields = levels.get(level.dimension());
+        if (fields == null) {
+            return;
+        }
+        for (Tracker tracker : fields.trackers.values()) {
+            if (tracker.field != null && tracker.field.containsBlock(pos)) {
+                tracker.dirty = true;
+            }
+        }
+    }
+
+    public int getFieldCount() {
+        return trackers.size();
+    }
+}
@@ -0,0 +1,100 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ai.navigation.PathNavigation;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Keeps a Steve walking after a moving entity without asking vanilla navigation for a new path every tick.
+ * A path is only searched when the target has drifted from where the last one was aimed by more than a
+ * threshold that grows with the distance to it, or when that path is gone (finished, stuck, or replaced by
+ * another action). Close by with a clear line of sight no path is kept at all and the Steve just steers
+ * at the target through its MoveControl. One per Steve, server thread only.
+ */
+public class FollowController {
+    private static final double MIN_REPATH_DISTANCE = 1.5;
+    private static final double REPATH_FRACTION = 0.25; // Of the distance to the target
+    private static final int MIN_REPATH_INTERVAL = 10;
+    private static final double STEER_RANGE = 8.0;
+    private static final double STEER_MAX_DY = 1.0;
+
+    private final SteveEntity steve;
+    private Path path;
+    private Vec3 pathGoal;
+    private long lastRepath = -MIN_REPATH_INTERVAL;
+    private int repathCount;
+    private int steerTicks;
+
+    public FollowController(SteveEntity steve) {
+        this.steve = steve;
+    }
+
+    /**
+     * Move towards the target this tick; callers decide when they are close enough and call stop()
+     */
+    public void follow(Entity target, double speed) {
+        PathNavigation navigation = steve.getNavigation();
+        Vec3 goal = target.position();
+        double distanceSqr = steve.distanceToSqr(goal);
+
+        if (distanceSqr <= STEER_RANGE * STEER_RANGE && Math.abs(goal.y - steve.getY()) <= STEER_MAX_DY
+                && steve.hasLineOfSight(target)) {
+            // Straight shot: no path to keep up to date
+            if (!navigation.isDone()) {
+                navigation.stop();
+            }
+            path = null;
+            steve.getMoveControl().setWantedPosition(goal.x, goal.y, goal.z, speed);
+            steerTicks++;
+            return;
+        }
+
+        long now = steve.level().getGameTime();
+        if (!needsRepath(navigation, goal, distanceSqr, now)) {
+            steerTicks++; // Navigation keeps walking the path it has
+            return;
+        }
+        path = navigation.createPath(target, 1);
+        pathGoal = goal;
+        lastRepath = now;
+        repathCount++;
+        if (path != null) {
+            navigation.moveTo(path, speed);
+        }
+    }
+
+    private boolean needsRepath(PathNavigation navigation, Vec3 goal, double distanceSqr, long now) {
+        if (now - lastRepath < MIN_REPATH_INTERVAL) {
+            return false;
+        }
+        if (path == null || navigation.getPath() != path || navigation.isDone() || navigation.isStuck()) {
+            return true;
+        }
+        double threshold = Math.max(MIN_REPATH_DISTANCE, Math.sqrt(distanceSqr) * REPATH_FRACTION);
+        return pathGoal.distanceToSqr(goal) > threshold * threshold;
+    }
+
+    /**
+     * Drop the current path, e.g. when close enough or after a teleport
+     */
+    public void stop() {
+        if (path != null && steve.getNavigation().getPath() == path) {
+            steve.getNavigation().stop();
+        }
+        path = null;
+        pathGoal = null;
+    }
+
+    public int getRepathCount() {
+        return repathCount;
+    }
+
+    /**
+     * Ticks spent following without a new path search, steering directly or on the previous path
+     */
+    public int getSteerTicks() {
+        return steerTicks;
+    }
+}
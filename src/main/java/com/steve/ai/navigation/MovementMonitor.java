@@ -0,0 +1,214 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.entity.SteveEntity;
+import com.steve.ai.integration.BaritoneInterface;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Watches a Steve's progress towards whatever its action is moving to, one per Steve.
+ * Progress is the best distance to the goal reached so far: wobbling back and forth, or circling a wall,
+ * does not count, only getting PROGRESS blocks closer than ever before does. Once that has not happened
+ * for STUCK_TICKS an incident is recorded in the level's StuckIncidents and a recovery ladder starts,
+ * one rung every STEP_TICKS: repath, clear the blocks in the way, jump (pillaring up when the goal is
+ * above), and finally teleport, which is left to the action since it knows where it is safe to land.
+ * Actions call update() on every tick they are moving; a tick without a call ends the watch.
+ */
+public class MovementMonitor {
+    public enum Recovery {
+        NONE,
+        REPATH,
+        CLEAR,
+        JUMP,
+        TELEPORT // The action should teleport to its goal now
+    }
+
+    private static final int STUCK_TICKS = 40;
+    private static final int STEP_TICKS = 40;
+    private static final double PROGRESS = 0.5;
+    private static final double GOAL_MOVED_SQR = 2.0 * 2.0; // A goal moved this far is a new goal
+    private static final int PILLAR_TIMEOUT = 20;
+    private static final BlockState PILLAR_BLOCK = Blocks.COBBLESTONE.defaultBlockState();
+
+    private final SteveEntity steve;
+    private String action;
+    private BlockPos goal;
+    private long lastUpdate;
+    private double bestDistance;
+    private int ticksWithoutProgress;
+    private int rung; // Recovery steps taken since the last progress
+    private boolean incident;
+    private double pillarFromY = Double.NaN;
+    private int pillarTicks;
+    private int incidentCount;
+    private long lostTicks;
+
+    public MovementMonitor(SteveEntity steve) {
+        this.steve = steve;
+    }
+
+    /**
+     * Record this tick's progress towards goal and take the next recovery step if it is due
+     * @param mayEditTerrain whether recovery may break blocks in the way and pillar up
+     * @return the step taken this tick; TELEPORT is for the action to carry out
+     */
+    public Recovery update(String action, BlockPos goal, boolean mayEditTerrain) {
+        long now = steve.level().getGameTime();
+        if (now - lastUpdate > 1 || !action.equals(this.action) || this.goal == null
+                || this.goal.distSqr(goal) > GOAL_MOVED_SQR) {
+            finish();
+            this.action = action;
+            this.goal = goal.immutable();
+            bestDistance = Double.MAX_VALUE;
+            pillarFromY = Double.NaN;
+        }
+        lastUpdate = now;
+        tickPillar();
+
+        double distance = Math.sqrt(steve.distanceToSqr(goal.getX() + 0.5, goal.getY(), goal.getZ() + 0.5));
+        if (distance < bestDistance - PROGRESS) {
+            bestDistance = distance;
+            finish();
+            return Recovery.NONE;
+        }
+        ticksWithoutProgress++;
+        if (ticksWithoutProgress < STUCK_TICKS + rung * STEP_TICKS) {
+            return Recovery.NONE;
+        }
+
+        if (!incident) {
+            incident = true;
+            incidentCount++;
+            SteveMod.LOGGER.debug("Steve '{}' stuck at {} while doing {} (goal {})", steve.getSteveName(),
+                steve.blockPosition().toShortString(), action, goal.toShortString());
+            StuckIncidents incidents = incidents();
+            if (incidents != null) {
+                incidents.recordIncident(action, steve.blockPosition());
+            }
+        }
+        Recovery recovery = switch (rung) {
+            case 0 -> Recovery.REPATH;
+            case 1 -> Recovery.CLEAR;
+            case 2 -> Recovery.JUMP;
+            default -> Recovery.TELEPORT;
+        };
+        rung++;
+        switch (recovery) {
+            case REPATH -> repath();
+            case CLEAR -> {
+                if (mayEditTerrain) {
+                    clearTowards(goal);
+                }
+            }
+            case JUMP -> jump(goal, mayEditTerrain);
+            default -> { }
+        }
+        StuckIncidents incidents = incidents();
+        if (incidents != null) {
+            incidents.recordRecovery(action, recovery);
+        }
+        if (recovery == Recovery.TELEPORT) {
+            finish();
+            bestDistance = Double.MAX_VALUE;
+        }
+        return recovery;
+    }
+
+    /**
+     * Close the current incident, if any, and start counting afresh
+     */
+    private void finish() {
+        if (incident) {
+            lostTicks += ticksWithoutProgress;
+            StuckIncidents incidents = incidents();
+            if (incidents != null) {
+                incidents.recordLostTicks(action, ticksWithoutProgress);
+            }
+        }
+        incident = false;
+        ticksWithoutProgress = 0;
+        rung = 0;
+    }
+
+    private StuckIncidents incidents() {
+        return steve.level() instanceof ServerLevel level ? StuckIncidents.get(level) : null;
+    }
+
+    private void repath() {
+        BaritoneInterface pathfinder = steve.getPathfinder();
+        if (pathfinder.isActive() && pathfinder.getTarget() != null) {
+            pathfinder.pathfindTo(pathfinder.getTarget(), pathfinder.mayEditTerrain());
+        }
+        // Actions walking with vanilla navigation ask for a new path once the old one is gone
+        steve.getNavigation().stop();
+        steve.getFollowController().stop();
+    }
+
+    /**
+     * Break what blocks the feet and head towards the goal, and anything right above the head
+     */
+    private void clearTowards(BlockPos goal) {
+        Level level = steve.level();
+        BlockPos feet = steve.blockPosition();
+        Direction towards = Direction.getNearest(goal.getX() - feet.getX(), 0, goal.getZ() - feet.getZ());
+        BlockPos ahead = feet.relative(towards.getAxis().isHorizontal() ? towards : steve.getDirection());
+        for (BlockPos pos : new BlockPos[]{ahead, ahead.above(), feet.above(2)}) {
+            BlockState state = level.getBlockState(pos);
+            byte flags = Passability.of(state);
+            if (Passability.is(flags, Passability.DIGGABLE) && !Passability.is(flags, Passability.PASSABLE)) {
+                level.destroyBlock(pos, true, steve);
+                steve.swing(InteractionHand.MAIN_HAND, true);
+            }
+        }
+    }
+
+    private void jump(BlockPos goal, boolean mayEditTerrain) {
+        if (!steve.onGround()) {
+            return;
+        }
+        steve.getJumpControl().jump();
+        if (mayEditTerrain && goal.getY() > steve.getY() + 1.5) {
+            pillarFromY = steve.getY();
+            pillarTicks = 0;
+        }
+    }
+
+    /**
+     * Place a block under the Steve once the jump started by a JUMP step is high enough
+     */
+    private void tickPillar() {
+        if (Double.isNaN(pillarFromY)) {
+            return;
+        }
+        BlockPos support = BlockPos.containing(steve.getX(), pillarFromY, steve.getZ());
+        if (!steve.onGround() && steve.getY() >= pillarFromY + 1.0 && steve.level().getBlockState(support).canBeReplaced()) {
+            steve.level().setBlock(support, PILLAR_BLOCK, Block.UPDATE_ALL);
+            steve.swing(InteractionHand.MAIN_HAND, true);
+            pillarFromY = Double.NaN;
+        } else if (++pillarTicks > PILLAR_TIMEOUT) {
+            pillarFromY = Double.NaN;
+        }
+    }
+
+    /**
+     * Ticks since the Steve last got closer to its goal
+     */
+    public int getTicksWithoutProgress() {
+        return ticksWithoutProgress;
+    }
+
+    public int getIncidentCount() {
+        return incidentCount;
+    }
+
+    public long getLostTicks() {
+        return lostTicks;
+    }
+}
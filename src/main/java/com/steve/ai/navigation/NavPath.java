@@ -0,0 +1,79 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * Result of a path search: the feet positions to pass through, packed as BlockPos longs,
+ * and the move that leads into each of them. Index 0 is where the search started.
+ */
+public class NavPath {
+    public enum Move {
+        START,
+        WALK,
+        ASCEND,   // Jump up one block
+        DESCEND,  // Step off and drop up to AStarPathfinder.MAX_DROP blocks
+        SWIM,
+        CLIMB,    // Up a ladder or vine
+        DIG,      // Break the blocks in the way, then walk in
+        DIG_DOWN, // Break the block underneath and drop into it
+        PILLAR    // Jump and place a block underneath
+    }
+
+    private final long[] positions;
+    private final Move[] moves;
+    private final BlockPos target;
+    private final boolean partial;
+    private final int expandedNodes;
+
+    public NavPath(long[] positions, Move[] moves, BlockPos target, boolean partial, int expandedNodes) {
+        this.positions = positions;
+        this.moves = moves;
+        this.target = target;
+        this.partial = partial;
+        this.expandedNodes = expandedNodes;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public long getPackedPos(int index) {
+        return positions[index];
+    }
+
+    public BlockPos getPos(int index) {
+        return BlockPos.of(positions[index]);
+    }
+
+    public Move getMove(int index) {
+        return moves[index];
+    }
+
+    public BlockPos getEnd() {
+        return BlockPos.of(positions[positions.length - 1]);
+    }
+
+    /**
+     * Where the search was headed; for partial paths this lies beyond the end
+     */
+    public BlockPos getTarget() {
+        return target;
+    }
+
+    /**
+     * Whether the path only gets closer to the target, because the target was outside the snapshot
+     * or the search ran out of nodes
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "NavPath[" + size() + " nodes to " + getEnd().toShortString() + (partial ? ", partial" : "") + "]";
+    }
+}
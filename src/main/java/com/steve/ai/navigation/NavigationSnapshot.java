@@ -0,0 +1,147 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * Copy of the chunk sections along a route, taken on the server thread and searched on a worker.
+ * Only chunks within a corridor around the straight line between the two ends are copied, and only
+ * loaded ones; everything else reads as null (a wall to the search). Sections live in a flat array
+ * indexed by chunk and section coordinates, so lookups never allocate.
+ */
+public class NavigationSnapshot {
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int sizeX;
+    private final int sizeZ;
+    private final int minSectionY;
+    private final int sizeY;
+    private final PalettedContainer<BlockState>[] sections;
+    private int copiedSections;
+
+    @SuppressWarnings("unchecked")
+    private NavigationSnapshot(int minChunkX, int minChunkZ, int sizeX, int sizeZ, int minSectionY, int sizeY) {
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.sizeX = sizeX;
+        this.sizeZ = sizeZ;
+        this.minSectionY = minSectionY;
+        this.sizeY = sizeY;
+        this.sections = new PalettedContainer[sizeX * sizeZ * sizeY];
+    }
+
+    /**
+     * Copy the loaded chunks within corridor chunks of the line from one position to the other,
+     * from verticalMargin blocks below the lower end to verticalMargin above the higher one
+     */
+    public static NavigationSnapshot captureCorridor(ServerLevel level, BlockPos from, BlockPos to,
+                                                     int corridor, int verticalMargin) {
+        int fromX = from.getX() >> 4, fromZ = from.getZ() >> 4;
+        int toX = to.getX() >> 4, toZ = to.getZ() >> 4;
+        int minChunkX = Math.min(fromX, toX) - corridor;
+        int minChunkZ = Math.min(fromZ, toZ) - corridor;
+        int sizeX = Math.abs(toX - fromX) + 2 * corridor + 1;
+        int sizeZ = Math.abs(toZ - fromZ) + 2 * corridor + 1;
+
+        int minY = Math.max(level.getMinBuildHeight(), Math.min(from.getY(), to.getY()) - verticalMargin);
+        int maxY = Math.min(level.getMaxBuildHeight() - 1, Math.max(from.getY(), to.getY()) + verticalMargin);
+        int minSectionY = minY >> 4;
+        int sizeY = (maxY >> 4) - minSectionY + 1;
+
+        NavigationSnapshot snapshot = new NavigationSnapshot(minChunkX, minChunkZ, sizeX, sizeZ, minSectionY, sizeY);
+        double lineX = toX - fromX, lineZ = toZ - fromZ;
+        double lengthSqr = lineX * lineX + lineZ * lineZ;
+        for (int cx = minChunkX; cx < minChunkX + sizeX; cx++) {
+            for (int cz = minChunkZ; cz < minChunkZ + sizeZ; cz++) {
+                // Distance from the chunk to the closest point on the segment, in chunks
+                double t = lengthSqr == 0 ? 0 : Math.max(0, Math.min(1, ((cx - fromX) * lineX + (cz - fromZ) * lineZ) / lengthSqr));
+                double dx = cx - (fromX + t * lineX), dz = cz - (fromZ + t * lineZ);
+                if (dx * dx + dz * dz > corridor * corridor + 1) {
+                    continue;
+                }
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+                if (chunk != null) {
+                    snapshot.copyChunk(level, chunk, cx, cz);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void copyChunk(ServerLevel level, LevelChunk chunk, int cx, int cz) {
+        for (int sy = minSectionY; sy < minSectionY + sizeY; sy++) {
+            int sectionIndex = level.getSectionIndexFromSectionY(sy);
+            if (sectionIndex < 0 || sectionIndex >= chunk.getSections().length) {
+                continue;
+            }
+            LevelChunkSection section = chunk.getSection(sectionIndex);
+            sections[index(cx, cz, sy)] = section.getStates().copy();
+            copiedSections++;
+        }
+    }
+
+    private int index(int cx, int cz, int sy) {
+        return ((sy - minSectionY) * sizeZ + (cz - minChunkZ)) * sizeX + (cx - minChunkX);
+    }
+
+    /**
+     * State at a position, or null outside the copied corridor
+     */
+    public BlockState getBlockState(int x, int y, int z) {
+        int cx = x >> 4, cz = z >> 4, sy = y >> 4;
+        if (cx < minChunkX || cx >= minChunkX + sizeX || cz < minChunkZ || cz >= minChunkZ + sizeZ
+                || sy < minSectionY || sy >= minSectionY + sizeY) {
+            return null;
+        }
+        PalettedContainer<BlockState> section = sections[index(cx, cz, sy)];
+        return section == null ? null : section.get(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Passability flags at a position, see Passability
+     */
+    public byte flags(int x, int y, int z) {
+        return Passability.of(getBlockState(x, y, z));
+    }
+
+    /**
+     * Passable and harmless
+     */
+    public boolean isClear(int x, int y, int z) {
+        byte flags = flags(x, y, z);
+        return Passability.is(flags, Passability.PASSABLE) && !Passability.is(flags, Passability.DANGER);
+    }
+
+    /**
+     * Room for a two-block-tall walker with its feet at the position
+     */
+    public boolean canOccupy(int x, int y, int z) {
+        return isClear(x, y, z) && isClear(x, y + 1, z);
+    }
+
+    /**
+     * Something to stand on below the feet, or water or a ladder to hold on to
+     */
+    public boolean canStand(int x, int y, int z) {
+        byte feet = flags(x, y, z);
+        if (Passability.is(feet, Passability.LIQUID) || Passability.is(feet, Passability.CLIMBABLE)) {
+            return true;
+        }
+        byte below = flags(x, y - 1, z);
+        return Passability.is(below, Passability.STANDABLE) && !Passability.is(below, Passability.DANGER);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        int cx = x >> 4, cz = z >> 4, sy = y >> 4;
+        return cx >= minChunkX && cx < minChunkX + sizeX && cz >= minChunkZ && cz < minChunkZ + sizeZ
+            && sy >= minSectionY && sy < minSectionY + sizeY && sections[index(cx, cz, sy)] != null;
+    }
+
+    public int getCopiedSections() {
+        return copiedSections;
+    }
+}
@@ -0,0 +1,107 @@
+package com.steve.ai.navigation;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing table from a packed node key (a BlockPos long, or a portal key for AbstractPathfinder)
+ * to node index, with the per-node search state in parallel arrays. Shared by the path searches.
+ * The arrays start at INITIAL_CAPACITY and double when full, so short searches stay small.
+ */
+class NodeTable {
+    private static final int INITIAL_CAPACITY = 4096;
+
+    long[] pos;
+    float[] g;
+    float[] f;
+    int[] parent;
+    byte[] move;
+    boolean[] closed;
+    int[] heapIndex; // -1 when not in the open heap
+    private int[] slots; // Node index + 1, 0 for empty
+    private int mask;
+    private int size;
+    private final int maxCapacity;
+
+    /**
+     * A table that starts small and doubles as the search grows, up to maxCapacity nodes
+     */
+    NodeTable(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    private void allocate(int capacity) {
+        pos = new long[capacity];
+        g = new float[capacity];
+        f = new float[capacity];
+        parent = new int[capacity];
+        move = new byte[capacity];
+        closed = new boolean[capacity];
+        heapIndex = new int[capacity];
+        rehash(capacity);
+    }
+
+    private void rehash(int capacity) {
+        int slotCount = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        slots = new int[slotCount];
+        mask = slotCount - 1;
+        for (int node = 0; node < size; node++) {
+            int slot = hash(pos[node]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = node + 1;
+        }
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(maxCapacity, pos.length * 2L);
+        pos = Arrays.copyOf(pos, capacity);
+        g = Arrays.copyOf(g, capacity);
+        f = Arrays.copyOf(f, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        move = Arrays.copyOf(move, capacity);
+        closed = Arrays.copyOf(closed, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        rehash(capacity);
+    }
+
+    /**
+     * Index of the node with a key, created with infinite cost if new; -1 when the table is full
+     */
+    int getOrCreate(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                break;
+            }
+            if (pos[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == pos.length) {
+            if (size >= maxCapacity) {
+                return -1;
+            }
+            grow();
+            slot = hash(key) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        int node = size++;
+        slots[slot] = node + 1;
+        pos[node] = key;
+        g[node] = Float.MAX_VALUE;
+        parent[node] = -1;
+        heapIndex[node] = -1;
+        return node;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,86 @@
+package com.steve.ai.navigation;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indices ordered by f, with decrease-key through NodeTable.heapIndex
+ */
+class OpenHeap {
+    private final NodeTable nodes;
+    private int[] heap = new int[1024];
+    private int size;
+
+    OpenHeap(NodeTable nodes) {
+        this.nodes = nodes;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(int node, float f) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        nodes.f[node] = f;
+        heap[size] = node;
+        nodes.heapIndex[node] = size;
+        siftUp(size++);
+    }
+
+    void decrease(int node, float f) {
+        nodes.f[node] = f;
+        siftUp(nodes.heapIndex[node]);
+    }
+
+    int pop() {
+        int top = heap[0];
+        nodes.heapIndex[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            nodes.heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        float f = nodes.f[node];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (nodes.f[parent] <= f) {
+                break;
+            }
+            heap[index] = parent;
+            nodes.heapIndex[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        nodes.heapIndex[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        float f = nodes.f[node];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && nodes.f[heap[child + 1]] < nodes.f[heap[child]]) {
+                child++;
+            }
+            if (nodes.f[heap[child]] >= f) {
+                break;
+            }
+            heap[index] = heap[child];
+            nodes.heapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = node;
+        nodes.heapIndex[node] = index;
+    }
+}
@@ -0,0 +1,109 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.CampfireBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.shapes.VoxelShape;
+
+/**
+ * How a Steve can move through a block state, cached per state id.
+ * Flags only depend on the state itself (collision shape, fluid, hardness), never on the position,
+ * so they are computed once and read lock-free from path search threads.
+ */
+public class Passability {
+    public static final byte PASSABLE = 1;   // No collision, can be walked through
+    public static final byte STANDABLE = 2;  // Collision top no higher than a full block, can be stood on
+    public static final byte LIQUID = 4;     // Passable fluid, swum through
+    public static final byte DANGER = 8;     // Hurts on contact (lava, fire, cactus...)
+    public static final byte DIGGABLE = 16;  // Solid but cheap enough to dig through
+    public static final byte CLIMBABLE = 32; // Ladders, vines, scaffolding
+    private static final byte COMPUTED = (byte) 0x80;
+
+    private static final float MAX_DIG_HARDNESS = 5.0f; // Iron ore is 3, obsidian (50) is left alone
+
+    private static final byte[] cache = new byte[Block.BLOCK_STATE_REGISTRY.size()];
+
+    /**
+     * Flags of a state; null (unknown or unloaded) is treated as a solid wall
+     */
+    public static byte of(BlockState state) {
+        if (state == null) {
+            return COMPUTED;
+        }
+        int id = Block.getId(state);
+        if (id < 0 || id >= cache.length) {
+            return compute(state);
+        }
+        byte flags = cache[id];
+        if (flags == 0) {
+            // Racing threads compute the same value, so a plain write is fine
+            flags = compute(state);
+            cache[id] = flags;
+        }
+        return flags;
+    }
+
+    public static boolean is(byte flags, byte flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * Path cost of digging a state out, in blocks walked
+     */
+    public static float digCost(BlockState state) {
+        return 1.0f + state.getDestroySpeed(EmptyBlockGetter.INSTANCE, BlockPos.ZERO) * 2.5f;
+    }
+
+    /**
+     * Ticks a Steve spends breaking a state with its bare hands
+     */
+    public static int digTicks(BlockState state) {
+        return Math.max(2, Math.round(state.getDestroySpeed(EmptyBlockGetter.INSTANCE, BlockPos.ZERO) * 8.0f));
+    }
+
+    private static byte compute(BlockState state) {
+        byte flags = COMPUTED;
+        VoxelShape shape = state.getCollisionShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+        FluidState fluid = state.getFluidState();
+
+        if (isDangerous(state, fluid)) {
+            flags |= DANGER;
+        }
+        if (shape.isEmpty()) {
+            flags |= PASSABLE;
+            if (!fluid.isEmpty()) {
+                flags |= LIQUID;
+            }
+        } else if (shape.max(Direction.Axis.Y) <= 1.0) {
+            flags |= STANDABLE; // Fences and walls (1.5 high) can neither be crossed nor stood on
+        }
+        if (state.is(BlockTags.CLIMBABLE)) {
+            flags |= CLIMBABLE;
+        }
+
+        float hardness = state.getDestroySpeed(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+        if (!shape.isEmpty() && hardness >= 0 && hardness <= MAX_DIG_HARDNESS
+                && !state.hasBlockEntity() && fluid.isEmpty()) {
+            flags |= DIGGABLE;
+        }
+        return flags;
+    }
+
+    private static boolean isDangerous(BlockState state, FluidState fluid) {
+        if (fluid.is(FluidTags.LAVA)) {
+            return true;
+        }
+        if (state.is(BlockTags.FIRE) || state.is(Blocks.MAGMA_BLOCK) || state.is(Blocks.CACTUS)
+                || state.is(Blocks.SWEET_BERRY_BUSH) || state.is(Blocks.WITHER_ROSE) || state.is(Blocks.POWDER_SNOW)) {
+            return true;
+        }
+        return state.getBlock() instanceof CampfireBlock && state.getValue(CampfireBlock.LIT);
+    }
+}
@@ -0,0 +1,255 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Paths found recently by any Steve in a level, so Steves heading the same way (to the same player,
+ * back from the same mine, to the same build site) do not each search for them.
+ * Entries are indexed by their start and goal quantized to 8-block cells. A lookup takes any entry
+ * from the same start cell or to the same goal cell that passes right next to the requester's start and
+ * later near its goal, and splices out the piece in between: the whole path, a suffix (joining it
+ * midway) or a prefix (leaving it early). Entries are dropped when a block changes inside their
+ * bounding box, and expire after MAX_AGE ticks. Server thread only.
+ */
+public class PathCache {
+    private static final int CELL_SHIFT = 3; // 8-block cells
+    private static final int MAX_ENTRIES = 256;
+    private static final long MAX_AGE = 1200;
+
+    private static final Map<ResourceKey<Level>, PathCache> caches = new ConcurrentHashMap<>();
+
+    private final Map<Long, List<Entry>> byStartCell = new HashMap<>();
+    private final Map<Long, List<Entry>> byGoalCell = new HashMap<>();
+    private final Map<Long, List<Entry>> bySection = new HashMap<>();
+    private final Deque<Entry> entries = new ArrayDeque<>(); // Oldest first
+    private int hits;
+    private int misses;
+
+    private static class Entry {
+        final NavPath path;
+        final long startCell;
+        final long goalCell;
+        final long[] sections;
+        final long created;
+        final int minX, minY, minZ, maxX, maxY, maxZ; // Nodes' bounding box, grown by the floor and headroom
+
+        Entry(NavPath path, long created) {
+            this.path = path;
+            this.created = created;
+            this.startCell = cell(path.getPos(0));
+            this.goalCell = cell(path.getTarget());
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+            Set<Long> sections = new HashSet<>();
+            for (int i = 0; i < path.size(); i++) {
+                long pos = path.getPackedPos(i);
+                int x = BlockPos.getX(pos), y = BlockPos.getY(pos), z = BlockPos.getZ(pos);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y - 1);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y + 2);
+                maxZ = Math.max(maxZ, z);
+                // Floor to headroom spans at most two sections, so its two ends cover them
+                for (int dy = -1; dy <= 2; dy += 3) {
+                    sections.add(SectionPos.asLong(x >> 4, (y + dy) >> 4, z >> 4));
+                }
+            }
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.sections = sections.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        boolean contains(BlockPos pos) {
+            return pos.getX() >= minX && pos.getX() <= maxX && pos.getY() >= minY && pos.getY() <= maxY
+                && pos.getZ() >= minZ && pos.getZ() <= maxZ;
+        }
+    }
+
+    public static PathCache get(ServerLevel level) {
+        return caches.computeIfAbsent(level.dimension(), key -> new PathCache());
+    }
+
+    /**
+     * Forget a level's paths when it unloads; their ages are in its game time
+     */
+    public static void unload(ServerLevel level) {
+        caches.remove(level.dimension());
+    }
+
+    private static long cell(BlockPos pos) {
+        return BlockPos.asLong(pos.getX() >> CELL_SHIFT, pos.getY() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT);
+    }
+
+    /**
+     * A cached path, or a spliced piece of one, from start to within a block of goal; null on a miss
+     */
+    public NavPath lookup(BlockPos start, BlockPos goal, long gameTime) {
+        Set<Entry> candidates = new LinkedHashSet<>(byGoalCell.getOrDefault(cell(goal), List.of()));
+        candidates.addAll(byStartCell.getOrDefault(cell(start), List.of()));
+        for (Entry entry : candidates) {
+            if (isExpired(entry, gameTime)) {
+                continue;
+            }
+            NavPath spliced = splice(entry.path, start, goal);
+            if (spliced != null) {
+                hits++;
+                return spliced;
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * The piece of a path from the node latest next to start to the first node after it near goal
+     */
+    private static NavPath splice(NavPath path, BlockPos start, BlockPos goal) {
+        int from = -1;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            if (isAdjacent(path.getPos(i), start)) {
+                from = i;
+                break;
+            }
+        }
+        if (from < 0) {
+            return null;
+        }
+        int to = -1;
+        for (int i = from; i < path.size(); i++) {
+            BlockPos pos = path.getPos(i);
+            if (Math.abs(pos.getX() - goal.getX()) <= 1 && Math.abs(pos.getZ() - goal.getZ()) <= 1
+                    && Math.abs(pos.getY() - goal.getY()) <= 2) {
+                to = i;
+                break;
+            }
+        }
+        if (to < 0) {
+            return null;
+        }
+
+        boolean joinsAtStart = path.getPos(from).equals(start);
+        int length = to - from + (joinsAtStart ? 1 : 2);
+        long[] positions = new long[length];
+        NavPath.Move[] moves = new NavPath.Move[length];
+        positions[0] = start.asLong();
+        moves[0] = NavPath.Move.START;
+        int k = 1;
+        for (int i = joinsAtStart ? from + 1 : from; i <= to; i++, k++) {
+            positions[k] = path.getPackedPos(i);
+            moves[k] = path.getMove(i);
+        }
+        if (!joinsAtStart) {
+            moves[1] = joinMove(path.getMove(from), start, path.getPos(from));
+        }
+        return new NavPath(positions, moves, goal.immutable(), false, 0);
+    }
+
+    private static boolean isAdjacent(BlockPos a, BlockPos b) {
+        return Math.abs(a.getX() - b.getX()) + Math.abs(a.getZ() - b.getZ()) <= 1 && Math.abs(a.getY() - b.getY()) <= 1;
+    }
+
+    /**
+     * Move that steps from the requester's start onto the path; digging still has to happen where planned
+     */
+    private static NavPath.Move joinMove(NavPath.Move original, BlockPos start, BlockPos node) {
+        if (original == NavPath.Move.DIG || original == NavPath.Move.DIG_DOWN) {
+            return original;
+        }
+        int dy = node.getY() - start.getY();
+        if (dy > 0) {
+            return start.getX() == node.getX() && start.getZ() == node.getZ() ? NavPath.Move.PILLAR : NavPath.Move.ASCEND;
+        }
+        return dy < 0 ? NavPath.Move.DESCEND : NavPath.Move.WALK;
+    }
+
+    private static boolean isExpired(Entry entry, long gameTime) {
+        long age = gameTime - entry.created;
+        return age > MAX_AGE || age < 0; // Negative when the entry outlived the world it was found in
+    }
+
+    /**
+     * Remember a freshly searched path for the others; partial paths are not worth sharing
+     */
+    public void store(NavPath path, long gameTime) {
+        if (path.isPartial() || path.size() < 2) {
+            return;
+        }
+        Entry entry = new Entry(path, gameTime);
+        entries.addLast(entry);
+        byStartCell.computeIfAbsent(entry.startCell, key -> new ArrayList<>()).add(entry);
+        byGoalCell.computeIfAbsent(entry.goalCell, key -> new ArrayList<>()).add(entry);
+        for (long section : entry.sections) {
+            bySection.computeIfAbsent(section, key -> new ArrayList<>()).add(entry);
+        }
+        while (entries.size() > MAX_ENTRIES || isExpired(entries.peekFirst(), gameTime)) {
+            remove(entries.peekFirst());
+        }
+    }
+
+    /**
+     * A block changed; drop the paths whose corridor it is in
+     */
+    public static void invalidate(Level level, BlockPos pos) {
+        PathCache cache = caches.get(level.dimension());
+        if (cache == null) {
+            return;
+        }
+        List<Entry> inSection = cache.bySection.get(SectionPos.asLong(pos));
+        if (inSection == null) {
+            return;
+        }
+        for (Entry entry : new ArrayList<>(inSection)) {
+            if (entry.contains(pos)) {
+                cache.remove(entry);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry);
+        removeFrom(byStartCell, entry.startCell, entry);
+        removeFrom(byGoalCell, entry.goalCell, entry);
+        for (long section : entry.sections) {
+            removeFrom(bySection, section, entry);
+        }
+    }
+
+    private static void removeFrom(Map<Long, List<Entry>> index, long key, Entry entry) {
+        List<Entry> list = index.get(key);
+        if (list != null) {
+            list.remove(entry);
+            if (list.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        int total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
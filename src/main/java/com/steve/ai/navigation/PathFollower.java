@@ -0,0 +1,210 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Walks a Steve along a NavPath one node per step, ticked on the server thread.
+ * Moves go through the entity's MoveControl; dig nodes break their blocks first (taking time
+ * according to hardness) and pillar nodes jump and place a block underneath. The world may have
+ * changed since the snapshot was taken, so each node is re-checked live and the follower reports
+ * BLOCKED or STUCK instead of pushing into a wall, leaving the replanning to its owner.
+ * On flat runs of walking nodes the Steve heads straight for the furthest node PathSmoother finds a clear
+ * line to, instead of stepping from cell to cell.
+ */
+public class PathFollower {
+    public enum Status {
+        FOLLOWING,
+        FINISHED,
+        STUCK,   // No progress towards the current node for a while
+        BLOCKED  // The next node is no longer passable and the path did not plan to dig it
+    }
+
+    private static final double SPEED = 1.0;
+    private static final double ARRIVE_DISTANCE_SQR = 0.35 * 0.35;
+    private static final int LOOKAHEAD = 3; // Later nodes checked for arrival, e.g. after an unplanned fall
+    private static final int STUCK_TICKS = 60;
+    private static final int MAX_SHORTCUT = 12; // Walking nodes one straight line may skip
+    private static final BlockState PILLAR_BLOCK = Blocks.COBBLESTONE.defaultBlockState();
+
+    private final SteveEntity steve;
+    private final NavPath path;
+    private int index = 1;
+    private int steerIndex = -1; // Node headed for straight on a walking run, -1 when not worked out for this index
+    private int digTicksLeft = -1;
+    private BlockPos digging;
+    private double bestDistanceSqr = Double.MAX_VALUE;
+    private int ticksWithoutProgress;
+
+    public PathFollower(SteveEntity steve, NavPath path) {
+        this.steve = steve;
+        this.path = path;
+    }
+
+    public Status tick() {
+        advancePastReachedNodes();
+        if (index >= path.size()) {
+            return Status.FINISHED;
+        }
+
+        Level level = steve.level();
+        if (steerIndex < index) {
+            steerIndex = furthestStraight(level);
+        }
+        BlockPos node = path.getPos(steerIndex);
+        NavPath.Move move = path.getMove(index);
+
+        switch (move) {
+            case DIG -> {
+                if (dig(level, node) || dig(level, node.above())) {
+                    return Status.FOLLOWING;
+                }
+            }
+            case DIG_DOWN -> {
+                if (dig(level, node)) {
+                    return Status.FOLLOWING;
+                }
+            }
+            case PILLAR -> {
+                return pillar(level, node);
+            }
+            default -> {
+                if (!isClear(level, node) || !isClear(level, node.above())) {
+                    return Status.BLOCKED;
+                }
+            }
+        }
+
+        double x = node.getX() + 0.5, z = node.getZ() + 0.5;
+        steve.getMoveControl().setWantedPosition(x, node.getY(), z, SPEED);
+        steve.getLookControl().setLookAt(x, node.getY() + 1.0, z);
+        double dx = x - steve.getX(), dz = z - steve.getZ();
+        if ((move == NavPath.Move.ASCEND || move == NavPath.Move.CLIMB) && steve.onGround() && dx * dx + dz * dz < 1.5 * 1.5) {
+            steve.getJumpControl().jump();
+        }
+        return checkProgress(node);
+    }
+
+    /**
+     * Last node of the walking run ahead that can be reached in a straight line from where the Steve stands
+     */
+    private int furthestStraight(Level level) {
+        BlockPos first = path.getPos(index);
+        if (path.getMove(index) != NavPath.Move.WALK || !steve.onGround() || Math.abs(steve.getY() - first.getY()) > 0.01) {
+            return index;
+        }
+        int furthest = index;
+        int last = Math.min(path.size() - 1, index + MAX_SHORTCUT);
+        for (int i = index + 1; i <= last; i++) {
+            BlockPos node = path.getPos(i);
+            if (path.getMove(i) != NavPath.Move.WALK || node.getY() != first.getY()
+                    || !PathSmoother.isStraight(level, steve.getX(), node.getY(), steve.getZ(),
+                        node.getX() + 0.5, node.getY(), node.getZ() + 0.5, false)) {
+                break;
+            }
+            furthest = i;
+        }
+        return furthest;
+    }
+
+    /**
+     * Break a block that is in the way, spending its dig time first.
+     * @return true while still digging
+     */
+    private boolean dig(Level level, BlockPos pos) {
+        BlockState state = level.getBlockState(pos);
+        if (isClear(level, pos)) {
+            return false;
+        }
+        if (!pos.equals(digging)) {
+            digging = pos;
+            digTicksLeft = Passability.digTicks(state);
+            ticksWithoutProgress = 0;
+        }
+        steve.getLookControl().setLookAt(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5);
+        if (digTicksLeft % 5 == 0) {
+            steve.swing(InteractionHand.MAIN_HAND, true);
+        }
+        if (--digTicksLeft <= 0) {
+            level.destroyBlock(pos, true, steve);
+            digging = null;
+        }
+        return true;
+    }
+
+    /**
+     * Jump and, once high enough, place a block where the feet were
+     */
+    private Status pillar(Level level, BlockPos node) {
+        BlockPos support = node.below();
+        if (!isClear(level, node) || !isClear(level, node.above())) {
+            return Status.BLOCKED;
+        }
+        if (Passability.is(Passability.of(level.getBlockState(support)), Passability.STANDABLE)) {
+            return checkProgress(node); // Placed; wait to land on it
+        }
+        steve.getMoveControl().setWantedPosition(node.getX() + 0.5, node.getY(), node.getZ() + 0.5, SPEED);
+        if (steve.onGround()) {
+            steve.getJumpControl().jump();
+        } else if (steve.getY() >= node.getY() && level.getBlockState(support).canBeReplaced()) {
+            level.setBlock(support, PILLAR_BLOCK, Block.UPDATE_ALL);
+            steve.swing(InteractionHand.MAIN_HAND, true);
+        }
+        return checkProgress(node);
+    }
+
+    private void advancePastReachedNodes() {
+        int last = Math.min(path.size() - 1, Math.max(index, steerIndex) + LOOKAHEAD);
+        for (int i = last; i >= index; i--) {
+            if (isAt(path.getPos(i))) {
+                index = i + 1;
+                if (steerIndex < index) {
+                    // Passing the nodes in the middle of a straight line keeps heading for its end
+                    bestDistanceSqr = Double.MAX_VALUE;
+                    ticksWithoutProgress = 0;
+                }
+                digging = null;
+                return;
+            }
+        }
+    }
+
+    private boolean isAt(BlockPos node) {
+        double dx = node.getX() + 0.5 - steve.getX();
+        double dz = node.getZ() + 0.5 - steve.getZ();
+        double dy = steve.getY() - node.getY();
+        return dx * dx + dz * dz < ARRIVE_DISTANCE_SQR && dy > -0.5 && dy < 0.75;
+    }
+
+    private Status checkProgress(BlockPos node) {
+        double distanceSqr = steve.distanceToSqr(node.getX() + 0.5, node.getY(), node.getZ() + 0.5);
+        if (distanceSqr < bestDistanceSqr - 0.01) {
+            bestDistanceSqr = distanceSqr;
+            ticksWithoutProgress = 0;
+        } else if (++ticksWithoutProgress > STUCK_TICKS) {
+            return Status.STUCK;
+        }
+        return Status.FOLLOWING;
+    }
+
+    private static boolean isClear(Level level, BlockPos pos) {
+        byte flags = Passability.of(level.getBlockState(pos));
+        return Passability.is(flags, Passability.PASSABLE) && !Passability.is(flags, Passability.DANGER);
+    }
+
+    public NavPath getPath() {
+        return path;
+    }
+
+    /**
+     * Index of the node currently being moved to
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,113 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.Node;
+import net.minecraft.world.level.pathfinder.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * String-pulling for grid paths: drops the nodes a Steve can skip by heading straight for a later one.
+ * A straight segment is accepted when the four corners of the Steve's footprint, swept along it, only
+ * pass through clear cells (and, when walking, over solid floor at a constant height), so the shortcut
+ * is as safe as the steps it replaces. Flying Steves may also cut through changes in height. Reads the
+ * live level, so server thread only.
+ */
+public class PathSmoother {
+    private static final int MAX_SKIP = 12; // Nodes one straight segment may replace
+    private static final double STEP = 0.25;
+    private static final double HALF_WIDTH = 0.3; // Steve's bounding box is 0.6 wide
+
+    /**
+     * Vanilla path with the skippable nodes removed; node types other than plain walking or open air are kept
+     * as they are, since navigation handles them on arrival
+     */
+    public static Path smooth(Level level, Path path, boolean flying) {
+        if (path.getNodeCount() < 3) {
+            return path;
+        }
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(path.getNode(0));
+        int anchor = 0;
+        while (anchor < path.getNodeCount() - 1) {
+            Node from = path.getNode(anchor);
+            int furthest = anchor + 1;
+            int last = Math.min(path.getNodeCount() - 1, anchor + MAX_SKIP);
+            for (int j = anchor + 2; j <= last; j++) {
+                Node skipped = path.getNode(j - 1);
+                Node to = path.getNode(j);
+                if (!isSkippable(skipped, from, flying) || (!flying && to.y != from.y)
+                        || !isStraight(level, from.x + 0.5, from.y, from.z + 0.5, to.x + 0.5, to.y, to.z + 0.5, flying)) {
+                    break;
+                }
+                furthest = j;
+            }
+            nodes.add(path.getNode(furthest));
+            anchor = furthest;
+        }
+        if (nodes.size() == path.getNodeCount()) {
+            return path;
+        }
+        return new Path(nodes, path.getTarget(), path.canReach());
+    }
+
+    private static boolean isSkippable(Node node, Node from, boolean flying) {
+        if (flying) {
+            return node.type == BlockPathTypes.WALKABLE || node.type == BlockPathTypes.OPEN;
+        }
+        return node.type == BlockPathTypes.WALKABLE && node.y == from.y;
+    }
+
+    /**
+     * Whether a Steve can move in a straight line between two feet positions without touching anything solid
+     * or dangerous; walking also needs the two at the same height and standable floor all the way
+     */
+    public static boolean isStraight(Level level, double fromX, double fromY, double fromZ,
+                                     double toX, double toY, double toZ, boolean flying) {
+        double dx = toX - fromX, dy = toY - fromY, dz = toZ - fromZ;
+        if (!flying && Math.abs(dy) > 1.0E-3) {
+            return false;
+        }
+        int steps = Math.max(1, (int) Math.ceil(Math.sqrt(dx * dx + dy * dy + dz * dz) / STEP));
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        long lastCell = Long.MIN_VALUE;
+        for (int i = 0; i <= steps; i++) {
+            double t = (double) i / steps;
+            double x = fromX + dx * t, y = fromY + dy * t, z = fromZ + dz * t;
+            for (int corner = 0; corner < 4; corner++) {
+                int cx = (int) Math.floor(x + ((corner & 1) == 0 ? -HALF_WIDTH : HALF_WIDTH));
+                int cz = (int) Math.floor(z + ((corner & 2) == 0 ? -HALF_WIDTH : HALF_WIDTH));
+                int cy = (int) Math.floor(y);
+                long cell = BlockPos.asLong(cx, cy, cz);
+                if (cell == lastCell) {
+                    continue;
+                }
+                lastCell = cell;
+                if (!isClear(level, pos.set(cx, cy, cz)) || !isClear(level, pos.set(cx, cy + 1, cz))) {
+                    return false;
+                }
+                if (flying && y - cy > 0.2 && !isClear(level, pos.set(cx, cy + 2, cz))) {
+                    return false; // Between heights the head pokes into a third block
+                }
+                if (!flying && !isFloor(level, pos.set(cx, cy - 1, cz))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isClear(Level level, BlockPos pos) {
+        byte flags = Passability.of(level.getBlockState(pos));
+        return Passability.is(flags, Passability.PASSABLE) && !Passability.is(flags, Passability.LIQUID)
+            && !Passability.is(flags, Passability.DANGER);
+    }
+
+    private static boolean isFloor(Level level, BlockPos pos) {
+        byte flags = Passability.of(level.getBlockState(pos));
+        return Passability.is(flags, Passability.STANDABLE) && !Passability.is(flags, Passability.DANGER);
+    }
+}
@@ -0,0 +1,144 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Block path types that vanilla navigation worked out for Steves, kept across searches and Steves.
+ * One byte per block per movement mode (0 = not known yet, otherwise the type's ordinal + 1), in a
+ * 4096-byte table per chunk section that is only allocated once a mode looks at that section. A block
+ * change forgets the 3x3x3 cells around it, since a cell's type also depends on its floor and on the
+ * danger of its neighbours. Least recently used sections are dropped past MAX_SECTIONS. Server thread only.
+ */
+public class PathTypeCache {
+    private static final int MAX_SECTIONS = 2048;
+    private static final BlockPathTypes[] TYPES = BlockPathTypes.values();
+
+    public enum Mode {
+        WALK,
+        SWIM,
+        FLY
+    }
+
+    private static final Map<ResourceKey<Level>, PathTypeCache> caches = new ConcurrentHashMap<>();
+
+    private final Map<Long, byte[][]> sections = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[][]> eldest) {
+            if (size() <= MAX_SECTIONS) {
+                return false;
+            }
+            if (eldest.getValue() == lastTables) {
+                lastKey = Long.MIN_VALUE;
+            }
+            return true;
+        }
+    };
+    private long lastKey = Long.MIN_VALUE;
+    private byte[][] lastTables;
+    private long hits;
+    private long misses;
+
+    public static PathTypeCache get(ServerLevel level) {
+        return caches.computeIfAbsent(level.dimension(), key -> new PathTypeCache());
+    }
+
+    /**
+     * Forget a level's path types when it unloads
+     */
+    public static void unload(ServerLevel level) {
+        caches.remove(level.dimension());
+    }
+
+    /**
+     * Cached type of a block for a mode, or null when it has not been computed since it last changed
+     */
+    public BlockPathTypes getType(Mode mode, int x, int y, int z) {
+        byte[][] tables = tables(x, y, z, false);
+        byte[] table = tables == null ? null : tables[mode.ordinal()];
+        if (table == null || table[index(x, y, z)] == 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return TYPES[table[index(x, y, z)] - 1];
+    }
+
+    public void putType(Mode mode, int x, int y, int z, BlockPathTypes type) {
+        byte[][] tables = tables(x, y, z, true);
+        byte[] table = tables[mode.ordinal()];
+        if (table == null) {
+            table = new byte[4096];
+            tables[mode.ordinal()] = table;
+        }
+        table[index(x, y, z)] = (byte) (type.ordinal() + 1);
+    }
+
+    private byte[][] tables(int x, int y, int z, boolean create) {
+        long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        // Searches probe neighbouring blocks, so consecutive lookups usually share a section
+        if (key == lastKey) {
+            return lastTables;
+        }
+        byte[][] tables = sections.get(key);
+        if (tables == null && create) {
+            tables = new byte[Mode.values().length][];
+            sections.put(key, tables);
+        }
+        if (tables != null) {
+            lastKey = key;
+            lastTables = tables;
+        }
+        return tables;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * A block changed; forget the types of every cell it can affect
+     */
+    public static void invalidate(Level level, BlockPos pos) {
+        PathTypeCache cache = caches.get(level.dimension());
+        if (cache == null) {
+            return;
+        }
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    int x = pos.getX() + dx, y = pos.getY() + dy, z = pos.getZ() + dz;
+                    byte[][] tables = cache.sections.get(SectionPos.asLong(x >> 4, y >> 4, z >> 4));
+                    if (tables == null) {
+                        continue;
+                    }
+                    for (byte[] table : tables) {
+                        if (table != null) {
+                            table[index(x, y, z)] = 0;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
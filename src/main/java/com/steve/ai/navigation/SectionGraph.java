@@ -0,0 +1,168 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.util.SteveExecutors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Per-level cache of SectionSummary, the abstract graph long trips are planned on.
+ * Summaries are built lazily: a search that touches a section without one treats it as unknown and
+ * requests it, and tick() copies up to BUILDS_PER_TICK requested sections (if their chunk is loaded)
+ * and summarises them on the pathfinding pool. Block changes drop only the summary of the section they
+ * are in (and the one above or below when on its edge), so the graph is repaired incrementally the next
+ * time someone paths through. Summaries nobody used for a while are evicted once the cache is large.
+ */
+public class SectionGraph {
+    private static final int BUILDS_PER_TICK = 16;
+    private static final int MAX_SECTIONS = 32768; // Cached summaries before unused ones are evicted
+    private static final long UNUSED_TICKS = 6000;
+
+    private static final Map<ResourceKey<Level>, SectionGraph> graphs = new ConcurrentHashMap<>();
+
+    private final Map<Long, SectionSummary> summaries = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> generations = new ConcurrentHashMap<>(); // Bumped on invalidation
+    private final Set<Long> requested = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> buildQueue = new ConcurrentLinkedQueue<>();
+    private final int minSectionY;
+    private final int maxSectionY;
+    private volatile long gameTime;
+
+    private SectionGraph(ServerLevel level) {
+        this.minSectionY = level.getMinSection();
+        this.maxSectionY = level.getMaxSection() - 1;
+    }
+
+    public static SectionGraph get(ServerLevel level) {
+        return graphs.computeIfAbsent(level.dimension(), key -> new SectionGraph(level));
+    }
+
+    /**
+     * Forget a level's graph when it unloads
+     */
+    public static void unload(ServerLevel level) {
+        graphs.remove(level.dimension());
+    }
+
+    /**
+     * Summary of a section, or null if it is not known yet; unknown sections are queued for building.
+     * Safe to call from search threads.
+     */
+    public SectionSummary getSummary(int sectionX, int sectionY, int sectionZ) {
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        SectionSummary summary = summaries.get(key);
+        if (summary != null) {
+            summary.lastUsed = gameTime;
+            return summary;
+        }
+        if (requested.add(key)) {
+            buildQueue.add(key);
+        }
+        return null;
+    }
+
+    public boolean isInWorld(int sectionY) {
+        return sectionY >= minSectionY && sectionY <= maxSectionY;
+    }
+
+    /**
+     * A block changed; forget what the graph knew about the sections it affects
+     */
+    public static void invalidate(Level level, BlockPos pos) {
+        SectionGraph graph = graphs.get(level.dimension());
+        if (graph == null) {
+            return;
+        }
+        graph.drop(SectionPos.asLong(pos));
+        // Walkability at the bottom of a section depends on the floor below it, and at the top on the headroom above
+        int localY = pos.getY() & 15;
+        if (localY == 15) {
+            graph.drop(SectionPos.asLong(SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()) + 1, SectionPos.blockToSectionCoord(pos.getZ())));
+        } else if (localY == 0) {
+            graph.drop(SectionPos.asLong(SectionPos.blockToSectionCoord(pos.getX()),
+                SectionPos.blockToSectionCoord(pos.getY()) - 1, SectionPos.blockToSectionCoord(pos.getZ())));
+        }
+    }
+
+    private void drop(long key) {
+        if (summaries.remove(key) != null || requested.contains(key)) {
+            generations.merge(key, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Called at the end of every server tick for each level
+     */
+    public static void tick(ServerLevel level) {
+        SectionGraph graph = graphs.get(level.dimension());
+        if (graph == null) {
+            return;
+        }
+        graph.gameTime = level.getGameTime();
+        for (int i = 0; i < BUILDS_PER_TICK; i++) {
+            Long key = graph.buildQueue.poll();
+            if (key == null) {
+                break;
+            }
+            graph.startBuild(level, key);
+        }
+        if (graph.gameTime % 200 == 0) {
+            graph.evictUnused();
+        }
+    }
+
+    private void startBuild(ServerLevel level, long key) {
+        int sectionX = SectionPos.x(key), sectionY = SectionPos.y(key), sectionZ = SectionPos.z(key);
+        if (level.getChunkSource().getChunkNow(sectionX, sectionZ) == null) {
+            requested.remove(key); // Stays unknown until loaded; asked for again by the next search through it
+            return;
+        }
+
+        // The section plus a couple of blocks above and below for floors and headroom
+        BlockPos center = SectionPos.of(sectionX, sectionY, sectionZ).center();
+        NavigationSnapshot snapshot = NavigationSnapshot.captureCorridor(level, center, center, 0, 10);
+        int generation = generations.getOrDefault(key, 0);
+        CompletableFuture.supplyAsync(() -> SectionSummary.build(snapshot, sectionX, sectionY, sectionZ),
+                SteveExecutors.pathfinding())
+            .whenComplete((summary, error) -> {
+                if (error != null) {
+                    SteveMod.LOGGER.error("Failed to summarise section {} {} {}", sectionX, sectionY, sectionZ, error);
+                } else {
+                    summary.lastUsed = gameTime;
+                    summaries.put(key, summary);
+                    if (generations.getOrDefault(key, 0) != generation) {
+                        summaries.remove(key, summary); // Changed while we were building it
+                    }
+                }
+                requested.remove(key);
+            });
+    }
+
+    private void evictUnused() {
+        if (summaries.size() > MAX_SECTIONS) {
+            long cutoff = gameTime - UNUSED_TICKS;
+            summaries.values().removeIf(summary -> summary.lastUsed < cutoff);
+            SteveMod.LOGGER.debug("Section graph trimmed to {} summaries", summaries.size());
+        }
+        generations.keySet().removeIf(key -> !summaries.containsKey(key) && !requested.contains(key));
+    }
+
+    public int getSummaryCount() {
+        return summaries.size();
+    }
+
+    public int getPendingCount() {
+        return requested.size();
+    }
+}
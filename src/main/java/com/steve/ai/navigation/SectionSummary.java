@@ -0,0 +1,277 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Walkable entrances ("portals") on the six faces of one 16x16x16 section and the walking cost between
+ * them inside the section. A portal is a connected run of walkable cells on one face; portals of
+ * neighbouring sections connect when their runs touch. These are the nodes and edges of the abstract
+ * graph AbstractPathfinder searches. Built on a worker from a NavigationSnapshot holding the section and
+ * the ones above and below it; immutable afterwards.
+ */
+public class SectionSummary {
+    public static final int MAX_PORTALS = 64;
+    private static final int MAX_DROP = 3;
+
+    final int sectionX;
+    final int sectionY;
+    final int sectionZ;
+    final Portal[] portals;
+    private final float[] costs; // portals x portals, infinite when not connected inside the section
+    volatile long lastUsed; // Game time, for evicting sections nobody paths through
+
+    /**
+     * A run of walkable cells on one face. Face cells are indexed v * 16 + u, see faceCell.
+     */
+    static class Portal {
+        final Direction face;
+        final long[] mask;
+        final long[] reach; // mask grown by the cells a single move across the face can come from
+        final long pos; // Representative walkable cell near the middle of the run, packed BlockPos
+        final int[] cells; // Local cell indices of the run
+
+        Portal(Direction face, long[] mask, long[] reach, long pos, int[] cells) {
+            this.face = face;
+            this.mask = mask;
+            this.reach = reach;
+            this.pos = pos;
+            this.cells = cells;
+        }
+
+        /**
+         * Whether a walker can cross from this portal into a portal on the facing side of the neighbour
+         */
+        boolean connects(Portal other) {
+            for (int i = 0; i < 4; i++) {
+                if ((mask[i] & other.reach[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private SectionSummary(int sectionX, int sectionY, int sectionZ, Portal[] portals, float[] costs) {
+        this.sectionX = sectionX;
+        this.sectionY = sectionY;
+        this.sectionZ = sectionZ;
+        this.portals = portals;
+        this.costs = costs;
+    }
+
+    float cost(int from, int to) {
+        return costs[from * portals.length + to];
+    }
+
+    public int getPortalCount() {
+        return portals.length;
+    }
+
+    public static SectionSummary build(NavigationSnapshot snapshot, int sectionX, int sectionY, int sectionZ) {
+        int baseX = sectionX << 4, baseY = sectionY << 4, baseZ = sectionZ << 4;
+        boolean[] walkable = new boolean[4096];
+        for (int i = 0; i < 4096; i++) {
+            int x = baseX + (i & 15), z = baseZ + ((i >> 4) & 15), y = baseY + (i >> 8);
+            walkable[i] = snapshot.canOccupy(x, y, z) && snapshot.canStand(x, y, z);
+        }
+
+        List<Portal> portals = new ArrayList<>();
+        for (Direction face : Direction.values()) {
+            findPortals(face, walkable, baseX, baseY, baseZ, portals);
+        }
+        if (portals.size() > MAX_PORTALS) {
+            portals = portals.subList(0, MAX_PORTALS);
+        }
+
+        int count = portals.size();
+        float[] costs = new float[count * count];
+        Arrays.fill(costs, Float.POSITIVE_INFINITY);
+        int[] distance = new int[4096];
+        int[] queue = new int[4096];
+        for (int p = 0; p < count; p++) {
+            walkDistances(snapshot, walkable, portals.get(p).cells, baseX, baseY, baseZ, distance, queue);
+            for (int q = 0; q < count; q++) {
+                int best = Integer.MAX_VALUE;
+                for (int cell : portals.get(q).cells) {
+                    if (distance[cell] >= 0) {
+                        best = Math.min(best, distance[cell]);
+                    }
+                }
+                if (best != Integer.MAX_VALUE) {
+                    costs[p * count + q] = best;
+                }
+            }
+        }
+        return new SectionSummary(sectionX, sectionY, sectionZ, portals.toArray(new Portal[0]), costs);
+    }
+
+    /**
+     * Local cell index (x | z << 4 | y << 8) of face coordinate (u, v)
+     */
+    private static int faceCell(Direction face, int u, int v) {
+        return switch (face) {
+            case DOWN -> u | v << 4;
+            case UP -> u | v << 4 | 15 << 8;
+            case NORTH -> u | v << 8;
+            case SOUTH -> u | 15 << 4 | v << 8;
+            case WEST -> u << 4 | v << 8;
+            case EAST -> 15 | u << 4 | v << 8;
+        };
+    }
+
+    private static void findPortals(Direction face, boolean[] walkable, int baseX, int baseY, int baseZ, List<Portal> portals) {
+        boolean[] open = new boolean[256];
+        for (int i = 0; i < 256; i++) {
+            open[i] = walkable[faceCell(face, i & 15, i >> 4)];
+        }
+        int[] stack = new int[256];
+        for (int seed = 0; seed < 256; seed++) {
+            if (!open[seed]) {
+                continue;
+            }
+            // Flood the run, 8-connected so a staircase along the face stays one portal
+            long[] mask = new long[4];
+            List<Integer> run = new ArrayList<>();
+            int top = 0;
+            stack[top++] = seed;
+            open[seed] = false;
+            long sumU = 0, sumV = 0;
+            while (top > 0) {
+                int cell = stack[--top];
+                run.add(cell);
+                mask[cell >> 6] |= 1L << (cell & 63);
+                int u = cell & 15, v = cell >> 4;
+                sumU += u;
+                sumV += v;
+                for (int dv = -1; dv <= 1; dv++) {
+                    for (int du = -1; du <= 1; du++) {
+                        int nu = u + du, nv = v + dv;
+                        if (nu < 0 || nu > 15 || nv < 0 || nv > 15) {
+                            continue;
+                        }
+                        int next = nv << 4 | nu;
+                        if (open[next]) {
+                            open[next] = false;
+                            stack[top++] = next;
+                        }
+                    }
+                }
+            }
+
+            double centerU = (double) sumU / run.size(), centerV = (double) sumV / run.size();
+            int representative = run.get(0);
+            double bestDistance = Double.MAX_VALUE;
+            int[] cells = new int[run.size()];
+            for (int i = 0; i < run.size(); i++) {
+                int faceIndex = run.get(i);
+                cells[i] = faceCell(face, faceIndex & 15, faceIndex >> 4);
+                double du = (faceIndex & 15) - centerU, dv = (faceIndex >> 4) - centerV;
+                if (du * du + dv * dv < bestDistance) {
+                    bestDistance = du * du + dv * dv;
+                    representative = cells[i];
+                }
+            }
+            long pos = BlockPos.asLong(baseX + (representative & 15), baseY + (representative >> 8),
+                baseZ + ((representative >> 4) & 15));
+            portals.add(new Portal(face, mask, reach(face, mask), pos, cells));
+        }
+    }
+
+    /**
+     * Grow a face mask by the cells one move can reach across the face: a step up or down for the side
+     * faces, a step sideways (or none, for climbing and falling) for the top and bottom
+     */
+    private static long[] reach(Direction face, long[] mask) {
+        long[] reach = mask.clone();
+        boolean vertical = face.getAxis() == Direction.Axis.Y;
+        for (int cell = 0; cell < 256; cell++) {
+            if ((mask[cell >> 6] & (1L << (cell & 63))) == 0) {
+                continue;
+            }
+            int u = cell & 15, v = cell >> 4;
+            if (vertical) {
+                set(reach, u - 1, v);
+                set(reach, u + 1, v);
+            }
+            set(reach, u, v - 1);
+            set(reach, u, v + 1);
+        }
+        return reach;
+    }
+
+    private static void set(long[] mask, int u, int v) {
+        if (u >= 0 && u < 16 && v >= 0 && v < 16) {
+            int cell = v << 4 | u;
+            mask[cell >> 6] |= 1L << (cell & 63);
+        }
+    }
+
+    /**
+     * Breadth-first walking distances from a set of cells to every cell of the section, -1 for unreachable
+     */
+    private static void walkDistances(NavigationSnapshot snapshot, boolean[] walkable, int[] sources,
+                                      int baseX, int baseY, int baseZ, int[] distance, int[] queue) {
+        Arrays.fill(distance, -1);
+        int head = 0, tail = 0;
+        for (int cell : sources) {
+            if (distance[cell] < 0) {
+                distance[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell & 15, z = (cell >> 4) & 15, y = cell >> 8;
+            int next = distance[cell] + 1;
+            for (Direction direction : Direction.Plane.HORIZONTAL) {
+                int nx = x + direction.getStepX(), nz = z + direction.getStepZ();
+                if (nx < 0 || nx > 15 || nz < 0 || nz > 15) {
+                    continue;
+                }
+                int target = index(nx, y, nz);
+                if (walkable[target]) {
+                    tail = visit(distance, queue, tail, target, next);
+                } else if (y < 15 && walkable[index(nx, y + 1, nz)] && snapshot.isClear(baseX + x, baseY + y + 2, baseZ + z)) {
+                    tail = visit(distance, queue, tail, index(nx, y + 1, nz), next);
+                } else if (snapshot.canOccupy(baseX + nx, baseY + y, baseZ + nz)) {
+                    for (int drop = 1; drop <= MAX_DROP && y - drop >= 0; drop++) {
+                        if (walkable[index(nx, y - drop, nz)]) {
+                            tail = visit(distance, queue, tail, index(nx, y - drop, nz), next);
+                            break;
+                        }
+                        if (!snapshot.isClear(baseX + nx, baseY + y - drop, baseZ + nz)) {
+                            break;
+                        }
+                    }
+                }
+            }
+            // Ladders and water go straight up and down
+            byte feet = snapshot.flags(baseX + x, baseY + y, baseZ + z);
+            if (Passability.is(feet, Passability.LIQUID) || Passability.is(feet, Passability.CLIMBABLE)) {
+                if (y < 15 && walkable[index(x, y + 1, z)]) {
+                    tail = visit(distance, queue, tail, index(x, y + 1, z), next);
+                }
+                if (y > 0 && walkable[index(x, y - 1, z)]) {
+                    tail = visit(distance, queue, tail, index(x, y - 1, z), next);
+                }
+            }
+        }
+    }
+
+    private static int index(int x, int y, int z) {
+        return x | z << 4 | y << 8;
+    }
+
+    private static int visit(int[] distance, int[] queue, int tail, int cell, int value) {
+        if (distance[cell] < 0) {
+            distance[cell] = value;
+            queue[tail++] = cell;
+        }
+        return tail;
+    }
+}
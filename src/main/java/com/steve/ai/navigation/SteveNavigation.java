@@ -0,0 +1,39 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.navigation.GroundPathNavigation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathFinder;
+
+import java.util.Set;
+
+/**
+ * Ground navigation for Steves, searching with SteveNodeEvaluator so path types are shared across searches.
+ * Found paths are string-pulled by PathSmoother, so Steves walk straight lines instead of grid steps, and
+ * flying ones head straight for the next turn in any direction.
+ */
+public class SteveNavigation extends GroundPathNavigation {
+    public SteveNavigation(Mob mob, Level level) {
+        super(mob, level);
+    }
+
+    @Override
+    protected PathFinder createPathFinder(int maxVisitedNodes) {
+        this.nodeEvaluator = new SteveNodeEvaluator();
+        this.nodeEvaluator.setCanPassDoors(true);
+        return new PathFinder(this.nodeEvaluator, maxVisitedNodes);
+    }
+
+    @Override
+    protected Path createPath(Set<BlockPos> targets, int regionOffset, boolean offsetUpward, int accuracy, float followRange) {
+        Path found = super.createPath(targets, regionOffset, offsetUpward, accuracy, followRange);
+        if (found == null || found == this.path) {
+            return found; // Nothing found, or the current path handed back again
+        }
+        boolean flying = mob instanceof SteveEntity steve && steve.isFlying();
+        return PathSmoother.smooth(level, found, flying);
+    }
+}
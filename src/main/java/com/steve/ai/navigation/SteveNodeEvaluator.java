@@ -0,0 +1,97 @@
+package com.steve.ai.navigation;
+
+import com.steve.ai.entity.SteveEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.PathNavigationRegion;
+import net.minecraft.world.level.chunk.EmptyLevelChunk;
+import net.minecraft.world.level.pathfinder.BlockPathTypes;
+import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
+
+/**
+ * Vanilla walking evaluator that reads block path types from the level's PathTypeCache instead of
+ * working them out again for every search. The movement mode is fixed per search: flying Steves (no
+ * gravity) treat open air as walkable so they cross gaps, swimming ones treat the water surface as
+ * walkable so they do not pay the water malus for every stroke. Each mode has its own table, so types
+ * worked out under one set of rules are never handed to another.
+ */
+public class SteveNodeEvaluator extends WalkNodeEvaluator {
+    private final BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+    private PathTypeCache cache;
+    private PathTypeCache.Mode mode = PathTypeCache.Mode.WALK;
+    private int minY;
+    private int maxY;
+
+    @Override
+    public void prepare(PathNavigationRegion region, Mob mob) {
+        super.prepare(region, mob);
+        cache = mob.level() instanceof ServerLevel serverLevel ? PathTypeCache.get(serverLevel) : null;
+        mode = modeOf(mob);
+        minY = mob.level().getMinBuildHeight();
+        maxY = mob.level().getMaxBuildHeight();
+    }
+
+    @Override
+    public void done() {
+        super.done();
+        cache = null;
+    }
+
+    private static PathTypeCache.Mode modeOf(Mob mob) {
+        if (mob instanceof SteveEntity steve && steve.isFlying()) {
+            return PathTypeCache.Mode.FLY;
+        }
+        return mob.isInWater() ? PathTypeCache.Mode.SWIM : PathTypeCache.Mode.WALK;
+    }
+
+    @Override
+    public BlockPathTypes getBlockPathType(BlockGetter level, int x, int y, int z) {
+        if (cache == null || y < minY || y >= maxY) {
+            return compute(level, x, y, z);
+        }
+        BlockPathTypes type = cache.getType(mode, x, y, z);
+        if (type == null) {
+            type = compute(level, x, y, z);
+            if (isRegionLoaded(x, z)) {
+                cache.putType(mode, x, y, z, type);
+            }
+        }
+        return type;
+    }
+
+    private BlockPathTypes compute(BlockGetter level, int x, int y, int z) {
+        BlockPathTypes type = super.getBlockPathType(level, x, y, z);
+        switch (mode) {
+            case FLY -> {
+                return type == BlockPathTypes.OPEN ? BlockPathTypes.WALKABLE : type;
+            }
+            case SWIM -> {
+                if (type == BlockPathTypes.WATER && !level.getFluidState(above.set(x, y + 1, z)).is(FluidTags.WATER)) {
+                    return BlockPathTypes.WALKABLE;
+                }
+                return type;
+            }
+            default -> {
+                return type;
+            }
+        }
+    }
+
+    /**
+     * Whether the search region really has the chunks a cell's type was read from; outside them it reads
+     * air, which must not end up in the shared cache
+     */
+    private boolean isRegionLoaded(int x, int z) {
+        for (int cx = (x - 1) >> 4; cx <= (x + 1) >> 4; cx++) {
+            for (int cz = (z - 1) >> 4; cz <= (z + 1) >> 4; cz++) {
+                if (level.getChunkForCollisions(cx, cz) instanceof EmptyLevelChunk) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
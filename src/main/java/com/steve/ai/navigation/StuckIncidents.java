@@ -0,0 +1,88 @@
+package com.steve.ai.navigation;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where and doing what Steves in a level got stuck, reported by their MovementMonitor: incidents and
+ * ticks lost per action type, recovery steps taken, and incidents per chunk so spots that keep trapping
+ * Steves stand out. Server thread only.
+ */
+public class StuckIncidents {
+    private static final Map<ResourceKey<Level>, StuckIncidents> levels = new ConcurrentHashMap<>();
+
+    private final Map<String, Stats> byAction = new HashMap<>();
+    private final Map<Long, Integer> byChunk = new HashMap<>();
+
+    public static class Stats {
+        private int incidents;
+        private long lostTicks;
+        private final int[] recoveries = new int[MovementMonitor.Recovery.values().length];
+
+        public int getIncidents() {
+            return incidents;
+        }
+
+        public long getLostTicks() {
+            return lostTicks;
+        }
+
+        public int getRecoveries(MovementMonitor.Recovery recovery) {
+            return recoveries[recovery.ordinal()];
+        }
+    }
+
+    public static StuckIncidents get(ServerLevel level) {
+        return levels.computeIfAbsent(level.dimension(), key -> new StuckIncidents());
+    }
+
+    /**
+     * Forget a level's incidents when it unloads
+     */
+    public static void unload(ServerLevel level) {
+        levels.remove(level.dimension());
+    }
+
+    void recordIncident(String action, BlockPos pos) {
+        stats(action).incidents++;
+        byChunk.merge(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), 1, Integer::sum);
+    }
+
+    void recordRecovery(String action, MovementMonitor.Recovery recovery) {
+        stats(action).recoveries[recovery.ordinal()]++;
+    }
+
+    void recordLostTicks(String action, int ticks) {
+        stats(action).lostTicks += ticks;
+    }
+
+    private Stats stats(String action) {
+        return byAction.computeIfAbsent(action, key -> new Stats());
+    }
+
+    public Map<String, Stats> getStatsByAction() {
+        return byAction;
+    }
+
+    /**
+     * Chunks with the most incidents, most first, as packed ChunkPos longs
+     */
+    public List<Long> getHotspots(int limit) {
+        List<Long> chunks = new ArrayList<>(byChunk.keySet());
+        chunks.sort((a, b) -> Integer.compare(byChunk.get(b), byChunk.get(a)));
+        return chunks.subList(0, Math.min(limit, chunks.size()));
+    }
+
+    public int getIncidentsInChunk(long chunk) {
+        return byChunk.getOrDefault(chunk, 0);
+    }
+}
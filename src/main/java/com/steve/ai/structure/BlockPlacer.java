@@ -0,0 +1,127 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.navigation.FlowFields;
+import com.steve.ai.navigation.PathCache;
+import com.steve.ai.navigation.PathTypeCache;
+import com.steve.ai.navigation.SectionGraph;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bulk placement path for jobs that do not need a Steve to walk around (undo, post-build repairs).
+ * Jobs are drained from the server tick with a per-tick time budget so large jobs never stall the server.
+ */
+public class BlockPlacer {
+    private static final long TICK_BUDGET_NANOS = 2_000_000L; // 2ms of every tick
+    private static final int CHECK_INTERVAL = 64; // Placements between clock reads
+
+    /**
+     * Flags for restoring exact states: sync to clients but skip neighbour shape updates,
+     * since the states being written are already consistent with each other
+     */
+    public static final int RESTORE_FLAGS = Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE;
+
+    private static final Map<ResourceKey<Level>, Deque<Job>> jobs = new ConcurrentHashMap<>();
+
+    private static class Job {
+        final String name;
+        final PlacementCursor cursor;
+        final int flags;
+        final BuildJournal journal;
+        final Runnable onComplete;
+        int placed;
+
+        Job(String name, PlacementCursor cursor, int flags, BuildJournal journal, Runnable onComplete) {
+            this.name = name;
+            this.cursor = cursor;
+            this.flags = flags;
+            this.journal = journal;
+            this.onComplete = onComplete;
+        }
+    }
+
+    /**
+     * Queue a cursor to be placed over the next ticks
+     * @param onComplete run on the server thread once the last block is placed, may be null
+     */
+    public static void submit(ServerLevel level, String name, PlacementCursor cursor, int flags, Runnable onComplete) {
+        submit(level, name, cursor, flags, null, onComplete);
+    }
+
+    /**
+     * Queue a cursor to be placed over the next ticks, recording what it overwrites
+     * @param journal receives the previous state of every position placed, may be null
+     */
+    public static void submit(ServerLevel level, String name, PlacementCursor cursor, int flags,
+                              BuildJournal journal, Runnable onComplete) {
+        jobs.computeIfAbsent(level.dimension(), key -> new ArrayDeque<>())
+            .addLast(new Job(name, cursor, flags, journal, onComplete));
+        SteveMod.LOGGER.info("Queued bulk placement '{}' in {}", name, level.dimension().location());
+    }
+
+    public static boolean isBusy(ServerLevel level) {
+        Deque<Job> queue = jobs.get(level.dimension());
+        return queue != null && !queue.isEmpty();
+    }
+
+    /**
+     * Forget every queued job when the server stops
+     */
+    public static void clearAll() {
+        jobs.clear();
+    }
+
+    /**
+     * Called once per server tick for each level
+     */
+    public static void tick(ServerLevel level) {
+        Deque<Job> queue = jobs.get(level.dimension());
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int sinceCheck = 0;
+
+        while (!queue.isEmpty()) {
+            Job job = queue.peekFirst();
+            while (job.cursor.next()) {
+                pos.set(job.cursor.getPackedPos());
+                if (job.journal != null) {
+                    job.journal.record(job.cursor.getPackedPos(), level.getBlockState(pos));
+                }
+                level.setBlock(pos, job.cursor.getState(), job.flags);
+                if ((job.flags & Block.UPDATE_NEIGHBORS) == 0) {
+                    // No neighbour notification to do it for us
+                    SectionGraph.invalidate(level, pos);
+                    PathCache.invalidate(level, pos);
+                    FlowFields.invalidate(level, pos);
+                    PathTypeCache.invalidate(level, pos);
+                }
+                job.placed++;
+                if (++sinceCheck >= CHECK_INTERVAL) {
+                    sinceCheck = 0;
+                    if (System.nanoTime() >= deadline) {
+                        return;
+                    }
+                }
+            }
+
+            queue.pollFirst();
+            SteveMod.LOGGER.info("Bulk placement '{}' finished ({} blocks)", job.name, job.placed);
+            if (job.onComplete != null) {
+                job.onComplete.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.particles.BlockParticleOption;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.SoundType;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces block placement effects so fast builds do not flood clients.
+ * Placements are collected per chunk section during a tick and flushed at the end of it as one particle
+ * burst per section, sized to the number of blocks placed there, plus at most one sound per section every
+ * SOUND_INTERVAL ticks. Bursts are sent per player, nearest sections first, within a per-player budget
+ * that shrinks with distance. Server thread only.
+ */
+public class BuildEffects {
+    private static final int PARTICLES_PER_BLOCK = 6;
+    private static final int MAX_PARTICLES_PER_BURST = 48;
+    private static final int MAX_PARTICLES_PER_PLAYER = 160; // Per tick, across all sections
+    private static final double FULL_DETAIL_DISTANCE = 16.0;
+    private static final double MAX_DISTANCE = 64.0;
+    private static final int SOUND_INTERVAL = 4; // Ticks between sounds from one section
+
+    private static final Map<ResourceKey<Level>, Map<Long, SectionEffects>> pending = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, Map<Long, Long>> lastSoundTick = new ConcurrentHashMap<>();
+
+    private static class SectionEffects {
+        int count;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        BlockPos lastPos;
+        BlockState lastState; // Representative block for the particles and the sound
+
+        void add(BlockPos pos, BlockState state) {
+            count++;
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+            lastPos = pos;
+            lastState = state;
+        }
+
+        double centerX() {
+            return (minX + maxX + 1) / 2.0;
+        }
+
+        double centerY() {
+            return (minY + maxY + 1) / 2.0;
+        }
+
+        double centerZ() {
+            return (minZ + maxZ + 1) / 2.0;
+        }
+    }
+
+    /**
+     * Note a placement; its particles and sound go out with the rest of its section at the end of the tick
+     */
+    public static void blockPlaced(ServerLevel level, BlockPos pos, BlockState state) {
+        pending.computeIfAbsent(level.dimension(), key -> new HashMap<>())
+            .computeIfAbsent(SectionPos.asLong(pos), key -> new SectionEffects())
+            .add(pos.immutable(), state);
+    }
+
+    /**
+     * Called at the end of every server tick for each level
+     */
+    public static void flush(ServerLevel level) {
+        Map<Long, SectionEffects> sections = pending.get(level.dimension());
+        if (sections == null || sections.isEmpty()) {
+            return;
+        }
+
+        List<SectionEffects> bursts = new ArrayList<>(sections.values());
+        sections.clear();
+
+        for (ServerPlayer player : level.players()) {
+            sendBursts(level, player, bursts);
+        }
+        playSounds(level, bursts);
+    }
+
+    private static void sendBursts(ServerLevel level, ServerPlayer player, List<SectionEffects> bursts) {
+        double maxDistanceSqr = MAX_DISTANCE * MAX_DISTANCE;
+        List<SectionEffects> visible = new ArrayList<>();
+        for (SectionEffects burst : bursts) {
+            if (player.distanceToSqr(burst.centerX(), burst.centerY(), burst.centerZ()) <= maxDistanceSqr) {
+                visible.add(burst);
+            }
+        }
+        if (visible.isEmpty()) {
+            return;
+        }
+        visible.sort(Comparator.comparingDouble(burst -> player.distanceToSqr(burst.centerX(), burst.centerY(), burst.centerZ())));
+
+        int budget = MAX_PARTICLES_PER_PLAYER;
+        for (SectionEffects burst : visible) {
+            double distance = Math.sqrt(player.distanceToSqr(burst.centerX(), burst.centerY(), burst.centerZ()));
+            // Full detail up close, fading linearly to a token puff at the edge of the range
+            double detail = distance <= FULL_DETAIL_DISTANCE ? 1.0
+                : 1.0 - 0.8 * (distance - FULL_DETAIL_DISTANCE) / (MAX_DISTANCE - FULL_DETAIL_DISTANCE);
+            int particles = (int) Math.ceil(Math.min(MAX_PARTICLES_PER_BURST, burst.count * PARTICLES_PER_BLOCK) * detail);
+            particles = Math.min(particles, budget);
+            if (particles <= 0) {
+                break;
+            }
+            budget -= particles;
+
+            level.sendParticles(player, new BlockParticleOption(ParticleTypes.BLOCK, burst.lastState), false,
+                burst.centerX(), burst.centerY(), burst.centerZ(), particles,
+                (burst.maxX - burst.minX) / 2.0 + 0.4, (burst.maxY - burst.minY) / 2.0 + 0.4,
+                (burst.maxZ - burst.minZ) / 2.0 + 0.4, 0.15);
+        }
+    }
+
+    private static void playSounds(ServerLevel level, List<SectionEffects> bursts) {
+        Map<Long, Long> lastTicks = lastSoundTick.computeIfAbsent(level.dimension(), key -> new HashMap<>());
+        long now = level.getGameTime();
+        for (SectionEffects burst : bursts) {
+            long section = SectionPos.asLong(burst.lastPos);
+            Long last = lastTicks.get(section);
+            if (last != null && now - last < SOUND_INTERVAL) {
+                continue;
+            }
+            lastTicks.put(section, now);
+            SoundType soundType = burst.lastState.getSoundType(level, burst.lastPos, null);
+            level.playSound(null, burst.lastPos, soundType.getPlaceSound(), SoundSource.BLOCKS,
+                (soundType.getVolume() + 1.0f) / 2.0f, soundType.getPitch() * 0.8f);
+        }
+
+        // Sections that have been quiet for a while no longer need throttling
+        if (now % 200 == 0) {
+            lastTicks.values().removeIf(last -> now - last >= SOUND_INTERVAL);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.SteveMod;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records what a build overwrote so it can be undone.
+ * Entries are packed positions plus indices into a small palette of previous states.
+ * The newest SEGMENT_SIZE entries stay in memory; older ones are spilled to segment files in the
+ * world folder, so a 50k-block build costs a few hundred KB of heap at most.
+ */
+public class BuildJournal {
+    private static final int SEGMENT_SIZE = 16384;
+    private static final int MAX_JOURNALS = 16; // Older journals are dropped and can no longer be undone
+    private static final String JOURNAL_DIR = "steve_journals";
+
+    private static final Deque<BuildJournal> recent = new ArrayDeque<>();
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+    private static boolean directoryCleaned;
+
+    public final String name;
+    public final ResourceKey<Level> dimension;
+    private final Path directory;
+    private final int id;
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIndex = new HashMap<>();
+    private final List<Path> segments = new ArrayList<>();
+    private long[] positions = new long[256];
+    private int[] states = new int[256];
+    private int size; // Entries in memory
+    private int spilled; // Entries in segment files
+    private volatile boolean closed; // Set once the journal is being undone or dropped; nothing more is recorded
+    private BlockPos structureOrigin; // Registered footprint to release on undo, if any
+    private String structureType;
+
+    private BuildJournal(String name, ServerLevel level) {
+        this.name = name;
+        this.dimension = level.dimension();
+        this.directory = level.getServer().getWorldPath(LevelResource.ROOT).resolve(JOURNAL_DIR);
+        this.id = nextId.getAndIncrement();
+    }
+
+    /**
+     * Start a journal for a new build and make it the latest undo target
+     */
+    public static synchronized BuildJournal start(ServerLevel level, String name) {
+        BuildJournal journal = new BuildJournal(name, level);
+        if (!directoryCleaned) {
+            // Segments from a previous run have no palette any more
+            journal.deleteStaleSegments();
+            directoryCleaned = true;
+        }
+        recent.addFirst(journal);
+        while (recent.size() > MAX_JOURNALS) {
+            recent.pollLast().discard();
+        }
+        return journal;
+    }
+
+    /**
+     * Remove and return the most recent journal in a dimension, or null if there is none
+     */
+    public static synchronized BuildJournal popLatest(ServerLevel level) {
+        Iterator<BuildJournal> it = recent.iterator();
+        while (it.hasNext()) {
+            BuildJournal journal = it.next();
+            if (journal.dimension.equals(level.dimension()) && !journal.isEmpty()) {
+                it.remove();
+                journal.closed = true;
+                return journal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop every journal when the server stops; a journal only makes sense in the world that wrote it
+     */
+    public static synchronized void clearAll() {
+        for (BuildJournal journal : recent) {
+            journal.discard();
+        }
+        recent.clear();
+        directoryCleaned = false;
+    }
+
+    /**
+     * Remember the state a position had before this build changed it
+     */
+    public synchronized void record(long packedPos, BlockState previous) {
+        if (closed) {
+            return;
+        }
+        if (size == positions.length) {
+            if (size >= SEGMENT_SIZE) {
+                spill();
+            } else {
+                positions = Arrays.copyOf(positions, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+        }
+        Integer stateId = paletteIndex.get(previous);
+        if (stateId == null) {
+            stateId = palette.size();
+            palette.add(previous);
+            paletteIndex.put(previous, stateId);
+        }
+        positions[size] = packedPos;
+        states[size] = stateId;
+        size++;
+    }
+
+    /**
+     * Link the journal to the footprint registered in the StructureRegistry for this build
+     */
+    public synchronized void setStructure(BlockPos origin, String type) {
+        this.structureOrigin = origin;
+        this.structureType = type;
+    }
+
+    public synchronized BlockPos getStructureOrigin() {
+        return structureOrigin;
+    }
+
+    public synchronized String getStructureType() {
+        return structureType;
+    }
+
+    /**
+     * Whether the build writing this journal should stop because it is being undone
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public synchronized int size() {
+        return spilled + size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private void spill() {
+        Path segment = directory.resolve("journal-" + id + "-" + segments.size() + ".bin");
+        try {
+            Files.createDirectories(directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment)))) {
+                out.writeInt(size);
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(positions[i]);
+                    out.writeInt(states[i]);
+                }
+            }
+            segments.add(segment);
+            spilled += size;
+            size = 0;
+        } catch (IOException e) {
+            // Keep everything in memory rather than lose undo data
+            SteveMod.LOGGER.error("Failed to spill build journal '{}' to {}, keeping it in memory", name, segment, e);
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            states = Arrays.copyOf(states, states.length * 2);
+        }
+    }
+
+    /**
+     * A cursor that restores the recorded states newest-first, so the oldest recorded state of a
+     * position is the one left in the world. Segment files are read one at a time as the cursor reaches them.
+     */
+    public synchronized PlacementCursor undoCursor() {
+        long[] tailPositions = Arrays.copyOf(positions, size);
+        int[] tailStates = Arrays.copyOf(states, size);
+        List<Path> segmentFiles = List.copyOf(segments);
+        List<BlockState> states = List.copyOf(palette);
+
+        return new PlacementCursor() {
+            private long[] chunkPositions = tailPositions;
+            private int[] chunkStates = tailStates;
+            private int segment = segmentFiles.size(); // Index of the segment to load after this chunk
+            private int offset = tailPositions.length;
+            private int index = -1;
+
+            @Override
+            public boolean next() {
+                while (offset == 0) {
+                    if (segment == 0) {
+                        return false;
+                    }
+                    loadSegment(segmentFiles.get(--segment));
+                }
+                offset--;
+                index++;
+                return true;
+            }
+
+            private void loadSegment(Path file) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    int count = in.readInt();
+                    chunkPositions = new long[count];
+                    chunkStates = new int[count];
+                    for (int i = 0; i < count; i++) {
+                        chunkPositions[i] = in.readLong();
+                        chunkStates[i] = in.readInt();
+                    }
+                } catch (IOException e) {
+                    SteveMod.LOGGER.error("Failed to read build journal segment {}, skipping it", file, e);
+                    chunkPositions = new long[0];
+                    chunkStates = new int[0];
+                }
+                offset = chunkPositions.length;
+            }
+
+            @Override
+            public long getPackedPos() {
+                return chunkPositions[offset];
+            }
+
+            @Override
+            public BlockState getState() {
+                return states.get(chunkStates[offset]);
+            }
+
+            @Override
+            public int getIndex() {
+                return index;
+            }
+
+            @Override
+            public void reset() {
+                chunkPositions = tailPositions;
+                chunkStates = tailStates;
+                segment = segmentFiles.size();
+                offset = tailPositions.length;
+                index = -1;
+            }
+        };
+    }
+
+    /**
+     * Delete this journal's segment files; it can no longer be undone afterwards
+     */
+    public synchronized void discard() {
+        closed = true;
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                SteveMod.LOGGER.warn("Failed to delete build journal segment {}", segment, e);
+            }
+        }
+        segments.clear();
+        size = 0;
+        spilled = 0;
+    }
+
+    private void deleteStaleSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (var files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith("journal-"))
+                .forEach(file -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        SteveMod.LOGGER.warn("Failed to delete stale build journal segment {}", file, e);
+                    }
+                });
+        } catch (IOException e) {
+            SteveMod.LOGGER.warn("Failed to clean build journal directory {}", directory, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size() + " blocks)";
+    }
+}
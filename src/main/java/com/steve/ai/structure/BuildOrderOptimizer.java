@@ -0,0 +1,244 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.*;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reorders a plan so builders travel as little as possible without breaking support.
+ * Layers still go bottom-to-top, and within a layer ordinary blocks come before blocks that hang off
+ * a neighbour (torches, doors, ladders...) and gravity blocks come last. Inside each of those groups the
+ * blocks are visited as a nearest-neighbour walk over reach-sized cells, continuing from wherever the
+ * previous group ended.
+ */
+public class BuildOrderOptimizer {
+    private static final int CELL_SIZE = 4; // Roughly what a Steve reaches without moving
+
+    private static final int PHASE_SOLID = 0;
+    private static final int PHASE_ATTACHED = 1;
+    private static final int PHASE_GRAVITY = 2;
+
+    /**
+     * @param start where the builder starts out, used to pick the first cell
+     */
+    public static BuildPlan optimize(BuildPlan plan, BlockPos start) {
+        int n = plan.size();
+        if (n == 0) {
+            return plan;
+        }
+
+        List<BlockState> palette = plan.getPalette();
+        int[] phases = new int[palette.size()];
+        for (int p = 0; p < phases.length; p++) {
+            phases[p] = phaseOf(palette.get(p));
+        }
+
+        // Group key (layer, phase) in the high half, plan index in the low half
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int group = ((plan.getY(i) + (1 << 20)) << 2) | phases[plan.getStateId(i)];
+            keys[i] = ((long) group << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        Walk walk = new Walk(plan, start);
+        int[] group = new int[n];
+        int groupStart = 0;
+        while (groupStart < n) {
+            long groupKey = keys[groupStart] >>> 32;
+            int count = 0;
+            int groupEnd = groupStart;
+            while (groupEnd < n && (keys[groupEnd] >>> 32) == groupKey) {
+                group[count++] = (int) keys[groupEnd++];
+            }
+            walk.visitGroup(group, count);
+            groupStart = groupEnd;
+        }
+        return plan.reordered(walk.order);
+    }
+
+    private static int phaseOf(BlockState state) {
+        Block block = state.getBlock();
+        if (block instanceof FallingBlock) {
+            return PHASE_GRAVITY;
+        }
+        if (block instanceof TorchBlock || block instanceof LanternBlock || block instanceof DoorBlock
+            || block instanceof LadderBlock || block instanceof VineBlock || block instanceof FaceAttachedHorizontalDirectionalBlock
+            || block instanceof SignBlock || block instanceof AbstractBannerBlock || block instanceof CarpetBlock
+            || block instanceof BasePressurePlateBlock || block instanceof BaseRailBlock || block instanceof BushBlock
+            || block instanceof TripWireHookBlock) {
+            return PHASE_ATTACHED;
+        }
+        return PHASE_SOLID;
+    }
+
+    /**
+     * Nearest-neighbour walk state, carried from one group to the next
+     */
+    private static class Walk {
+        private final BuildPlan plan;
+        private final int[] order;
+        private int written;
+        private int lastX;
+        private int lastZ;
+
+        // Per-group cell grid, reused between groups when large enough
+        private int minCellX, minCellZ, gridWidth, gridDepth;
+        private int[] cellStart = new int[0];
+        private int[] cellFill = new int[0];
+        private boolean[] visited = new boolean[0];
+        private int[] bucketed = new int[0];
+
+        Walk(BuildPlan plan, BlockPos start) {
+            this.plan = plan;
+            this.order = new int[plan.size()];
+            this.lastX = start.getX();
+            this.lastZ = start.getZ();
+        }
+
+        void visitGroup(int[] group, int count) {
+            if (count == 1) {
+                emit(group[0]);
+                return;
+            }
+            bucketByCell(group, count);
+
+            int remainingCells = 0;
+            for (int c = 0; c < gridWidth * gridDepth; c++) {
+                if (cellStart[c + 1] > cellStart[c]) {
+                    remainingCells++;
+                }
+            }
+
+            int fromX = clamp(Math.floorDiv(lastX, CELL_SIZE) - minCellX, gridWidth);
+            int fromZ = clamp(Math.floorDiv(lastZ, CELL_SIZE) - minCellZ, gridDepth);
+            while (remainingCells > 0) {
+                int cell = nearestCell(fromX, fromZ);
+                visited[cell] = true;
+                remainingCells--;
+                emitCell(cellStart[cell], cellStart[cell + 1]);
+                fromX = cell / gridDepth;
+                fromZ = cell % gridDepth;
+            }
+        }
+
+        /**
+         * Counting sort of the group's indices into CELL_SIZE x CELL_SIZE cells
+         */
+        private void bucketByCell(int[] group, int count) {
+            int maxCellX = Integer.MIN_VALUE, maxCellZ = Integer.MIN_VALUE;
+            minCellX = Integer.MAX_VALUE;
+            minCellZ = Integer.MAX_VALUE;
+            for (int k = 0; k < count; k++) {
+                long pos = plan.getPackedPos(group[k]);
+                int cellX = Math.floorDiv(BlockPos.getX(pos), CELL_SIZE);
+                int cellZ = Math.floorDiv(BlockPos.getZ(pos), CELL_SIZE);
+                minCellX = Math.min(minCellX, cellX);
+                maxCellX = Math.max(maxCellX, cellX);
+                minCellZ = Math.min(minCellZ, cellZ);
+                maxCellZ = Math.max(maxCellZ, cellZ);
+            }
+            gridWidth = maxCellX - minCellX + 1;
+            gridDepth = maxCellZ - minCellZ + 1;
+
+            int cells = gridWidth * gridDepth;
+            if (cellStart.length < cells + 1) {
+                cellStart = new int[cells + 1];
+                cellFill = new int[cells];
+                visited = new boolean[cells];
+            } else {
+                Arrays.fill(cellStart, 0, cells + 1, 0);
+                Arrays.fill(visited, 0, cells, false);
+            }
+            if (bucketed.length < count) {
+                bucketed = new int[count];
+            }
+
+            for (int k = 0; k < count; k++) {
+                cellStart[cellOf(group[k]) + 1]++;
+            }
+            for (int c = 0; c < cells; c++) {
+                cellStart[c + 1] += cellStart[c];
+                cellFill[c] = cellStart[c];
+            }
+            for (int k = 0; k < count; k++) {
+                bucketed[cellFill[cellOf(group[k])]++] = group[k];
+            }
+        }
+
+        private int cellOf(int planIndex) {
+            long pos = plan.getPackedPos(planIndex);
+            int cellX = Math.floorDiv(BlockPos.getX(pos), CELL_SIZE) - minCellX;
+            int cellZ = Math.floorDiv(BlockPos.getZ(pos), CELL_SIZE) - minCellZ;
+            return cellX * gridDepth + cellZ;
+        }
+
+        /**
+         * Closest unvisited, non-empty cell, searching outwards in square rings
+         */
+        private int nearestCell(int fromX, int fromZ) {
+            int maxRadius = Math.max(gridWidth, gridDepth);
+            for (int r = 0; r <= maxRadius; r++) {
+                int best = -1;
+                int bestDist = Integer.MAX_VALUE;
+                for (int dx = -r; dx <= r; dx++) {
+                    int step = (dx == -r || dx == r) ? 1 : 2 * r;
+                    for (int dz = -r; dz <= r; dz += step) {
+                        int x = fromX + dx;
+                        int z = fromZ + dz;
+                        if (x < 0 || z < 0 || x >= gridWidth || z >= gridDepth) continue;
+                        int cell = x * gridDepth + z;
+                        if (visited[cell] || cellStart[cell + 1] == cellStart[cell]) continue;
+                        int dist = dx * dx + dz * dz;
+                        if (dist < bestDist) {
+                            best = cell;
+                            bestDist = dist;
+                        }
+                    }
+                }
+                if (best >= 0) {
+                    return best;
+                }
+            }
+            throw new IllegalStateException("No unvisited cell left");
+        }
+
+        /**
+         * Emit a cell's blocks, each time taking the one closest to the previous block
+         */
+        private void emitCell(int from, int to) {
+            for (int k = from; k < to; k++) {
+                int best = k;
+                int bestDist = Integer.MAX_VALUE;
+                for (int m = k; m < to; m++) {
+                    long pos = plan.getPackedPos(bucketed[m]);
+                    int dx = BlockPos.getX(pos) - lastX;
+                    int dz = BlockPos.getZ(pos) - lastZ;
+                    int dist = dx * dx + dz * dz;
+                    if (dist < bestDist) {
+                        best = m;
+                        bestDist = dist;
+                    }
+                }
+                int chosen = bucketed[best];
+                bucketed[best] = bucketed[k];
+                bucketed[k] = chosen;
+                emit(chosen);
+            }
+        }
+
+        private void emit(int planIndex) {
+            long pos = plan.getPackedPos(planIndex);
+            lastX = BlockPos.getX(pos);
+            lastZ = BlockPos.getZ(pos);
+            order[written++] = planIndex;
+        }
+
+        private static int clamp(int value, int size) {
+            return Math.max(0, Math.min(size - 1, value));
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ready-to-place list of blocks in world coordinates.
+ * Positions are stored packed (BlockPos.asLong) and states as indices into a small palette,
+ * so large plans stay cheap to build off-thread and to hand over to the server thread.
+ */
+public class BuildPlan {
+    private final String structureType;
+    private final BlockPos origin;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final long[] positions;
+    private final int[] states;
+    private final List<BlockState> palette;
+    private final StructureSpec spec; // Null for template plans
+
+    private BuildPlan(String structureType, BlockPos origin, int width, int height, int depth,
+                      long[] positions, int[] states, List<BlockState> palette, StructureSpec spec) {
+        this.structureType = structureType;
+        this.origin = origin;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.positions = positions;
+        this.states = states;
+        this.palette = palette;
+        this.spec = spec;
+    }
+
+    public String getStructureType() {
+        return structureType;
+    }
+
+    public BlockPos getOrigin() {
+        return origin;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    public long getPackedPos(int index) {
+        return positions[index];
+    }
+
+    public BlockPos getPos(int index) {
+        return BlockPos.of(positions[index]);
+    }
+
+    public int getY(int index) {
+        return BlockPos.getY(positions[index]);
+    }
+
+    public int getStateId(int index) {
+        return states[index];
+    }
+
+    public BlockState getState(int index) {
+        return palette.get(states[index]);
+    }
+
+    public List<BlockState> getPalette() {
+        return palette;
+    }
+
+    /**
+     * Parameters of the procedural structure this plan was generated from, or null for templates.
+     * Regenerating from the spec reproduces the same placements, so the spec can stand in for the plan.
+     */
+    public StructureSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * A cursor over a subset of this plan's placements, in plan order. getIndex() is the plan index.
+     */
+    public PlacementCursor cursor(BitSet indices) {
+        return new PlacementCursor() {
+            private int index = -1;
+
+            @Override
+            public boolean next() {
+                int nextIndex = indices.nextSetBit(index + 1);
+                if (nextIndex < 0 || nextIndex >= positions.length) {
+                    index = positions.length;
+                    return false;
+                }
+                index = nextIndex;
+                return true;
+            }
+
+            @Override
+            public long getPackedPos() {
+                return positions[index];
+            }
+
+            @Override
+            public BlockState getState() {
+                return palette.get(states[index]);
+            }
+
+            @Override
+            public int getIndex() {
+                return index;
+            }
+
+            @Override
+            public void reset() {
+                index = -1;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of this plan whose i-th placement is this plan's {@code order[i]}-th placement
+     */
+    public BuildPlan reordered(int[] order) {
+        long[] orderedPositions = new long[order.length];
+        int[] orderedStates = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            orderedPositions[i] = positions[order[i]];
+            orderedStates[i] = states[order[i]];
+        }
+        return new BuildPlan(structureType, origin, width, height, depth, orderedPositions, orderedStates, palette, spec);
+    }
+
+    /**
+     * Returns a mirrored, rotated, scaled and shifted copy of this plan in a single pass.
+     * The transform works on the footprint spanned by the placements: its minimum corner keeps its place
+     * relative to the origin (times the scale), so a structure rotates in place. Every placement becomes
+     * scale^3 placements; the order is only roughly bottom-to-top afterwards, so re-optimize the result.
+     */
+    public BuildPlan transformed(PlanTransform transform) {
+        if (transform.isIdentity() || positions.length == 0) {
+            return this;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (long pos : positions) {
+            minX = Math.min(minX, BlockPos.getX(pos));
+            minY = Math.min(minY, BlockPos.getY(pos));
+            minZ = Math.min(minZ, BlockPos.getZ(pos));
+            maxX = Math.max(maxX, BlockPos.getX(pos));
+            maxZ = Math.max(maxZ, BlockPos.getZ(pos));
+        }
+        int spanX = maxX - minX + 1;
+        int spanZ = maxZ - minZ + 1;
+
+        int scale = transform.scale;
+        int baseX = origin.getX() + scale * (minX - origin.getX()) + transform.offset.getX();
+        int baseY = origin.getY() + scale * (minY - origin.getY()) + transform.offset.getY();
+        int baseZ = origin.getZ() + scale * (minZ - origin.getZ()) + transform.offset.getZ();
+
+        long[] transformedPositions = new long[positions.length * scale * scale * scale];
+        int[] transformedStates = new int[transformedPositions.length];
+        int k = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int x = BlockPos.getX(positions[i]) - minX;
+            int z = BlockPos.getZ(positions[i]) - minZ;
+            int cornerX = baseX + scale * transform.localX(x, z, spanX, spanZ);
+            int cornerY = baseY + scale * (BlockPos.getY(positions[i]) - minY);
+            int cornerZ = baseZ + scale * transform.localZ(x, z, spanX, spanZ);
+            for (int dy = 0; dy < scale; dy++) {
+                for (int dx = 0; dx < scale; dx++) {
+                    for (int dz = 0; dz < scale; dz++) {
+                        transformedPositions[k] = BlockPos.asLong(cornerX + dx, cornerY + dy, cornerZ + dz);
+                        transformedStates[k] = states[i];
+                        k++;
+                    }
+                }
+            }
+        }
+
+        // Mirror and rotate are bijections on states, so palette indices carry over unchanged
+        List<BlockState> transformedPalette = new ArrayList<>(palette.size());
+        for (BlockState state : palette) {
+            transformedPalette.add(transform.apply(state));
+        }
+
+        return new BuildPlan(structureType, origin.offset(transform.offset),
+            transform.transformedWidth(width, depth), transform.transformedHeight(height), transform.transformedDepth(width, depth),
+            transformedPositions, transformedStates, Collections.unmodifiableList(transformedPalette), spec);
+    }
+
+    /**
+     * Incrementally assembles a plan. Not thread-safe; one builder per job.
+     */
+    public static class Builder {
+        private final String structureType;
+        private final BlockPos origin;
+        private int width;
+        private int height;
+        private int depth;
+        private long[] positions = new long[256];
+        private int[] states = new int[256];
+        private int size;
+        private final List<BlockState> palette = new ArrayList<>();
+        private final Map<BlockState, Integer> paletteIndex = new HashMap<>();
+        private StructureSpec spec;
+
+        public Builder(String structureType, BlockPos origin) {
+            this.structureType = structureType;
+            this.origin = origin;
+        }
+
+        public Builder spec(StructureSpec spec) {
+            this.spec = spec;
+            return dimensions(spec.width, spec.height, spec.depth);
+        }
+
+        public Builder dimensions(int width, int height, int depth) {
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder add(BlockPos pos, BlockState state) {
+            return add(pos.asLong(), state);
+        }
+
+        public Builder add(long packedPos, BlockState state) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                states = Arrays.copyOf(states, size * 2);
+            }
+            Integer id = paletteIndex.get(state);
+            if (id == null) {
+                id = palette.size();
+                palette.add(state);
+                paletteIndex.put(state, id);
+            }
+            positions[size] = packedPos;
+            states[size] = id;
+            size++;
+            return this;
+        }
+
+        /**
+         * Append a run of packed positions that all share one state
+         */
+        public Builder addAll(long[] packedPositions, BlockState state) {
+            if (packedPositions.length == 0) {
+                return this;
+            }
+            add(packedPositions[0], state);
+            int id = states[size - 1];
+            int required = size + packedPositions.length - 1;
+            if (required > positions.length) {
+                int capacity = Math.max(required, positions.length * 2);
+                positions = Arrays.copyOf(positions, capacity);
+                states = Arrays.copyOf(states, capacity);
+            }
+            System.arraycopy(packedPositions, 1, positions, size, packedPositions.length - 1);
+            Arrays.fill(states, size, required, id);
+            size = required;
+            return this;
+        }
+
+        /**
+         * Drain a cursor into the plan
+         */
+        public Builder addAll(PlacementCursor cursor) {
+            while (cursor.next()) {
+                add(cursor.getPackedPos(), cursor.getState());
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public BuildPlan build() {
+            return new BuildPlan(structureType, origin, width, height, depth,
+                Arrays.copyOf(positions, size), Arrays.copyOf(states, size),
+                Collections.unmodifiableList(new ArrayList<>(palette)), spec);
+        }
+    }
+}
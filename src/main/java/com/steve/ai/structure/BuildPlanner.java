@@ -0,0 +1,70 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.util.SteveExecutors;
+import net.minecraft.server.level.ServerLevel;
+
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Prepares build plans as background jobs so template I/O, NBT parsing and procedural
+ * generation never run inside a server tick.
+ */
+public class BuildPlanner {
+
+    /**
+     * Start preparing a plan. The returned future completes on a worker thread;
+     * callers on the server thread should poll it rather than block on it.
+     */
+    public static CompletableFuture<BuildPlan> prepare(ServerLevel level, StructureSpec spec) {
+        return CompletableFuture.supplyAsync(() -> createPlan(level, spec), SteveExecutors.background());
+    }
+
+    /**
+     * Find the plan indices that still need placing. Must be called on the server thread:
+     * the touched chunk sections are copied here and only the comparison runs on a worker.
+     * @param candidates indices to re-check (e.g. the unfinished part of a resumed build), or null for all
+     */
+    public static CompletableFuture<BitSet> diff(ServerLevel level, BuildPlan plan, BitSet candidates) {
+        WorldSnapshot snapshot = WorldSnapshot.capture(level, plan, candidates);
+        return CompletableFuture.supplyAsync(() -> {
+            long startTime = System.nanoTime();
+            BitSet pending = PlanDiffer.diff(plan, snapshot, candidates);
+            SteveMod.LOGGER.info("Diffed '{}' against {} sections: {}/{} blocks need placing ({}ms)",
+                plan.getStructureType(), snapshot.getSectionCount(), pending.cardinality(), plan.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+            return pending;
+        }, SteveExecutors.background());
+    }
+
+    /**
+     * Generate, transform and order a procedural plan. Deterministic, so a stored spec reproduces the same
+     * indices when a build is resumed. Blocking; call it from a worker.
+     */
+    public static BuildPlan planFromSpec(StructureSpec spec) {
+        return BuildOrderOptimizer.optimize(StructureGenerators.plan(spec).transformed(spec.transform), spec.origin);
+    }
+
+    private static BuildPlan createPlan(ServerLevel level, StructureSpec spec) {
+        long startTime = System.nanoTime();
+        BuildPlan plan;
+
+        var template = StructureTemplateLoader.loadFromNBT(level, spec.structureType);
+        if (template != null) {
+            BuildPlan.Builder builder = new BuildPlan.Builder(spec.structureType, spec.origin)
+                .dimensions(template.width, template.height, template.depth);
+            for (var templateBlock : template.blocks) {
+                builder.add(spec.origin.offset(templateBlock.relativePos), templateBlock.blockState);
+            }
+            SteveMod.LOGGER.info("Loaded '{}' from NBT template with {} blocks", spec.structureType, builder.size());
+            plan = BuildOrderOptimizer.optimize(builder.build().transformed(spec.transform), spec.origin);
+        } else {
+            plan = planFromSpec(spec);
+        }
+
+        SteveMod.LOGGER.info("Prepared build plan for '{}' ({} blocks) in {}ms", spec.structureType, plan.size(),
+            (System.nanoTime() - startTime) / 1_000_000);
+        return plan;
+    }
+}
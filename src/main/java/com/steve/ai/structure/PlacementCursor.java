@@ -0,0 +1,33 @@
+package com.steve.ai.structure;
+
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Forward-only, restartable iteration over block placements.
+ * Procedural generators produce their placements through one, which the planner drains into a BuildPlan.
+ */
+public interface PlacementCursor {
+
+    /**
+     * Advance to the next placement
+     * @return false once the cursor is exhausted
+     */
+    boolean next();
+
+    /**
+     * Position of the current placement, packed with BlockPos.asLong
+     */
+    long getPackedPos();
+
+    BlockState getState();
+
+    /**
+     * Index of the current placement, or -1 before the first call to next()
+     */
+    int getIndex();
+
+    /**
+     * Rewind to the first placement
+     */
+    void reset();
+}
@@ -0,0 +1,66 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.util.SteveExecutors;
+
+import java.util.BitSet;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compares a plan against a world snapshot and keeps only the placements that would change something.
+ * The plan is split into index ranges diffed in parallel on the fork/join pool.
+ */
+public class PlanDiffer {
+    private static final int LEAF_SIZE = 64 * 256; // Multiple of 64 so leaves never share a word
+
+    /**
+     * @param candidates plan indices to check, or null for the whole plan. Indices outside it are
+     *                   treated as already done, which makes re-diffing a resumed build cheap.
+     * @return the plan indices whose block in the world differs from the planned one
+     */
+    public static BitSet diff(BuildPlan plan, WorldSnapshot snapshot, BitSet candidates) {
+        long[] words = new long[(plan.size() + 63) >>> 6];
+        SteveExecutors.forkJoin().invoke(new DiffTask(plan, snapshot, candidates, words, 0, plan.size()));
+        return BitSet.valueOf(words);
+    }
+
+    private static class DiffTask extends RecursiveAction {
+        private final BuildPlan plan;
+        private final WorldSnapshot snapshot;
+        private final BitSet candidates;
+        private final long[] mismatched;
+        private final int from;
+        private final int to;
+
+        DiffTask(BuildPlan plan, WorldSnapshot snapshot, BitSet candidates, long[] mismatched, int from, int to) {
+            this.plan = plan;
+            this.snapshot = snapshot;
+            this.candidates = candidates;
+            this.mismatched = mismatched;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = from + ((to - from) / 2 / LEAF_SIZE) * LEAF_SIZE;
+                if (mid == from) {
+                    mid = from + LEAF_SIZE;
+                }
+                invokeAll(new DiffTask(plan, snapshot, candidates, mismatched, from, mid),
+                    new DiffTask(plan, snapshot, candidates, mismatched, mid, to));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                if (candidates != null && !candidates.get(i)) {
+                    continue;
+                }
+                // States are interned, so identity is exact; an unloaded chunk always counts as a mismatch
+                if (snapshot.getBlockState(plan.getPackedPos(i)) != plan.getState(i)) {
+                    mismatched[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Map;
+
+/**
+ * Mirror, rotation, integer scale and offset applied to a plan around its footprint.
+ * Structures are authored with their front on the north (-Z) side, like the procedural house,
+ * so facing(direction) turns that front towards the given direction.
+ * Positions are mapped arithmetically on packed longs and block states once per palette entry,
+ * see BuildPlan.transformed.
+ */
+public class PlanTransform {
+    public static final PlanTransform IDENTITY = new PlanTransform(Rotation.NONE, Mirror.NONE, 1, BlockPos.ZERO);
+    private static final int MAX_SCALE = 4;
+
+    public final Rotation rotation;
+    public final Mirror mirror;
+    public final int scale;
+    public final BlockPos offset;
+
+    public PlanTransform(Rotation rotation, Mirror mirror, int scale, BlockPos offset) {
+        this.rotation = rotation;
+        this.mirror = mirror;
+        this.scale = Math.max(1, Math.min(MAX_SCALE, scale));
+        this.offset = offset;
+    }
+
+    /**
+     * Rotation that turns a structure's front (north side) towards the given horizontal direction
+     */
+    public static PlanTransform facing(Direction front) {
+        return new PlanTransform(rotationFacing(front), Mirror.NONE, 1, BlockPos.ZERO);
+    }
+
+    private static Rotation rotationFacing(Direction front) {
+        for (Rotation rotation : Rotation.values()) {
+            if (rotation.rotate(Direction.NORTH) == front) {
+                return rotation;
+            }
+        }
+        return Rotation.NONE;
+    }
+
+    /**
+     * Read a transform from task parameters: "rotation" (degrees clockwise, or the direction the front
+     * should face), "mirror" ("x", "z" or true) and "scale". Without a rotation the structure faces defaultFront.
+     * @param defaultFront may be null to keep the stored orientation
+     */
+    public static PlanTransform fromParameters(Map<String, Object> params, Direction defaultFront) {
+        Rotation rotation = defaultFront != null ? rotationFacing(defaultFront) : Rotation.NONE;
+        Object rotationParam = params.get("rotation");
+        if (rotationParam instanceof Number degrees) {
+            int quarterTurns = Math.floorMod(Math.round(degrees.floatValue() / 90.0f), 4);
+            rotation = Rotation.values()[quarterTurns];
+        } else if (rotationParam != null) {
+            Direction direction = Direction.byName(rotationParam.toString().toLowerCase());
+            if (direction != null && direction.getAxis().isHorizontal()) {
+                rotation = rotationFacing(direction);
+            }
+        }
+
+        Mirror mirror = Mirror.NONE;
+        Object mirrorParam = params.get("mirror");
+        if (mirrorParam != null) {
+            switch (mirrorParam.toString().toLowerCase()) {
+                case "x", "front_back" -> mirror = Mirror.FRONT_BACK;
+                case "z", "left_right", "true" -> mirror = Mirror.LEFT_RIGHT;
+                default -> { }
+            }
+        }
+
+        int scale = 1;
+        if (params.get("scale") instanceof Number scaleParam) {
+            scale = scaleParam.intValue();
+        }
+        return new PlanTransform(rotation, mirror, scale, BlockPos.ZERO);
+    }
+
+    public boolean isIdentity() {
+        return rotation == Rotation.NONE && mirror == Mirror.NONE && scale == 1 && offset.equals(BlockPos.ZERO);
+    }
+
+    /**
+     * Whether the footprint's X and Z extents trade places
+     */
+    public boolean swapsAxes() {
+        return rotation == Rotation.CLOCKWISE_90 || rotation == Rotation.COUNTERCLOCKWISE_90;
+    }
+
+    public int transformedWidth(int width, int depth) {
+        return (swapsAxes() ? depth : width) * scale;
+    }
+
+    public int transformedHeight(int height) {
+        return height * scale;
+    }
+
+    public int transformedDepth(int width, int depth) {
+        return (swapsAxes() ? width : depth) * scale;
+    }
+
+    /**
+     * Facing properties (stairs, doors, torches...) follow the same mirror and rotation as the positions
+     */
+    public BlockState apply(BlockState state) {
+        return state.mirror(mirror).rotate(rotation);
+    }
+
+    /**
+     * New local X of a column at (x, z) inside a spanX x spanZ footprint, before scaling
+     */
+    int localX(int x, int z, int spanX, int spanZ) {
+        if (mirror == Mirror.FRONT_BACK) x = spanX - 1 - x;
+        if (mirror == Mirror.LEFT_RIGHT) z = spanZ - 1 - z;
+        return switch (rotation) {
+            case NONE -> x;
+            case CLOCKWISE_90 -> spanZ - 1 - z;
+            case CLOCKWISE_180 -> spanX - 1 - x;
+            case COUNTERCLOCKWISE_90 -> z;
+        };
+    }
+
+    /**
+     * New local Z of a column at (x, z) inside a spanX x spanZ footprint, before scaling
+     */
+    int localZ(int x, int z, int spanX, int spanZ) {
+        if (mirror == Mirror.FRONT_BACK) x = spanX - 1 - x;
+        if (mirror == Mirror.LEFT_RIGHT) z = spanZ - 1 - z;
+        return switch (rotation) {
+            case NONE -> z;
+            case CLOCKWISE_90 -> x;
+            case CLOCKWISE_180 -> spanZ - 1 - z;
+            case COUNTERCLOCKWISE_90 -> spanX - 1 - x;
+        };
+    }
+
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putString("Rotation", rotation.name());
+        tag.putString("Mirror", mirror.name());
+        tag.putInt("Scale", scale);
+        tag.putLong("Offset", offset.asLong());
+        return tag;
+    }
+
+    public static PlanTransform load(CompoundTag tag) {
+        try {
+            return new PlanTransform(Rotation.valueOf(tag.getString("Rotation")), Mirror.valueOf(tag.getString("Mirror")),
+                tag.getInt("Scale"), BlockPos.of(tag.getLong("Offset")));
+        } catch (IllegalArgumentException e) {
+            return IDENTITY;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "rotation=" + rotation + ", mirror=" + mirror + ", scale=" + scale + ", offset=" + offset.toShortString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lazy cursor over a procedural structure described as a list of passes.
+ * Each pass is a box (relative to the origin) plus a rule that decides the block for a cell,
+ * so a hollow shape is described by thin slabs and memory stays independent of the volume.
+ */
+public class ProceduralCursor implements PlacementCursor {
+
+    /**
+     * Decides what goes into a cell, in coordinates relative to the structure origin
+     * @return the state to place, or null to leave the cell alone
+     */
+    public interface CellRule {
+        BlockState at(int x, int y, int z);
+    }
+
+    private static class Pass {
+        final int minX, maxX, minY, maxY, minZ, maxZ; // max is exclusive
+        final CellRule rule;
+
+        Pass(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, CellRule rule) {
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+            this.rule = rule;
+        }
+
+        boolean isEmpty() {
+            return minX >= maxX || minY >= maxY || minZ >= maxZ;
+        }
+    }
+
+    private final BlockPos origin;
+    private final List<Pass> passes;
+    private int passIndex;
+    private boolean inPass;
+    private int x, y, z;
+    private int index;
+    private long currentPos;
+    private BlockState currentState;
+
+    private ProceduralCursor(BlockPos origin, List<Pass> passes) {
+        this.origin = origin;
+        this.passes = passes;
+        reset();
+    }
+
+    @Override
+    public boolean next() {
+        while (passIndex < passes.size()) {
+            Pass pass = passes.get(passIndex);
+            while (advanceCell(pass)) {
+                BlockState state = pass.rule.at(x, y, z);
+                if (state != null) {
+                    currentPos = BlockPos.asLong(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                    currentState = state;
+                    index++;
+                    return true;
+                }
+            }
+            passIndex++;
+            inPass = false;
+        }
+        currentState = null;
+        return false;
+    }
+
+    /**
+     * Step through a pass Y-major (then X, then Z) so each pass emits bottom-to-top
+     */
+    private boolean advanceCell(Pass pass) {
+        if (!inPass) {
+            if (pass.isEmpty()) {
+                return false;
+            }
+            inPass = true;
+            x = pass.minX;
+            y = pass.minY;
+            z = pass.minZ;
+            return true;
+        }
+        if (++z < pass.maxZ) {
+            return true;
+        }
+        z = pass.minZ;
+        if (++x < pass.maxX) {
+            return true;
+        }
+        x = pass.minX;
+        return ++y < pass.maxY;
+    }
+
+    @Override
+    public long getPackedPos() {
+        return currentPos;
+    }
+
+    @Override
+    public BlockState getState() {
+        return currentState;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public void reset() {
+        passIndex = 0;
+        inPass = false;
+        index = -1;
+        currentState = null;
+    }
+
+    /**
+     * Collects passes for one structure. The pass list is O(features), never O(blocks).
+     */
+    public static class Builder {
+        private final BlockPos origin;
+        private final List<Pass> passes = new ArrayList<>();
+
+        public Builder(BlockPos origin) {
+            this.origin = origin;
+        }
+
+        /**
+         * Visit every cell of the box [minX, maxX) x [minY, maxY) x [minZ, maxZ)
+         */
+        public Builder box(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, CellRule rule) {
+            passes.add(new Pass(minX, maxX, minY, maxY, minZ, maxZ, rule));
+            return this;
+        }
+
+        public Builder fill(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, BlockState state) {
+            return box(minX, maxX, minY, maxY, minZ, maxZ, (x, y, z) -> state);
+        }
+
+        /**
+         * Visit the outer shell of the columns in [minX, maxX) x [minZ, maxZ), once per cell,
+         * for every Y in [minY, maxY)
+         */
+        public Builder walls(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, CellRule rule) {
+            if (minX >= maxX || minZ >= maxZ) {
+                return this;
+            }
+            box(minX, maxX, minY, maxY, minZ, minZ + 1, rule);
+            if (maxZ - 1 > minZ) {
+                box(minX, maxX, minY, maxY, maxZ - 1, maxZ, rule);
+            }
+            box(minX, minX + 1, minY, maxY, minZ + 1, maxZ - 1, rule);
+            if (maxX - 1 > minX) {
+                box(maxX - 1, maxX, minY, maxY, minZ + 1, maxZ - 1, rule);
+            }
+            return this;
+        }
+
+        public Builder ring(int minX, int maxX, int y, int minZ, int maxZ, BlockState state) {
+            return walls(minX, maxX, y, y + 1, minZ, maxZ, (x, yy, z) -> state);
+        }
+
+        public ProceduralCursor build() {
+            return new ProceduralCursor(origin, List.copyOf(passes));
+        }
+    }
+}
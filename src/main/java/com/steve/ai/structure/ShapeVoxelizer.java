@@ -0,0 +1,213 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.util.SteveExecutors;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rasterizes parametric shapes into build plans.
+ * Shapes are signed-distance functions (negative inside) composed with CSG operations;
+ * the bounding box is cut into Y slabs that are voxelized in parallel on the fork/join pool.
+ */
+public class ShapeVoxelizer {
+    private static final int SLAB_HEIGHT = 4;
+
+    /**
+     * Signed distance to a surface, negative inside. Only the sign is used for rasterizing,
+     * so the composed distances may be bounds rather than exact Euclidean distances.
+     */
+    @FunctionalInterface
+    public interface Shape {
+        double distance(double x, double y, double z);
+
+        default Shape union(Shape other) {
+            return (x, y, z) -> Math.min(distance(x, y, z), other.distance(x, y, z));
+        }
+
+        default Shape intersect(Shape other) {
+            return (x, y, z) -> Math.max(distance(x, y, z), other.distance(x, y, z));
+        }
+
+        default Shape subtract(Shape other) {
+            return (x, y, z) -> Math.max(distance(x, y, z), -other.distance(x, y, z));
+        }
+
+        default Shape translate(double dx, double dy, double dz) {
+            return (x, y, z) -> distance(x - dx, y - dy, z - dz);
+        }
+    }
+
+    public static Shape sphere(double radius) {
+        return (x, y, z) -> Math.sqrt(x * x + y * y + z * z) - radius;
+    }
+
+    /**
+     * Axis-aligned box centered on the origin
+     */
+    public static Shape box(double halfX, double halfY, double halfZ) {
+        return (x, y, z) -> Math.max(Math.abs(x) - halfX, Math.max(Math.abs(y) - halfY, Math.abs(z) - halfZ));
+    }
+
+    /**
+     * Vertical cylinder centered on the origin
+     */
+    public static Shape cylinderY(double radius, double halfHeight) {
+        return (x, y, z) -> Math.max(Math.sqrt(x * x + z * z) - radius, Math.abs(y) - halfHeight);
+    }
+
+    /**
+     * Cylinder running along Z with unbounded length, e.g. the opening of an arch
+     */
+    public static Shape cylinderZ(double radius) {
+        return (x, y, z) -> Math.sqrt(x * x + y * y) - radius;
+    }
+
+    /**
+     * Rectangular pyramid with its base centered on the origin, narrowing linearly to a point at {@code height}
+     */
+    public static Shape pyramid(double halfX, double halfZ, double height) {
+        return (x, y, z) -> {
+            double footprint = Math.max(Math.abs(x) / halfX, Math.abs(z) / halfZ) - (1.0 - y / height);
+            return Math.max(footprint, -y);
+        };
+    }
+
+    /**
+     * Everything at or above {@code minY}
+     */
+    public static Shape above(double minY) {
+        return (x, y, z) -> minY - y;
+    }
+
+    /**
+     * Voxelize a shape over the box [0, sizeX) x [0, sizeY) x [0, sizeZ) relative to the spec origin.
+     * Cells are sampled at their centers. When {@code hollow} is set only the surface is kept:
+     * inside cells with at least one face-adjacent outside cell, which gives a watertight one-block shell.
+     */
+    public static BuildPlan rasterize(StructureSpec spec, int sizeX, int sizeY, int sizeZ,
+                                      Shape shape, boolean hollow, BlockState state) {
+        BuildPlan.Builder builder = new BuildPlan.Builder(spec.structureType, spec.origin).spec(spec)
+            .dimensions(sizeX, sizeY, sizeZ);
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            return builder.build();
+        }
+
+        Raster raster = new Raster(spec.origin, sizeX, sizeY, sizeZ, shape, hollow);
+        long[][] slabs = new long[(sizeY + SLAB_HEIGHT - 1) / SLAB_HEIGHT][];
+        SteveExecutors.forkJoin().invoke(new SlabTask(raster, slabs, 0, slabs.length));
+
+        // Slabs are concatenated in order so the plan comes out bottom-to-top and deterministic
+        for (long[] slab : slabs) {
+            builder.addAll(slab, state);
+        }
+        return builder.build();
+    }
+
+    private static class Raster {
+        final BlockPos origin;
+        final int sizeX, sizeY, sizeZ;
+        final Shape shape;
+        final boolean hollow;
+
+        Raster(BlockPos origin, int sizeX, int sizeY, int sizeZ, Shape shape, boolean hollow) {
+            this.origin = origin;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.shape = shape;
+            this.hollow = hollow;
+        }
+
+        /**
+         * Occupancy of one layer, indexed x * sizeZ + z. Layers outside the box are empty.
+         */
+        boolean[] sampleLayer(int y) {
+            boolean[] layer = new boolean[sizeX * sizeZ];
+            if (y < 0 || y >= sizeY) {
+                return layer;
+            }
+            double sampleY = y + 0.5;
+            for (int x = 0; x < sizeX; x++) {
+                double sampleX = x + 0.5;
+                int row = x * sizeZ;
+                for (int z = 0; z < sizeZ; z++) {
+                    layer[row + z] = shape.distance(sampleX, sampleY, z + 0.5) <= 0;
+                }
+            }
+            return layer;
+        }
+
+        long[] rasterizeSlab(int slab) {
+            int minY = slab * SLAB_HEIGHT;
+            int maxY = Math.min(minY + SLAB_HEIGHT, sizeY);
+            long[] out = new long[64];
+            int count = 0;
+
+            boolean[] below = hollow ? sampleLayer(minY - 1) : null;
+            boolean[] current = sampleLayer(minY);
+            for (int y = minY; y < maxY; y++) {
+                boolean[] above = hollow ? sampleLayer(y + 1) : null;
+                for (int x = 0; x < sizeX; x++) {
+                    int row = x * sizeZ;
+                    for (int z = 0; z < sizeZ; z++) {
+                        int i = row + z;
+                        if (!current[i]) continue;
+                        if (hollow && !isSurface(current, below, above, i, x, z)) continue;
+
+                        if (count == out.length) {
+                            out = Arrays.copyOf(out, count * 2);
+                        }
+                        out[count++] = BlockPos.asLong(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                    }
+                }
+                if (hollow) {
+                    below = current;
+                    current = above;
+                } else if (y + 1 < maxY) {
+                    current = sampleLayer(y + 1);
+                }
+            }
+            return Arrays.copyOf(out, count);
+        }
+
+        private boolean isSurface(boolean[] current, boolean[] below, boolean[] above, int i, int x, int z) {
+            return !below[i] || !above[i]
+                || x == 0 || !current[i - sizeZ]
+                || x == sizeX - 1 || !current[i + sizeZ]
+                || z == 0 || !current[i - 1]
+                || z == sizeZ - 1 || !current[i + 1];
+        }
+    }
+
+    /**
+     * Splits a range of slabs in half until a single slab is left, then rasterizes it
+     */
+    private static class SlabTask extends RecursiveAction {
+        private final Raster raster;
+        private final long[][] slabs;
+        private final int from;
+        private final int to;
+
+        SlabTask(Raster raster, long[][] slabs, int from, int to) {
+            this.raster = raster;
+            this.slabs = slabs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    slabs[from] = raster.rasterizeSlab(from);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SlabTask(raster, slabs, from, mid), new SlabTask(raster, slabs, mid, to));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.steve.ai.structure;
+
+import com.steve.ai.SteveMod;
+import com.steve.ai.memory.StructureRegistry;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+import java.util.Arrays;
+
+/**
+ * Finds flat, free ground for a footprint by reading the surface heightmap once per column.
+ * Summed-area tables of height and height squared give the mean and variance of any footprint
+ * in O(1), so every position in the search window can be scored; the best ones are then checked
+ * against the StructureRegistry until one is free.
+ */
+public class SiteSelector {
+    private static final double DISTANCE_PENALTY = 0.2; // Std-dev points per block from the requested spot
+    private static final int MAX_REGISTRY_CHECKS = 64;
+
+    /**
+     * @param center where the footprint should ideally be centered
+     * @param radius how far (in blocks) the footprint may be moved from there
+     * @return the corner of the best footprint at its ground level (first free block), or null if the
+     *         window has no usable spot (unloaded chunks, water, existing structures)
+     */
+    public static BlockPos findSite(ServerLevel level, BlockPos center, int radius, int width, int height, int depth) {
+        long startTime = System.nanoTime();
+        width = Math.max(1, width);
+        depth = Math.max(1, depth);
+
+        // Window covers every footprint whose corner lies within radius of the centered corner
+        int cornerX = center.getX() - width / 2;
+        int cornerZ = center.getZ() - depth / 2;
+        int minX = cornerX - radius;
+        int minZ = cornerZ - radius;
+        int sizeX = 2 * radius + width;
+        int sizeZ = 2 * radius + depth;
+
+        // Summed-area tables with a zero row/column in front: sat[(x+1)*(sizeZ+1) + (z+1)]
+        int stride = sizeZ + 1;
+        long[] sumHeight = new long[(sizeX + 1) * stride];
+        long[] sumSquares = new long[(sizeX + 1) * stride];
+        int[] sumUnusable = new int[(sizeX + 1) * stride];
+
+        BlockPos.MutableBlockPos surface = new BlockPos.MutableBlockPos();
+        for (int x = 0; x < sizeX; x++) {
+            for (int z = 0; z < sizeZ; z++) {
+                int worldX = minX + x;
+                int worldZ = minZ + z;
+                long h = 0;
+                int unusable = 1;
+                LevelChunk chunk = level.getChunkSource().getChunkNow(worldX >> 4, worldZ >> 4);
+                if (chunk != null) {
+                    // The heightmap gives the top motion-blocking block; the ground level is the free block above it
+                    h = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING_NO_LEAVES, worldX & 15, worldZ & 15) + 1;
+                    surface.set(worldX, (int) h - 1, worldZ);
+                    unusable = chunk.getFluidState(surface).isEmpty() ? 0 : 1;
+                }
+
+                int i = (x + 1) * stride + (z + 1);
+                sumHeight[i] = h + sumHeight[i - stride] + sumHeight[i - 1] - sumHeight[i - stride - 1];
+                sumSquares[i] = h * h + sumSquares[i - stride] + sumSquares[i - 1] - sumSquares[i - stride - 1];
+                sumUnusable[i] = unusable + sumUnusable[i - stride] + sumUnusable[i - 1] - sumUnusable[i - stride - 1];
+            }
+        }
+
+        // Score every candidate corner
+        int candidatesX = sizeX - width + 1;
+        int candidatesZ = sizeZ - depth + 1;
+        double area = (double) width * depth;
+        double[] scores = new double[candidatesX * candidatesZ];
+        int[] groundY = new int[scores.length];
+        for (int x = 0; x < candidatesX; x++) {
+            for (int z = 0; z < candidatesZ; z++) {
+                int c = x * candidatesZ + z;
+                if (boxSum(sumUnusable, stride, x, z, width, depth) > 0) {
+                    scores[c] = Double.NaN;
+                    continue;
+                }
+                double mean = boxSum(sumHeight, stride, x, z, width, depth) / area;
+                double variance = Math.max(0.0, boxSum(sumSquares, stride, x, z, width, depth) / area - mean * mean);
+                double dx = x - radius;
+                double dz = z - radius;
+                scores[c] = Math.sqrt(variance) + DISTANCE_PENALTY * Math.sqrt(dx * dx + dz * dz);
+                groundY[c] = (int) Math.round(mean);
+            }
+        }
+
+        // Best-scoring first, primitive sort on (score bits, index)
+        long[] order = new long[scores.length];
+        int usable = 0;
+        for (int c = 0; c < scores.length; c++) {
+            if (!Double.isNaN(scores[c])) {
+                // Scores are non-negative, so their float bits sort in the same order as the values
+                order[usable++] = ((long) Float.floatToIntBits((float) scores[c]) << 32) | c;
+            }
+        }
+        Arrays.sort(order, 0, usable);
+
+        int checks = Math.min(usable, MAX_REGISTRY_CHECKS);
+        for (int k = 0; k < checks; k++) {
+            int c = (int) order[k];
+            BlockPos site = new BlockPos(minX + c / candidatesZ, groundY[c], minZ + c % candidatesZ);
+            if (!StructureRegistry.hasConflict(level, site, width, height, depth)) {
+                SteveMod.LOGGER.info("Selected {}x{} site at {} (score {}) from {} candidates in {}ms",
+                    width, depth, site, String.format("%.2f", scores[c]), usable,
+                    (System.nanoTime() - startTime) / 1_000_000);
+                return site;
+            }
+        }
+
+        SteveMod.LOGGER.warn("No free {}x{} site within {} blocks of {}", width, depth, radius, center);
+        return null;
+    }
+
+    private static long boxSum(long[] sat, int stride, int x, int z, int width, int depth) {
+        return sat[(x + width) * stride + (z + depth)] - sat[x * stride + (z + depth)]
+            - sat[(x + width) * stride + z] + sat[x * stride + z];
+    }
+
+    private static int boxSum(int[] sat, int stride, int x, int z, int width, int depth) {
+        return sat[(x + width) * stride + (z + depth)] - sat[x * stride + (z + depth)]
+            - sat[(x + width) * stride + z] + sat[x * stride + z];
+    }
+}
@@ -3,27 +3,34 @@ package com.steve.ai.structure;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Utility class for procedural structure generation.
  * Contains algorithms for generating various building types.
+ * Procedural generators return cursors that produce placements on demand, without intermediate
+ * lists; plan() drains them into a packed BuildPlan. Curved shapes (spheres, domes, ...) are
+ * rasterized straight into a plan by {@link ShapeVoxelizer}.
  */
 public class StructureGenerators {
 
-    public static class BlockPlacement {
-        public final BlockPos pos;
-        public final Block block;
-
-        public BlockPlacement(BlockPos pos, Block block) {
-            this.pos = pos;
-            this.block = block;
+    /**
+     * Materialize the structure as a packed plan. Shapes come straight out of the voxelizer,
+     * procedural structures are drained from their cursor.
+     */
+    public static BuildPlan plan(StructureSpec spec) {
+        BuildPlan shape = rasterizeShape(spec);
+        if (shape != null) {
+            return shape;
         }
+        return new BuildPlan.Builder(spec.structureType, spec.origin).spec(spec)
+            .addAll(generateProcedural(spec.structureType, spec.origin, spec.width, spec.height, spec.depth, spec.materials))
+            .build();
     }
 
-    public static List<BlockPlacement> generate(String structureType, BlockPos start, int width, int height, int depth, List<Block> materials) {
+    private static PlacementCursor generateProcedural(String structureType, BlockPos start, int width, int height, int depth, List<Block> materials) {
         return switch (structureType.toLowerCase()) {
             case "house", "home" -> buildAdvancedHouse(start, width, height, depth, materials);
             case "castle", "catle", "fort" -> buildCastle(start, width, height, depth, materials);
@@ -37,116 +44,127 @@ public class StructureGenerators {
         };
     }
 
+    /**
+     * Voxelize the curved structure types, or return null if the type is not a shape
+     */
+    private static BuildPlan rasterizeShape(StructureSpec spec) {
+        int width = spec.width;
+        int height = spec.height;
+        int depth = spec.depth;
+        BlockState material = getMaterial(spec.materials, 0).defaultBlockState();
+
+        return switch (spec.structureType.toLowerCase()) {
+            case "sphere", "ball", "orb" -> {
+                double radius = width / 2.0;
+                ShapeVoxelizer.Shape sphere = ShapeVoxelizer.sphere(radius).translate(radius, radius, radius);
+                yield ShapeVoxelizer.rasterize(spec, width, width, width, sphere, true, material);
+            }
+            case "dome" -> {
+                // Upper half of a sphere centered on the ground; the cut face becomes the floor
+                double radius = width / 2.0;
+                ShapeVoxelizer.Shape dome = ShapeVoxelizer.sphere(radius).translate(radius, 0, radius)
+                    .intersect(ShapeVoxelizer.above(0));
+                yield ShapeVoxelizer.rasterize(spec, width, (int) Math.ceil(radius), width, dome, true, material);
+            }
+            case "pyramid" -> {
+                int pyramidHeight = Math.max(height, (Math.min(width, depth) + 1) / 2);
+                ShapeVoxelizer.Shape pyramid = ShapeVoxelizer.pyramid(width / 2.0, depth / 2.0, pyramidHeight)
+                    .translate(width / 2.0, 0, depth / 2.0);
+                yield ShapeVoxelizer.rasterize(spec, width, pyramidHeight, depth, pyramid, true, material);
+            }
+            case "cylinder", "silo" -> {
+                double radius = width / 2.0;
+                ShapeVoxelizer.Shape cylinder = ShapeVoxelizer.cylinderY(radius, height / 2.0)
+                    .translate(radius, height / 2.0, radius);
+                yield ShapeVoxelizer.rasterize(spec, width, height, width, cylinder, true, material);
+            }
+            case "arch", "archway" -> {
+                // Solid block with a round-topped opening running through it along Z
+                double halfWidth = width / 2.0;
+                double radius = Math.max(1.0, halfWidth - 2);
+                double springY = Math.max(0.0, height - radius - 2);
+                ShapeVoxelizer.Shape body = ShapeVoxelizer.box(halfWidth, height / 2.0, depth / 2.0)
+                    .translate(halfWidth, height / 2.0, depth / 2.0);
+                ShapeVoxelizer.Shape opening = ShapeVoxelizer.cylinderZ(radius).translate(halfWidth, springY, 0)
+                    .union(ShapeVoxelizer.box(radius, springY, Double.POSITIVE_INFINITY).translate(halfWidth, 0, 0));
+                yield ShapeVoxelizer.rasterize(spec, width, height, depth, body.subtract(opening), false, material);
+            }
+            default -> null;
+        };
+    }
+
     private static Block getMaterial(List<Block> materials, int index) {
         if (materials.isEmpty()) return Blocks.OAK_PLANKS;
         return materials.get(index % materials.size());
     }
 
-    private static List<BlockPlacement> buildAdvancedHouse(BlockPos start, int width, int height, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block floorMaterial = getMaterial(materials, 0);
-        Block wallMaterial = getMaterial(materials, 1);
-        Block roofMaterial = getMaterial(materials, 2);
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block doorMaterial = Blocks.OAK_DOOR;
+    private static PlacementCursor buildAdvancedHouse(BlockPos start, int width, int height, int depth, List<Block> materials) {
+        BlockState floorMaterial = getMaterial(materials, 0).defaultBlockState();
+        BlockState wallMaterial = getMaterial(materials, 1).defaultBlockState();
+        Block roofBlock = getMaterial(materials, 2);
+        BlockState windowMaterial = Blocks.GLASS_PANE.defaultBlockState();
+        BlockState doorMaterial = Blocks.OAK_DOOR.defaultBlockState();
 
-        if (roofMaterial == Blocks.GLASS || roofMaterial == Blocks.GLASS_PANE) {
-            roofMaterial = Blocks.OAK_PLANKS;
+        if (roofBlock == Blocks.GLASS || roofBlock == Blocks.GLASS_PANE) {
+            roofBlock = Blocks.OAK_PLANKS;
         }
+        BlockState roofMaterial = roofBlock.defaultBlockState();
+
+        ProceduralCursor.Builder passes = new ProceduralCursor.Builder(start);
 
         // Floor
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
+        passes.fill(0, width, 0, 1, 0, depth, floorMaterial);
 
-        // Walls with windows and door
-        for (int y = 1; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                // Front wall
-                if (x == width / 2 && y <= 2) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), doorMaterial));
-                } else if (y >= 2 && y <= height - 1 && (x == 2 || x == width - 3)) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-
-                // Back wall
-                if (y >= 2 && y <= height - 1 && (x == 2 || x == width / 2 || x == width - 3)) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-                }
-            }
+        // Front wall with door and windows
+        passes.box(0, width, 1, height + 1, 0, 1, (x, y, z) -> {
+            if (x == width / 2 && y <= 2) return doorMaterial;
+            if (y >= 2 && y <= height - 1 && (x == 2 || x == width - 3)) return windowMaterial;
+            return wallMaterial;
+        });
 
-            // Side walls
-            for (int z = 1; z < depth - 1; z++) {
-                if (y >= 2 && y <= height - 1 && (z % 3 == 1)) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), windowMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), windowMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
-        }
+        // Back wall
+        passes.box(0, width, 1, height + 1, depth - 1, depth, (x, y, z) ->
+            y >= 2 && y <= height - 1 && (x == 2 || x == width / 2 || x == width - 3) ? windowMaterial : wallMaterial);
+
+        // Side walls
+        ProceduralCursor.CellRule sideWall = (x, y, z) ->
+            y >= 2 && y <= height - 1 && (z % 3 == 1) ? windowMaterial : wallMaterial;
+        passes.box(0, 1, 1, height + 1, 1, depth - 1, sideWall);
+        passes.box(width - 1, width, 1, height + 1, 1, depth - 1, sideWall);
 
         // Pyramid roof
         int roofStartHeight = height + 1;
         int roofLayers = Math.max(width, depth) / 2 + 1;
 
         for (int layer = 0; layer < roofLayers; layer++) {
-            int currentHeight = roofStartHeight + layer;
             int inset = layer;
-
-            for (int x = inset; x < width - inset; x++) {
-                for (int z = inset; z < depth - inset; z++) {
-                    if (x == inset || x == width - 1 - inset ||
-                        z == inset || z == depth - 1 - inset) {
-                        blocks.add(new BlockPlacement(start.offset(x, currentHeight, z), roofMaterial));
-                    }
-                }
-            }
+            passes.ring(inset, width - inset, roofStartHeight + layer, inset, depth - inset, roofMaterial);
 
             if (width - 2 * inset <= 1 || depth - 2 * inset <= 1) {
                 break;
             }
         }
 
-        return blocks;
+        return passes.build();
     }
 
-    private static List<BlockPlacement> buildCastle(BlockPos start, int width, int height, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block stoneMaterial = Blocks.STONE_BRICKS;
-        Block wallMaterial = Blocks.COBBLESTONE;
-        Block windowMaterial = Blocks.GLASS_PANE;
-
-        // Main structure
-        for (int y = 0; y <= height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < depth; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == depth - 1);
-                    boolean isCorner = (x <= 2 || x >= width - 3) && (z <= 2 || z >= depth - 3);
-
-                    if (y == 0) {
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), stoneMaterial));
-                    } else if (isEdge && !isCorner) {
-                        if (x == width / 2 && z == 0 && y <= 3) {
-                            if (y >= 1 && y <= 3 && x >= width / 2 - 1 && x <= width / 2 + 1) {
-                                blocks.add(new BlockPlacement(start.offset(x, y, 0), Blocks.AIR));
-                            }
-                        } else if (y % 4 == 2 && !isCorner) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
-        }
+    private static PlacementCursor buildCastle(BlockPos start, int width, int height, int depth, List<Block> materials) {
+        BlockState stoneMaterial = Blocks.STONE_BRICKS.defaultBlockState();
+        BlockState wallMaterial = Blocks.COBBLESTONE.defaultBlockState();
+        BlockState windowMaterial = Blocks.GLASS_PANE.defaultBlockState();
+        BlockState air = Blocks.AIR.defaultBlockState();
+
+        ProceduralCursor.Builder passes = new ProceduralCursor.Builder(start);
+
+        // Main structure: solid floor, then curtain walls between the corner towers
+        passes.fill(0, width, 0, 1, 0, depth, stoneMaterial);
+        passes.walls(0, width, 1, height + 1, 0, depth, (x, y, z) -> {
+            boolean isCorner = (x <= 2 || x >= width - 3) && (z <= 2 || z >= depth - 3);
+            if (isCorner) return null;
+            if (x == width / 2 && z == 0 && y <= 3) return air; // Gate
+            if (y % 4 == 2) return windowMaterial; // Arrow slits
+            return wallMaterial;
+        });
 
         // Corner towers
         int towerHeight = height + 6;
@@ -154,225 +172,129 @@ public class StructureGenerators {
         int[][] corners = {{0, 0}, {width - towerSize, 0}, {0, depth - towerSize}, {width - towerSize, depth - towerSize}};
 
         for (int[] corner : corners) {
-            for (int y = 0; y <= towerHeight; y++) {
-                for (int dx = 0; dx < towerSize; dx++) {
-                    for (int dz = 0; dz < towerSize; dz++) {
-                        boolean isTowerEdge = (dx == 0 || dx == towerSize - 1 || dz == 0 || dz == towerSize - 1);
-
-                        if (y == 0 || isTowerEdge) {
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), stoneMaterial));
-                        }
-
-                        if (y % 5 == 3 && isTowerEdge && (dx == towerSize / 2 || dz == towerSize / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(corner[0] + dx, y, corner[1] + dz), windowMaterial));
-                        }
-                    }
-                }
-            }
+            int cornerX = corner[0];
+            int cornerZ = corner[1];
+            passes.box(cornerX, cornerX + towerSize, 0, towerHeight + 1, cornerZ, cornerZ + towerSize, (x, y, z) -> {
+                int dx = x - cornerX;
+                int dz = z - cornerZ;
+                boolean isTowerEdge = (dx == 0 || dx == towerSize - 1 || dz == 0 || dz == towerSize - 1);
+                if (y % 5 == 3 && isTowerEdge && (dx == towerSize / 2 || dz == towerSize / 2)) return windowMaterial;
+                if (y == 0 || isTowerEdge) return stoneMaterial;
+                return null;
+            });
 
             // Tower crenellations
-            for (int dx = 0; dx < towerSize; dx++) {
-                for (int dz = 0; dz < towerSize; dz++) {
-                    if (dx % 2 == 0 || dz % 2 == 0) {
-                        blocks.add(new BlockPlacement(start.offset(corner[0] + dx, towerHeight + 1, corner[1] + dz), stoneMaterial));
-                    }
-                }
-            }
+            passes.box(cornerX, cornerX + towerSize, towerHeight + 1, towerHeight + 2, cornerZ, cornerZ + towerSize,
+                (x, y, z) -> ((x - cornerX) % 2 == 0 || (z - cornerZ) % 2 == 0) ? stoneMaterial : null);
         }
 
         // Wall crenellations
-        for (int x = 0; x < width; x += 2) {
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, 0), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 1, depth - 1), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(x, height + 2, depth - 1), stoneMaterial));
-        }
-
-        for (int z = 0; z < depth; z += 2) {
-            blocks.add(new BlockPlacement(start.offset(0, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(0, height + 2, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 1, z), stoneMaterial));
-            blocks.add(new BlockPlacement(start.offset(width - 1, height + 2, z), stoneMaterial));
-        }
-
-        return blocks;
+        ProceduralCursor.CellRule evenX = (x, y, z) -> x % 2 == 0 ? stoneMaterial : null;
+        ProceduralCursor.CellRule evenZ = (x, y, z) -> z % 2 == 0 ? stoneMaterial : null;
+        passes.box(0, width, height + 1, height + 3, 0, 1, evenX);
+        passes.box(0, width, height + 1, height + 3, depth - 1, depth, evenX);
+        passes.box(0, 1, height + 1, height + 3, 0, depth, evenZ);
+        passes.box(width - 1, width, height + 1, height + 3, 0, depth, evenZ);
+
+        return passes.build();
     }
 
-    private static List<BlockPlacement> buildAdvancedTower(BlockPos start, int width, int height, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.STONE_BRICKS;
-        Block accentMaterial = Blocks.CHISELED_STONE_BRICKS;
-        Block windowMaterial = Blocks.GLASS_PANE;
-        Block roofMaterial = Blocks.DARK_OAK_STAIRS;
+    private static PlacementCursor buildAdvancedTower(BlockPos start, int width, int height, List<Block> materials) {
+        BlockState wallMaterial = Blocks.STONE_BRICKS.defaultBlockState();
+        BlockState accentMaterial = Blocks.CHISELED_STONE_BRICKS.defaultBlockState();
+        BlockState windowMaterial = Blocks.GLASS_PANE.defaultBlockState();
+        BlockState roofMaterial = Blocks.DARK_OAK_STAIRS.defaultBlockState();
+
+        ProceduralCursor.Builder passes = new ProceduralCursor.Builder(start);
 
         // Main tower body
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                for (int z = 0; z < width; z++) {
-                    boolean isEdge = (x == 0 || x == width - 1 || z == 0 || z == width - 1);
-                    boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
-
-                    if (y == 0) {
-                        blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                    } else if (isEdge) {
-                        if (y % 3 == 2 && !isCorner && (x == width / 2 || z == width / 2)) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), windowMaterial));
-                        } else if (isCorner) {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), accentMaterial));
-                        } else {
-                            blocks.add(new BlockPlacement(start.offset(x, y, z), wallMaterial));
-                        }
-                    }
-                }
-            }
-        }
+        passes.fill(0, width, 0, 1, 0, width, wallMaterial);
+        passes.walls(0, width, 1, height, 0, width, (x, y, z) -> {
+            boolean isCorner = (x == 0 || x == width - 1) && (z == 0 || z == width - 1);
+            if (y % 3 == 2 && !isCorner && (x == width / 2 || z == width / 2)) return windowMaterial;
+            return isCorner ? accentMaterial : wallMaterial;
+        });
 
         // Pyramid roof
         for (int i = 0; i < width / 2 + 1; i++) {
-            for (int x = i; x < width - i; x++) {
-                for (int z = i; z < width - i; z++) {
-                    if (x == i || x == width - 1 - i || z == i || z == width - 1 - i) {
-                        blocks.add(new BlockPlacement(start.offset(x, height + i, z), roofMaterial));
-                    }
-                }
-            }
+            passes.ring(i, width - i, height + i, i, width - i, roofMaterial);
         }
 
-        return blocks;
+        return passes.build();
     }
 
-    private static List<BlockPlacement> buildModernHouse(BlockPos start, int width, int height, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block wallMaterial = Blocks.QUARTZ_BLOCK;
-        Block floorMaterial = Blocks.SMOOTH_STONE;
-        Block glassMaterial = Blocks.GLASS;
-        Block roofMaterial = Blocks.DARK_OAK_PLANKS;
+    private static PlacementCursor buildModernHouse(BlockPos start, int width, int height, int depth, List<Block> materials) {
+        BlockState wallMaterial = Blocks.QUARTZ_BLOCK.defaultBlockState();
+        BlockState floorMaterial = Blocks.SMOOTH_STONE.defaultBlockState();
+        BlockState glassMaterial = Blocks.GLASS.defaultBlockState();
+        BlockState roofMaterial = Blocks.DARK_OAK_PLANKS.defaultBlockState();
+
+        ProceduralCursor.Builder passes = new ProceduralCursor.Builder(start);
 
         // Floor
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), floorMaterial));
-            }
-        }
+        passes.fill(0, width, 0, 1, 0, depth, floorMaterial);
 
         // Modern walls with lots of glass
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (x % 2 == 0 || y > 1) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(x, y, 0), wallMaterial));
-                }
-
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), wallMaterial));
-            }
-
-            for (int z = 1; z < depth - 1; z++) {
-                if (z % 3 == 1 && y == 2) {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), glassMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), glassMaterial));
-                } else {
-                    blocks.add(new BlockPlacement(start.offset(0, y, z), wallMaterial));
-                    blocks.add(new BlockPlacement(start.offset(width - 1, y, z), wallMaterial));
-                }
-            }
-        }
+        passes.box(0, width, 1, height, 0, 1, (x, y, z) -> (x % 2 == 0 || y > 1) ? glassMaterial : wallMaterial);
+        passes.fill(0, width, 1, height, depth - 1, depth, wallMaterial);
+        ProceduralCursor.CellRule sideWall = (x, y, z) -> (z % 3 == 1 && y == 2) ? glassMaterial : wallMaterial;
+        passes.box(0, 1, 1, height, 1, depth - 1, sideWall);
+        passes.box(width - 1, width, 1, height, 1, depth - 1, sideWall);
 
         // Flat roof
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, height, z), roofMaterial));
-            }
-        }
+        passes.fill(0, width, height, height + 1, 0, depth, roofMaterial);
 
-        return blocks;
+        return passes.build();
     }
 
-    private static List<BlockPlacement> buildBarn(BlockPos start, int width, int height, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block woodMaterial = Blocks.OAK_PLANKS;
-        Block logMaterial = Blocks.OAK_LOG;
-        Block roofMaterial = Blocks.SPRUCE_PLANKS;
-
-        // Floor
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), woodMaterial));
-            }
-        }
+    private static PlacementCursor buildBarn(BlockPos start, int width, int height, int depth, List<Block> materials) {
+        BlockState woodMaterial = Blocks.OAK_PLANKS.defaultBlockState();
+        BlockState logMaterial = Blocks.OAK_LOG.defaultBlockState();
+        BlockState roofMaterial = Blocks.SPRUCE_PLANKS.defaultBlockState();
 
-        // Walls
-        for (int y = 1; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean isSupport = (x == 0 || x == width - 1 || x == width / 2);
-                Block material = isSupport ? logMaterial : woodMaterial;
+        ProceduralCursor.Builder passes = new ProceduralCursor.Builder(start);
 
-                if (x >= width / 3 && x <= 2 * width / 3 && y <= 2) {
-                    continue; // Large door opening
-                }
+        // Floor
+        passes.fill(0, width, 0, 1, 0, depth, woodMaterial);
 
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-                blocks.add(new BlockPlacement(start.offset(x, y, depth - 1), material));
-            }
+        // Front and back walls with a large door opening
+        ProceduralCursor.CellRule gableWall = (x, y, z) -> {
+            if (x >= width / 3 && x <= 2 * width / 3 && y <= 2) return null;
+            boolean isSupport = (x == 0 || x == width - 1 || x == width / 2);
+            return isSupport ? logMaterial : woodMaterial;
+        };
+        passes.box(0, width, 1, height, 0, 1, gableWall);
+        passes.box(0, width, 1, height, depth - 1, depth, gableWall);
 
-            for (int z = 1; z < depth - 1; z++) {
-                blocks.add(new BlockPlacement(start.offset(0, y, z), logMaterial));
-                blocks.add(new BlockPlacement(start.offset(width - 1, y, z), logMaterial));
-            }
-        }
+        // Side walls
+        passes.fill(0, 1, 1, height, 1, depth - 1, logMaterial);
+        passes.fill(width - 1, width, 1, height, 1, depth - 1, logMaterial);
 
-        // Peaked roof
+        // Peaked roof, one strip per column
         int roofPeakHeight = height + width / 2;
         for (int x = 0; x < width; x++) {
-            int distFromCenter = Math.abs(x - width / 2);
-            int roofY = roofPeakHeight - distFromCenter;
-
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, roofY, z), roofMaterial));
-            }
+            int roofY = roofPeakHeight - Math.abs(x - width / 2);
+            passes.fill(x, x + 1, roofY, roofY + 1, 0, depth, roofMaterial);
         }
 
-        return blocks;
+        return passes.build();
     }
 
-    private static List<BlockPlacement> buildWall(BlockPos start, int width, int height, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(materials, 0);
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                blocks.add(new BlockPlacement(start.offset(x, y, 0), material));
-            }
-        }
-
-        return blocks;
+    private static PlacementCursor buildWall(BlockPos start, int width, int height, List<Block> materials) {
+        return new ProceduralCursor.Builder(start)
+            .fill(0, width, 0, height, 0, 1, getMaterial(materials, 0).defaultBlockState())
+            .build();
     }
 
-    private static List<BlockPlacement> buildPlatform(BlockPos start, int width, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(materials, 0);
-
-        for (int x = 0; x < width; x++) {
-            for (int z = 0; z < depth; z++) {
-                blocks.add(new BlockPlacement(start.offset(x, 0, z), material));
-            }
-        }
-
-        return blocks;
+    private static PlacementCursor buildPlatform(BlockPos start, int width, int depth, List<Block> materials) {
+        return new ProceduralCursor.Builder(start)
+            .fill(0, width, 0, 1, 0, depth, getMaterial(materials, 0).defaultBlockState())
+            .build();
     }
 
-    private static List<BlockPlacement> buildBox(BlockPos start, int width, int height, int depth, List<Block> materials) {
-        List<BlockPlacement> blocks = new ArrayList<>();
-        Block material = getMaterial(materials, 0);
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    blocks.add(new BlockPlacement(start.offset(x, y, z), material));
-                }
-            }
-        }
-
-        return blocks;
+    private static PlacementCursor buildBox(BlockPos start, int width, int height, int depth, List<Block> materials) {
+        return new ProceduralCursor.Builder(start)
+            .fill(0, width, 0, height, 0, depth, getMaterial(materials, 0).defaultBlockState())
+            .build();
     }
 }
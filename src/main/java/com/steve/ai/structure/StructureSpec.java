@@ -0,0 +1,41 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+
+import java.util.List;
+
+/**
+ * The recorded parameters of a structure request.
+ * Procedural generators are deterministic, so a stored spec regenerates the same plan when a build is resumed.
+ */
+public class StructureSpec {
+    public final String structureType;
+    public final BlockPos origin;
+    public final int width;
+    public final int height;
+    public final int depth;
+    public final List<Block> materials;
+    public final PlanTransform transform; // Applied to the generated plan, dimensions are before it
+
+    public StructureSpec(String structureType, BlockPos origin, int width, int height, int depth, List<Block> materials) {
+        this(structureType, origin, width, height, depth, materials, PlanTransform.IDENTITY);
+    }
+
+    public StructureSpec(String structureType, BlockPos origin, int width, int height, int depth, List<Block> materials,
+                         PlanTransform transform) {
+        this.structureType = structureType;
+        this.origin = origin;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.materials = List.copyOf(materials);
+        this.transform = transform;
+    }
+
+    @Override
+    public String toString() {
+        String text = structureType + " " + width + "x" + height + "x" + depth + " at " + origin.toShortString();
+        return transform.isIdentity() ? text : text + " (" + transform + ")";
+    }
+}
@@ -0,0 +1,82 @@
+package com.steve.ai.structure;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable copy of the chunk sections a plan touches, so the plan can be compared against
+ * the world on worker threads. Capture must happen on the server thread; reads are thread-safe.
+ */
+public class WorldSnapshot {
+    private final Map<Long, PalettedContainer<BlockState>> sections; // Null value = section not loaded
+
+    private WorldSnapshot(Map<Long, PalettedContainer<BlockState>> sections) {
+        this.sections = sections;
+    }
+
+    /**
+     * Copy every section that contains a plan position
+     * @param candidates plan indices to cover, or null for the whole plan
+     */
+    public static WorldSnapshot capture(ServerLevel level, BuildPlan plan, BitSet candidates) {
+        Map<Long, PalettedContainer<BlockState>> sections = new HashMap<>();
+        long lastKey = Long.MIN_VALUE;
+
+        for (int i = nextIndex(candidates, 0); i >= 0 && i < plan.size(); i = nextIndex(candidates, i + 1)) {
+            long pos = plan.getPackedPos(i);
+            long key = SectionPos.asLong(
+                SectionPos.blockToSectionCoord(BlockPos.getX(pos)),
+                SectionPos.blockToSectionCoord(BlockPos.getY(pos)),
+                SectionPos.blockToSectionCoord(BlockPos.getZ(pos)));
+            // Plans are mostly sorted, so consecutive positions usually share a section
+            if (key == lastKey || sections.containsKey(key)) {
+                lastKey = key;
+                continue;
+            }
+            lastKey = key;
+            sections.put(key, copySection(level, key));
+        }
+        return new WorldSnapshot(sections);
+    }
+
+    private static int nextIndex(BitSet candidates, int from) {
+        return candidates == null ? from : candidates.nextSetBit(from);
+    }
+
+    private static PalettedContainer<BlockState> copySection(ServerLevel level, long key) {
+        LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+        if (chunk == null) {
+            return null;
+        }
+        int sectionIndex = level.getSectionIndexFromSectionY(SectionPos.y(key));
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSections().length) {
+            return null;
+        }
+        return chunk.getSection(sectionIndex).getStates().copy();
+    }
+
+    /**
+     * The captured state at a packed position, or null if its chunk was not loaded
+     * or the position is outside the build height
+     */
+    public BlockState getBlockState(long packedPos) {
+        int x = BlockPos.getX(packedPos);
+        int y = BlockPos.getY(packedPos);
+        int z = BlockPos.getZ(packedPos);
+        PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(
+            SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z)));
+        return states == null ? null : states.get(x & 15, y & 15, z & 15);
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+}
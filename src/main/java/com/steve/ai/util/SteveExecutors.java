@@ -0,0 +1,72 @@
+package com.steve.ai.util;
+
+import com.steve.ai.SteveMod;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared worker threads for work that must not run on the server thread
+ * (template I/O, plan generation, etc.)
+ */
+public class SteveExecutors {
+    private static final int BACKGROUND_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final ExecutorService BACKGROUND = Executors.newFixedThreadPool(BACKGROUND_THREADS,
+        namedDaemonFactory("Steve-Worker"));
+
+    private static final int PATHFINDING_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 4));
+
+    private static final ExecutorService PATHFINDING = Executors.newFixedThreadPool(PATHFINDING_THREADS,
+        namedDaemonFactory("Steve-Pathfinder"));
+
+    private static final ForkJoinPool FORK_JOIN = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Steve-ForkJoin-" + thread.getPoolIndex());
+            thread.setContextClassLoader(SteveExecutors.class.getClassLoader());
+            return thread;
+        },
+        (t, e) -> SteveMod.LOGGER.error("Uncaught exception in {}", t.getName(), e),
+        false);
+
+    /**
+     * Executor for background jobs. Results must be handed back to the server thread
+     * (e.g. polled from an action's tick) before touching the world.
+     */
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Executor for path searches, kept apart from background() so long searches never queue behind plan
+     * generation (or the other way round). Same rule: results go back to the server thread before use.
+     */
+    public static ExecutorService pathfinding() {
+        return PATHFINDING;
+    }
+
+    /**
+     * Pool for data-parallel jobs that split themselves up (voxelizing, diffing).
+     * Only call into it from worker threads, never from the server thread.
+     */
+    public static ForkJoinPool forkJoin() {
+        return FORK_JOIN;
+    }
+
+    private static ThreadFactory namedDaemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler((t, e) ->
+                SteveMod.LOGGER.error("Uncaught exception in {}", t.getName(), e));
+            return thread;
+        };
+    }
+}